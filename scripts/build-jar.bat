@@ -0,0 +1,23 @@
+@echo off
+rem Builds Pong_Goshovskyy.jar from the sources in src\ and the resources in res\.
+rem Every game asset is also packed into assets.pak at the root of the jar, which the asset loader reads with a single
+rem stream instead of opening each resource. The individual resources stay in the jar as a fallback.
+rem
+rem Usage: scripts\build-jar.bat
+rem
+rem Set PONG_JAR to write the jar somewhere else. Requires a JDK with javac and jar on the path.
+
+setlocal
+cd /d "%~dp0.."
+if "%PONG_JAR%"=="" (set JAR=Pong_Goshovskyy.jar) else (set JAR=%PONG_JAR%)
+set BUILD=build
+
+if exist "%BUILD%" rmdir /s /q "%BUILD%"
+mkdir "%BUILD%\classes" || exit /b 1
+dir /s /b src\*.java > "%BUILD%\sources.txt"
+javac -encoding UTF-8 -d "%BUILD%\classes" @"%BUILD%\sources.txt" || exit /b 1
+xcopy /e /i /q /y res "%BUILD%\classes" > nul || exit /b 1
+if exist "%BUILD%\classes\META-INF" rmdir /s /q "%BUILD%\classes\META-INF"
+java -cp "%BUILD%\classes" assetLoader.AssetBundle res "%BUILD%\classes\assets.pak" || exit /b 1
+jar --create --file "%JAR%" --manifest res\META-INF\MANIFEST.MF -C "%BUILD%\classes" . || exit /b 1
+echo Built %JAR%
@@ -0,0 +1,22 @@
+#!/bin/sh
+# Builds Pong_Goshovskyy.jar from the sources in src/ and the resources in res/.
+# Every game asset is also packed into assets.pak at the root of the jar, which the asset loader reads with a single
+# stream instead of opening each resource. The individual resources stay in the jar as a fallback.
+#
+# Usage: scripts/build-jar.sh
+#
+# Set PONG_JAR to write the jar somewhere else. Requires a JDK with javac and jar on the path.
+
+cd "$(dirname "$0")/.." || exit 1
+JAR=${PONG_JAR:-Pong_Goshovskyy.jar}
+BUILD=build
+
+rm -rf "$BUILD"
+mkdir -p "$BUILD/classes" || exit 1
+find src -name '*.java' > "$BUILD/sources.txt"
+javac -encoding UTF-8 -d "$BUILD/classes" @"$BUILD/sources.txt" || exit 1
+cp -R res/. "$BUILD/classes/" || exit 1
+rm -rf "$BUILD/classes/META-INF"
+java -cp "$BUILD/classes" assetLoader.AssetBundle res "$BUILD/classes/assets.pak" || exit 1
+jar --create --file "$JAR" --manifest res/META-INF/MANIFEST.MF -C "$BUILD/classes" . || exit 1
+echo "Built $JAR"
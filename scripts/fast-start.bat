@@ -0,0 +1,44 @@
+@echo off
+rem Fast start launcher for Pong using an application class-data sharing (AppCDS) archive.
+rem The first run plays a silent warm-up match, shows the title screen once and exits, which dumps
+rem every loaded class (Swing, Java2D, javax.sound and the game) into the archive. Later runs map it.
+rem
+rem Usage: scripts\fast-start.bat            start the game
+rem        scripts\fast-start.bat --measure  print time to title screen with and without the archive
+rem
+rem The jar is built from the sources by scripts\build-jar.bat. Run it after changing them; the archive is recreated
+rem on the next start because the jar is newer.
+rem
+rem Set PONG_WARMUP=true to also warm up the ball and UI code before the first frame on every start.
+rem Requires JDK 13 or newer.
+
+setlocal
+cd /d "%~dp0.."
+if "%PONG_JAR%"=="" (set JAR=Pong_Goshovskyy.jar) else (set JAR=%PONG_JAR%)
+if "%PONG_ARCHIVE%"=="" (set ARCHIVE=pong.jsa) else (set ARCHIVE=%PONG_ARCHIVE%)
+if "%PONG_RUNS%"=="" (set RUNS=5) else (set RUNS=%PONG_RUNS%)
+if "%PONG_WARMUP%"=="" set PONG_WARMUP=false
+
+rem Recreate the archive when it is missing or older than the jar; dir lists the newest file last
+set NEWEST=%JAR%
+if exist "%ARCHIVE%" for /f "delims=" %%F in ('dir /b /o:d "%JAR%" "%ARCHIVE%"') do set NEWEST=%%F
+if /i "%NEWEST%"=="%JAR%" (
+    echo Creating class-data sharing archive %ARCHIVE%
+    rem An archive of a failed run, for example without a display, would only hold the classes loaded until it failed
+    java -XX:ArchiveClassesAtExit="%ARCHIVE%" -Dpong.warmup=true -Dpong.exitAfterFirstFrame=true -jar "%JAR%" > nul || del /q "%ARCHIVE%" 2> nul
+)
+
+if "%~1"=="--measure" (
+    for %%M in (default fast) do (
+        for /l %%I in (1,1,%RUNS%) do (
+            if "%%M"=="fast" (
+                for /f "tokens=5" %%T in ('java -XX:SharedArchiveFile^="%ARCHIVE%" -Dpong.exitAfterFirstFrame^=true -Dpong.reportFirstFrame^=true -jar "%JAR%" ^| findstr /b /c:"Time to first frame"') do echo %%M: %%T ms
+            ) else (
+                for /f "tokens=5" %%T in ('java -Dpong.exitAfterFirstFrame^=true -Dpong.reportFirstFrame^=true -jar "%JAR%" ^| findstr /b /c:"Time to first frame"') do echo %%M: %%T ms
+            )
+        )
+    )
+    exit /b 0
+)
+
+java -XX:SharedArchiveFile="%ARCHIVE%" -Dpong.warmup=%PONG_WARMUP% -jar "%JAR%" %*
@@ -0,0 +1,41 @@
+#!/bin/sh
+# Fast start launcher for Pong using an application class-data sharing (AppCDS) archive.
+# The first run plays a silent warm-up match, shows the title screen once and exits, which dumps
+# every loaded class (Swing, Java2D, javax.sound and the game) into the archive. Later runs map it.
+#
+# Usage: scripts/fast-start.sh            start the game
+#        scripts/fast-start.sh --measure  print time to title screen with and without the archive
+#
+# The jar is built from the sources by scripts/build-jar.sh. Run it after changing them; the archive is recreated
+# on the next start because the jar is newer.
+#
+# Set PONG_WARMUP=true to also warm up the ball and UI code before the first frame on every start.
+# Requires JDK 13 or newer.
+
+cd "$(dirname "$0")/.." || exit 1
+JAR=${PONG_JAR:-Pong_Goshovskyy.jar}
+ARCHIVE=${PONG_ARCHIVE:-pong.jsa}
+RUNS=${PONG_RUNS:-5}
+
+if [ ! -f "$ARCHIVE" ] || [ "$JAR" -nt "$ARCHIVE" ]; then
+    echo "Creating class-data sharing archive $ARCHIVE"
+    # An archive of a failed run, for example without a display, would only hold the classes loaded until it failed
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" -Dpong.warmup=true -Dpong.exitAfterFirstFrame=true -jar "$JAR" > /dev/null || rm -f "$ARCHIVE"
+fi
+
+if [ "$1" = "--measure" ]; then
+    for mode in default fast; do
+        i=0
+        while [ "$i" -lt "$RUNS" ]; do
+            if [ "$mode" = "fast" ]; then
+                java -XX:SharedArchiveFile="$ARCHIVE" -Dpong.exitAfterFirstFrame=true -Dpong.reportFirstFrame=true -jar "$JAR"
+            else
+                java -Dpong.exitAfterFirstFrame=true -Dpong.reportFirstFrame=true -jar "$JAR"
+            fi | sed -n "s/^Time to first frame: /$mode: /p"
+            i=$((i + 1))
+        done
+    done
+    exit 0
+fi
+
+exec java -XX:SharedArchiveFile="$ARCHIVE" -Dpong.warmup="${PONG_WARMUP:-false}" -jar "$JAR" "$@"
@@ -0,0 +1,126 @@
+package assetLoader;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The AssetBundle class reads and writes a packed file containing every game asset.
+ * The file starts with an index of names, offsets and lengths followed by the raw asset data.
+ * When the bundle is a plain file it is memory-mapped; inside a jar it is read with a single stream.
+ */
+public class AssetBundle {
+    /**
+     * The name of the bundle on the classpath.
+     */
+    public static final String BUNDLE_NAME = "assets.pak";
+    private static final int MAGIC = 0x504f4e47; // "PONG"
+
+    private final ByteBuffer data;
+    private final Map<String, int[]> index = new HashMap<>();
+
+    private AssetBundle(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.getInt() != MAGIC) {
+            throw new IOException("Not an asset bundle");
+        }
+        int count = data.getInt();
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[data.getShort()];
+            data.get(name);
+            index.put(new String(name, StandardCharsets.UTF_8), new int[]{data.getInt(), data.getInt()});
+        }
+    }
+
+    /**
+     * Opens the bundle from the classpath.
+     *
+     * @return the opened bundle, or null if there is no bundle on the classpath
+     * @throws IOException if the bundle cannot be read
+     */
+    public static AssetBundle open() throws IOException {
+        URL url = AssetBundle.class.getResource("/" + BUNDLE_NAME);
+        if (url == null) {
+            return null;
+        }
+        if (url.getProtocol().equals("file")) {
+            try (FileChannel channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                return new AssetBundle(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        try (InputStream stream = url.openStream()) {
+            return new AssetBundle(ByteBuffer.wrap(stream.readAllBytes()));
+        }
+    }
+
+    /**
+     * Returns a view of an asset in the bundle. No data is copied.
+     *
+     * @param name the name of the asset, relative to the classpath root
+     * @return the asset data, or null if the bundle does not contain the asset
+     */
+    public ByteBuffer get(String name) {
+        int[] entry = index.get(name);
+        if (entry == null) {
+            return null;
+        }
+        return data.duplicate().position(entry[0]).limit(entry[0] + entry[1]).slice();
+    }
+
+    /**
+     * Packs the given assets into a bundle.
+     *
+     * @param root   the directory the asset names are relative to
+     * @param names  the names of the assets to pack
+     * @param output the bundle file to write
+     * @throws IOException if an asset cannot be read or the bundle cannot be written
+     */
+    public static void pack(Path root, String[] names, Path output) throws IOException {
+        byte[][] contents = new byte[names.length][];
+        byte[][] encodedNames = new byte[names.length][];
+        int headerSize = 8;
+        for (int i = 0; i < names.length; i++) {
+            contents[i] = Files.readAllBytes(root.resolve(names[i]));
+            encodedNames[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            headerSize += 2 + encodedNames[i].length + 8;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(names.length);
+            int offset = headerSize;
+            for (int i = 0; i < names.length; i++) {
+                out.writeShort(encodedNames[i].length);
+                out.write(encodedNames[i]);
+                out.writeInt(offset);
+                out.writeInt(contents[i].length);
+                offset += contents[i].length;
+            }
+            for (byte[] content : contents) {
+                out.write(content);
+            }
+        }
+    }
+
+    /**
+     * Packs every game asset from the resource directory into the bundle.
+     * scripts/build-jar.sh runs it when packaging the jar: {@code java assetLoader.AssetBundle res build/classes/assets.pak}
+     *
+     * @param args the resource directory and the output file
+     * @throws IOException if the bundle cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path root = Path.of(args.length > 0 ? args[0] : "res");
+        Path output = Path.of(args.length > 1 ? args[1] : "res/" + BUNDLE_NAME);
+        pack(root, AssetLoader.ASSETS, output);
+    }
+}
@@ -0,0 +1,153 @@
+package assetLoader;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The AssetLoader class loads and decodes every game asset concurrently at startup.
+ * Assets are taken from the packed asset bundle if it is on the classpath, otherwise from the individual resources.
+ * Getters wait only for the asset they need, so the window can be created while the rest is still loading.
+ */
+public class AssetLoader {
+    /**
+     * The font used by the user interface.
+     */
+    public static final String FONT = "press-start-font/PressStartRegular-ay8E.ttf";
+    /**
+     * The window icon.
+     */
+    public static final String ICON = "icon/Icon.png";
+    /**
+     * The background of the playing field.
+     */
+    public static final String BACKGROUND = "background/Background.png";
+    /**
+     * The sound effects, in the order they are indexed by the Sound class.
+     */
+    public static final String[] SOUNDS = {"sound/Choice.wav", "sound/EnterChoice.wav", "sound/Quit.wav", "sound/Bounce.wav", "sound/Goal.wav"};
+    static final String[] ASSETS = {FONT, ICON, BACKGROUND, SOUNDS[0], SOUNDS[1], SOUNDS[2], SOUNDS[3], SOUNDS[4]};
+
+    private static final Map<String, CompletableFuture<?>> assets = new HashMap<>();
+    private static boolean started = false;
+
+    private AssetLoader() {
+    }
+
+    /**
+     * Starts loading every asset in the background. Calling it again does nothing.
+     */
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        AssetBundle bundle;
+        try {
+            bundle = AssetBundle.open();
+        } catch (IOException e) {
+            bundle = null; // fall back to the individual resources
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(ASSETS.length, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread thread = new Thread(r, "asset-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AssetBundle source = bundle;
+        assets.put(FONT, CompletableFuture.supplyAsync(() -> {
+            try (InputStream stream = open(source, FONT)) {
+                return Font.createFont(Font.TRUETYPE_FONT, stream);
+            } catch (IOException | FontFormatException e) {
+                throw new RuntimeException(e);
+            }
+        }, executor));
+        for (String image : new String[]{ICON, BACKGROUND}) {
+            assets.put(image, CompletableFuture.supplyAsync(() -> {
+                try (InputStream stream = open(source, image)) {
+                    return ImageIO.read(stream);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }, executor));
+        }
+        for (String sound : SOUNDS) {
+            assets.put(sound, CompletableFuture.supplyAsync(() -> {
+                try (InputStream stream = open(source, sound)) {
+                    return stream.readAllBytes();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }, executor));
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the loaded font, waiting for it if needed.
+     *
+     * @param name the name of the font
+     * @return the font
+     * @throws RuntimeException if the font could not be loaded
+     */
+    public static Font getFont(String name) {
+        return (Font) get(name);
+    }
+
+    /**
+     * Returns the decoded image, waiting for it if needed.
+     *
+     * @param name the name of the image
+     * @return the image
+     */
+    public static BufferedImage getImage(String name) {
+        return (BufferedImage) get(name);
+    }
+
+    /**
+     * Returns the raw bytes of a sound file, waiting for it if needed.
+     *
+     * @param name the name of the sound
+     * @return the bytes of the sound file
+     */
+    public static byte[] getBytes(String name) {
+        return (byte[]) get(name);
+    }
+
+    private static Object get(String name) {
+        CompletableFuture<?> future;
+        synchronized (AssetLoader.class) {
+            start();
+            future = assets.get(name);
+        }
+        if (future == null) {
+            throw new IllegalArgumentException("Unknown asset: " + name);
+        }
+        return future.join();
+    }
+
+    private static InputStream open(AssetBundle bundle, String name) throws IOException {
+        ByteBuffer buffer = bundle == null ? null : bundle.get(name);
+        if (buffer == null) {
+            InputStream stream = AssetLoader.class.getResourceAsStream("/" + name);
+            if (stream == null) {
+                throw new IOException("Asset not found: " + name);
+            }
+            return stream;
+        }
+        if (buffer.hasArray()) {
+            return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new ByteArrayInputStream(bytes);
+    }
+}
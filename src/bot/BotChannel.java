@@ -0,0 +1,184 @@
+package bot;
+
+import entity.Directions;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The BotChannel class is the game side of the shared-memory bot interface. The game and an agent process map
+ * the same file: every tick the game writes an observation into the next slot of the observation ring and
+ * publishes its sequence number, then waits for the agent to answer with the action of that sequence.
+ * Both sides wait by spinning for a few microseconds and then parking briefly, so on a machine with more than one core
+ * a round trip takes microseconds while the agent keeps up, and waiting costs little CPU when it does not.
+ * <p>
+ * The file is little-endian. The header holds the int magic "PBOT", the int version 1, the int ring capacity,
+ * the int screen width and height, then on their own cache lines the long observation sequence written by the game
+ * (offset 64), the long action sequence written by the agent (offset 128) and the long attached flag (offset 192),
+ * which the agent sets to a nonzero value while it answers. A sequence n uses slot n % capacity of both rings.
+ * An observation slot holds the long sequence, the int ball X, Y, X speed and Y speed, the int left and right paddle
+ * Y, the int left and right score and the int side of the bot, 0 left or 1 right. An action slot holds the long
+ * sequence and the int direction, the ordinal of {@link Directions}. The game only waits while an agent is attached,
+ * and detaches an agent that does not answer within {@value #TIMEOUT_MILLIS} ms.
+ */
+public class BotChannel {
+    /**
+     * The number of slots of each ring.
+     */
+    public static final int CAPACITY = 64;
+
+    static final int MAGIC = 0x544f4250;
+    static final int VERSION = 1;
+    static final int OBSERVATION_SEQUENCE = 64;
+    static final int ACTION_SEQUENCE = 128;
+    static final int ATTACHED = 192;
+    static final int HEADER_SIZE = 256;
+    static final int OBSERVATION_SIZE = 48;
+    static final int ACTION_SIZE = 16;
+    static final int OBSERVATIONS = HEADER_SIZE;
+    static final int ACTIONS = OBSERVATIONS + CAPACITY * OBSERVATION_SIZE;
+    static final int FILE_SIZE = ACTIONS + CAPACITY * ACTION_SIZE;
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    // Spinning only helps when the other side runs on another core
+    private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 20000 : 0;
+    private static final long PARK_NANOS = 20000L;
+    private static final long TIMEOUT_MILLIS = 1000;
+    private static final Directions[] DIRECTIONS = Directions.values();
+
+    private final MappedByteBuffer buffer;
+    private long sequence;
+    private long missedActions;
+    private long lastRoundTrip;
+
+    /**
+     * Creates or clears the shared file and writes its header.
+     *
+     * @param file         the file shared with the agent
+     * @param screenWidth  the width of the field
+     * @param screenHeight the height of the field
+     */
+    public BotChannel(Path file, int screenWidth, int screenHeight) {
+        buffer = map(file, true);
+        for (int i = 0; i < FILE_SIZE; i += 8) {
+            buffer.putLong(i, 0);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, CAPACITY);
+        buffer.putInt(12, screenWidth);
+        buffer.putInt(16, screenHeight);
+        LONGS.setRelease(buffer, OBSERVATION_SEQUENCE, 0L);
+    }
+
+    /**
+     * Maps the shared file, creating it with the full size on the game side.
+     */
+    static MappedByteBuffer map(Path file, boolean create) {
+        try (FileChannel channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (!create && channel.size() < FILE_SIZE) {
+                throw new IllegalArgumentException(file + " is not a bot channel");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes the observation of a tick and waits for the action of the agent.
+     * Without an attached agent it returns at once.
+     *
+     * @param ballX        the ball X-coordinate
+     * @param ballY        the ball Y-coordinate
+     * @param ballXSpeed   the ball X speed
+     * @param ballYSpeed   the ball Y speed
+     * @param leftPaddleY  the left paddle Y-coordinate
+     * @param rightPaddleY the right paddle Y-coordinate
+     * @param leftScore    the score of the left player
+     * @param rightScore   the score of the right player
+     * @param onLeft       true if the bot plays the left paddle
+     * @return the action of the agent, or NONE if no agent answered
+     */
+    public Directions exchange(int ballX, int ballY, int ballXSpeed, int ballYSpeed, int leftPaddleY, int rightPaddleY,
+                               int leftScore, int rightScore, boolean onLeft) {
+        long start = System.nanoTime();
+        long n = ++sequence;
+        int slot = OBSERVATIONS + (int) (n % CAPACITY) * OBSERVATION_SIZE;
+        buffer.putLong(slot, n);
+        buffer.putInt(slot + 8, ballX);
+        buffer.putInt(slot + 12, ballY);
+        buffer.putInt(slot + 16, ballXSpeed);
+        buffer.putInt(slot + 20, ballYSpeed);
+        buffer.putInt(slot + 24, leftPaddleY);
+        buffer.putInt(slot + 28, rightPaddleY);
+        buffer.putInt(slot + 32, leftScore);
+        buffer.putInt(slot + 36, rightScore);
+        buffer.putInt(slot + 40, onLeft ? 0 : 1);
+        LONGS.setRelease(buffer, OBSERVATION_SEQUENCE, n);
+        if ((long) LONGS.getAcquire(buffer, ATTACHED) == 0) {
+            return Directions.NONE;
+        }
+        long deadline = start + TIMEOUT_MILLIS * 1000000L;
+        int spins = 0;
+        while ((long) LONGS.getAcquire(buffer, ACTION_SEQUENCE) < n) {
+            if (spins < SPINS) {
+                spins++;
+                Thread.onSpinWait();
+            } else if (System.nanoTime() > deadline) {
+                // The agent stopped answering; it attaches again with its next action
+                LONGS.setRelease(buffer, ATTACHED, 0L);
+                missedActions++;
+                return Directions.NONE;
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+        int action = ACTIONS + (int) (n % CAPACITY) * ACTION_SIZE;
+        int direction = buffer.getInt(action + 8);
+        lastRoundTrip = System.nanoTime() - start;
+        if (buffer.getLong(action) != n || direction < 0 || direction >= DIRECTIONS.length) {
+            missedActions++;
+            return Directions.NONE;
+        }
+        return DIRECTIONS[direction];
+    }
+
+    /**
+     * Checks if an agent is attached and answering.
+     *
+     * @return true if an agent is attached
+     */
+    public boolean isAttached() {
+        return (long) LONGS.getAcquire(buffer, ATTACHED) != 0;
+    }
+
+    /**
+     * Returns the number of ticks the agent did not answer in time or answered with an invalid action.
+     *
+     * @return the missed action count
+     */
+    public long getMissedActions() {
+        return missedActions;
+    }
+
+    /**
+     * Returns the time from writing the latest answered observation until its action was read.
+     *
+     * @return the round trip time in nanoseconds
+     */
+    public long getLastRoundTrip() {
+        return lastRoundTrip;
+    }
+}
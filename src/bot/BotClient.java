@@ -0,0 +1,226 @@
+package bot;
+
+import entity.Directions;
+
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The BotClient class is the agent side of the shared-memory bot interface, for agents running on the JVM and as
+ * a reference for agents in other languages, which map the same file with the layout described by {@link BotChannel}.
+ * An agent waits for each observation, reads it through the getters and answers with an action.
+ * Run on its own, it is a demo agent that follows the ball: {@code java bot.BotClient <file>}.
+ */
+public class BotClient {
+    private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 20000 : 0;
+    private static final long PARK_NANOS = 20000L;
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private long sequence;
+    private int slot;
+
+    /**
+     * Maps a bot channel created by the game.
+     *
+     * @param file the file shared with the game
+     * @throws IllegalArgumentException if the file is not a bot channel
+     */
+    public BotClient(Path file) {
+        buffer = BotChannel.map(file, false);
+        if (buffer.getInt(0) != BotChannel.MAGIC || buffer.getInt(4) != BotChannel.VERSION) {
+            throw new IllegalArgumentException(file + " is not a version " + BotChannel.VERSION + " bot channel");
+        }
+        capacity = buffer.getInt(8);
+    }
+
+    /**
+     * Marks the agent as attached, so the game waits for its actions, and skips to the latest observation.
+     */
+    public void attach() {
+        sequence = (long) BotChannel.LONGS.getAcquire(buffer, BotChannel.OBSERVATION_SEQUENCE);
+        BotChannel.LONGS.setRelease(buffer, BotChannel.ACTION_SEQUENCE, sequence);
+        BotChannel.LONGS.setRelease(buffer, BotChannel.ATTACHED, 1L);
+    }
+
+    /**
+     * Marks the agent as detached, so the game stops waiting for it.
+     */
+    public void detach() {
+        BotChannel.LONGS.setRelease(buffer, BotChannel.ATTACHED, 0L);
+    }
+
+    /**
+     * Waits for the next observation, spinning briefly and then parking.
+     *
+     * @param timeoutNanos the longest time to wait
+     * @return true if an observation arrived, false on timeout
+     */
+    public boolean awaitObservation(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        int spins = 0;
+        while (true) {
+            long published = (long) BotChannel.LONGS.getAcquire(buffer, BotChannel.OBSERVATION_SEQUENCE);
+            if (published < sequence) {
+                sequence = 0; // The game created the channel again
+            }
+            if (published > sequence) {
+                // Lockstep answers every observation, so normally this is the next one
+                sequence = published;
+                slot = BotChannel.OBSERVATIONS + (int) (sequence % capacity) * BotChannel.OBSERVATION_SIZE;
+                return true;
+            }
+            if (spins < SPINS) {
+                spins++;
+                Thread.onSpinWait();
+            } else if (System.nanoTime() > deadline) {
+                return false;
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Answers the latest observation. Answering also attaches the agent again after the game detached it.
+     *
+     * @param direction the direction to move the paddle in this tick
+     */
+    public void sendAction(Directions direction) {
+        int action = BotChannel.ACTIONS + (int) (sequence % capacity) * BotChannel.ACTION_SIZE;
+        buffer.putLong(action, sequence);
+        buffer.putInt(action + 8, direction.ordinal());
+        BotChannel.LONGS.setRelease(buffer, BotChannel.ACTION_SEQUENCE, sequence);
+        if ((long) BotChannel.LONGS.getAcquire(buffer, BotChannel.ATTACHED) == 0) {
+            BotChannel.LONGS.setRelease(buffer, BotChannel.ATTACHED, 1L);
+        }
+    }
+
+    /**
+     * Returns the sequence number of the latest observation.
+     *
+     * @return the sequence
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the width of the field.
+     *
+     * @return the screen width
+     */
+    public int getScreenWidth() {
+        return buffer.getInt(12);
+    }
+
+    /**
+     * Returns the height of the field.
+     *
+     * @return the screen height
+     */
+    public int getScreenHeight() {
+        return buffer.getInt(16);
+    }
+
+    /**
+     * Returns the ball X-coordinate of the latest observation.
+     *
+     * @return the ball X-coordinate
+     */
+    public int getBallX() {
+        return buffer.getInt(slot + 8);
+    }
+
+    /**
+     * Returns the ball Y-coordinate of the latest observation.
+     *
+     * @return the ball Y-coordinate
+     */
+    public int getBallY() {
+        return buffer.getInt(slot + 12);
+    }
+
+    /**
+     * Returns the ball X speed of the latest observation.
+     *
+     * @return the ball X speed
+     */
+    public int getBallXSpeed() {
+        return buffer.getInt(slot + 16);
+    }
+
+    /**
+     * Returns the ball Y speed of the latest observation.
+     *
+     * @return the ball Y speed
+     */
+    public int getBallYSpeed() {
+        return buffer.getInt(slot + 20);
+    }
+
+    /**
+     * Returns the left paddle Y-coordinate of the latest observation.
+     *
+     * @return the left paddle Y-coordinate
+     */
+    public int getLeftPaddleY() {
+        return buffer.getInt(slot + 24);
+    }
+
+    /**
+     * Returns the right paddle Y-coordinate of the latest observation.
+     *
+     * @return the right paddle Y-coordinate
+     */
+    public int getRightPaddleY() {
+        return buffer.getInt(slot + 28);
+    }
+
+    /**
+     * Returns the score of the left player in the latest observation.
+     *
+     * @return the left score
+     */
+    public int getLeftScore() {
+        return buffer.getInt(slot + 32);
+    }
+
+    /**
+     * Returns the score of the right player in the latest observation.
+     *
+     * @return the right score
+     */
+    public int getRightScore() {
+        return buffer.getInt(slot + 36);
+    }
+
+    /**
+     * Checks if the bot plays the left paddle.
+     *
+     * @return true for the left paddle, false for the right one
+     */
+    public boolean isOnLeft() {
+        return buffer.getInt(slot + 40) == 0;
+    }
+
+    /**
+     * Runs a demo agent that moves its paddle towards the ball until the game stops sending observations.
+     *
+     * @param args the path of the bot channel file
+     */
+    public static void main(String[] args) {
+        BotClient client = new BotClient(Path.of(args[0]));
+        client.attach();
+        long rounds = 0;
+        while (client.awaitObservation(10000000000L)) {
+            int paddleY = client.isOnLeft() ? client.getLeftPaddleY() : client.getRightPaddleY();
+            int target = client.getBallY() - 45; // Centers the 100 pixel paddle on the 10 pixel ball
+            client.sendAction(target < paddleY - 5 ? Directions.UP : target > paddleY + 5 ? Directions.DOWN : Directions.NONE);
+            rounds++;
+        }
+        client.detach();
+        System.out.println("Answered " + rounds + " observations");
+    }
+}
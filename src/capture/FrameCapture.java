@@ -0,0 +1,271 @@
+package capture;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The FrameCapture class records rendered frames as a numbered PNG sequence and takes screenshots.
+ * The render thread only copies a frame into one of a few pooled images and queues it; background encoder threads
+ * write the PNG files and return the images to the pool. When every pooled image is still waiting for an encoder
+ * the frame is dropped and counted instead of making the render thread wait; its number is skipped in the sequence.
+ * Screenshots are named after the time they were written and numbered, so screenshots of one millisecond do not
+ * overwrite each other.
+ */
+public class FrameCapture {
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final DateTimeFormatter SCREENSHOT_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final int width;
+    private final int height;
+    private final int poolSize;
+    private final Path captureDirectory;
+    private final Path screenshotDirectory;
+    private final ArrayBlockingQueue<Frame> free;
+    private final ArrayBlockingQueue<Frame> filled;
+    private final AtomicLong captured = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicInteger screenshots = new AtomicInteger();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile Path session;
+    private int sequence;
+    private long droppedBefore;
+    private volatile boolean started;
+
+    /**
+     * Constructs a FrameCapture. The pooled images and the encoder threads are created on first use.
+     *
+     * @param width               the width of the captured frames
+     * @param height              the height of the captured frames
+     * @param poolSize            the number of frames that can wait for an encoder
+     * @param captureDirectory    the directory receiving one sub-directory of frames per recording
+     * @param screenshotDirectory the directory receiving the screenshots
+     */
+    public FrameCapture(int width, int height, int poolSize, Path captureDirectory, Path screenshotDirectory) {
+        this.width = width;
+        this.height = height;
+        this.poolSize = poolSize;
+        this.captureDirectory = captureDirectory;
+        this.screenshotDirectory = screenshotDirectory;
+        free = new ArrayBlockingQueue<>(poolSize);
+        filled = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * Starts recording every captured frame into a new directory named after the current time.
+     */
+    public synchronized void startRecording() {
+        start();
+        droppedBefore = droppedFrames.get();
+        sequence = 0; // Published to the render thread by the volatile write of the session
+        session = captureDirectory.resolve(LocalDateTime.now().format(NAME_FORMAT));
+    }
+
+    /**
+     * Stops recording. Frames already queued are still written.
+     *
+     * @return the number of frames of the recording queued for encoding, 0 if nothing was recorded
+     */
+    public synchronized long stopRecording() {
+        if (session == null) {
+            return 0;
+        }
+        session = null;
+        return sequence - (droppedFrames.get() - droppedBefore);
+    }
+
+    /**
+     * Checks if frames are being recorded.
+     *
+     * @return true while recording
+     */
+    public boolean isRecording() {
+        return session != null;
+    }
+
+    /**
+     * Queues a frame of the recording. Does nothing when not recording.
+     *
+     * @param frame the rendered frame, scaled to the capture size if needed
+     * @return false if the frame was dropped because no pooled image was free
+     */
+    public boolean record(BufferedImage frame) {
+        Path directory = session;
+        if (directory == null) {
+            return true;
+        }
+        return queue(frame, directory, ++sequence);
+    }
+
+    /**
+     * Queues a frame to be written as a screenshot named after the current time.
+     *
+     * @param frame the rendered frame, scaled to the capture size if needed
+     * @return false if the screenshot was dropped because no pooled image was free
+     */
+    public boolean screenshot(BufferedImage frame) {
+        synchronized (this) {
+            start();
+        }
+        return queue(frame, screenshotDirectory, -screenshots.incrementAndGet());
+    }
+
+    /**
+     * Copies a frame into a free pooled image and hands it to the encoders. A positive number is the number of
+     * a recorded frame, a negative one that of a screenshot.
+     */
+    private boolean queue(BufferedImage frame, Path directory, int number) {
+        Frame pooled = free.poll();
+        if (pooled == null) {
+            dropped.incrementAndGet();
+            if (number > 0) {
+                droppedFrames.incrementAndGet();
+            }
+            return false;
+        }
+        pooled.graphics.drawImage(frame, 0, 0, width, height, null);
+        pooled.directory = directory;
+        pooled.number = number;
+        filled.offer(pooled);
+        captured.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Creates the pooled images and starts the encoder threads on first use.
+     */
+    private void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        for (int i = 0; i < poolSize; i++) {
+            free.offer(new Frame(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB)));
+        }
+        int encoders = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        for (int i = 0; i < encoders; i++) {
+            Thread encoder = new Thread(this::encode, "Frame encoder " + i);
+            encoder.setDaemon(true);
+            encoder.setPriority(Thread.MIN_PRIORITY);
+            encoder.start();
+        }
+    }
+
+    /**
+     * Encoder loop writes the queued frames as PNG files and returns their images to the pool.
+     */
+    private void encode() {
+        while (true) {
+            Frame frame;
+            try {
+                frame = filled.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                Files.createDirectories(frame.directory);
+                String name = frame.number < 0 ? "pong-" + LocalDateTime.now().format(SCREENSHOT_FORMAT) + "-" + -frame.number
+                        : String.format("frame-%06d", frame.number);
+                ImageIO.write(frame.image, "png", frame.directory.resolve(name + ".png").toFile());
+                written.incrementAndGet();
+            } catch (IOException e) {
+                failed.incrementAndGet();
+            } finally {
+                free.offer(frame);
+            }
+        }
+    }
+
+    /**
+     * Waits until every queued frame has been written.
+     *
+     * @param timeoutMillis the longest time to wait in milliseconds
+     * @return true if every frame was written in time
+     */
+    public boolean flush(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (free.size() < poolSize && started) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of frames and screenshots queued for encoding.
+     *
+     * @return the captured frame count
+     */
+    public long getCaptured() {
+        return captured.get();
+    }
+
+    /**
+     * Returns the number of frames and screenshots dropped because every pooled image was busy.
+     *
+     * @return the dropped frame count
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of recorded frames dropped because every pooled image was busy, without the screenshots.
+     *
+     * @return the dropped recording frame count
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Returns the number of frames and screenshots written to disk.
+     *
+     * @return the written frame count
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * Returns the number of frames and screenshots that could not be written.
+     *
+     * @return the failed frame count
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * A pooled image with the destination of the frame it currently holds.
+     */
+    private static class Frame {
+        private final BufferedImage image;
+        private final Graphics2D graphics;
+        private Path directory;
+        private int number;
+
+        private Frame(BufferedImage image) {
+            this.image = image;
+            this.graphics = image.createGraphics();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package configLoader;
+
+import gameGraphics.RenderGovernor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The Tuning class holds the typed performance settings read from {@code gameConfig/tuning.properties}:
+ * the simulation tick rate, the render frame rate cap, the render scale, the computer difficulty,
+ * the audio settings and the profiler settings. A Tuning is immutable, so a reloaded file replaces
+ * every setting at once. Missing keys keep their defaults; invalid values are rejected with every problem listed.
+ */
+public class Tuning {
+    /**
+     * The default settings, matching the game before the settings were configurable.
+     */
+    public static final Tuning DEFAULTS = new Tuning(60, 0, null, Difficulty.NORMAL, 50, false, false, true, 0);
+
+    /**
+     * How fast and how far ahead the computer paddle follows the ball. The hard computer also searches ahead
+     * for the return that is hardest for the opponent to reach.
+     */
+    public enum Difficulty {
+        EASY(1, 3),
+        NORMAL(1, 5),
+        HARD(2, 7);
+
+        private final int speed;
+        private final int maxSpeed;
+
+        Difficulty(int speed, int maxSpeed) {
+            this.speed = speed;
+            this.maxSpeed = maxSpeed;
+        }
+
+        /**
+         * Returns the speed of the paddle when the ball is close to its center.
+         *
+         * @return the speed in pixels per tick
+         */
+        public int getSpeed() {
+            return speed;
+        }
+
+        /**
+         * Returns the speed of the paddle when the ball is far from its center.
+         *
+         * @return the speed in pixels per tick
+         */
+        public int getMaxSpeed() {
+            return maxSpeed;
+        }
+    }
+
+    private final int tickRate;
+    private final int fpsCap;
+    private final RenderGovernor.Level renderLevel;
+    private final Difficulty aiDifficulty;
+    private final int audioBufferMillis;
+    private final boolean synthAudio;
+    private final boolean drawTimeOverlay;
+    private final boolean metrics;
+    private final int hitchBudgetMillis;
+
+    private Tuning(int tickRate, int fpsCap, RenderGovernor.Level renderLevel, Difficulty aiDifficulty, int audioBufferMillis,
+                   boolean synthAudio, boolean drawTimeOverlay, boolean metrics, int hitchBudgetMillis) {
+        this.tickRate = tickRate;
+        this.fpsCap = fpsCap;
+        this.renderLevel = renderLevel;
+        this.aiDifficulty = aiDifficulty;
+        this.audioBufferMillis = audioBufferMillis;
+        this.synthAudio = synthAudio;
+        this.drawTimeOverlay = drawTimeOverlay;
+        this.metrics = metrics;
+        this.hitchBudgetMillis = hitchBudgetMillis;
+    }
+
+    /**
+     * Reads and validates the settings of a file. A missing file gives the defaults.
+     *
+     * @param file the properties file
+     * @return the settings
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    public static Tuning load(Path file) {
+        Properties properties = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return parse(properties);
+    }
+
+    /**
+     * Validates the settings of parsed properties.
+     *
+     * @param properties the properties
+     * @return the settings
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    public static Tuning parse(Properties properties) {
+        List<String> problems = new ArrayList<>();
+        int tickRate = parseInt(properties, "tickRate", DEFAULTS.tickRate, 30, 240, problems);
+        int fpsCap = parseInt(properties, "fpsCap", DEFAULTS.fpsCap, 0, 1000, problems);
+        RenderGovernor.Level renderLevel = null;
+        String renderScale = properties.getProperty("renderScale", "AUTO").trim().toUpperCase();
+        if (!renderScale.equals("AUTO")) {
+            try {
+                renderLevel = RenderGovernor.Level.valueOf(renderScale);
+            } catch (IllegalArgumentException e) {
+                problems.add("renderScale must be AUTO, ULTRA, HIGH, MEDIUM, LOW or MINIMAL, not " + renderScale);
+            }
+        }
+        Difficulty aiDifficulty = DEFAULTS.aiDifficulty;
+        String difficulty = properties.getProperty("aiDifficulty");
+        if (difficulty != null) {
+            try {
+                aiDifficulty = Difficulty.valueOf(difficulty.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                problems.add("aiDifficulty must be EASY, NORMAL or HARD, not " + difficulty.trim());
+            }
+        }
+        int audioBufferMillis = parseInt(properties, "audioBufferMillis", DEFAULTS.audioBufferMillis, 5, 500, problems);
+        boolean synthAudio = parseBoolean(properties, "audio.synth", DEFAULTS.synthAudio, problems);
+        boolean drawTimeOverlay = parseBoolean(properties, "profiler.drawTime", DEFAULTS.drawTimeOverlay, problems);
+        boolean metrics = parseBoolean(properties, "profiler.metrics", DEFAULTS.metrics, problems);
+        int hitchBudgetMillis = parseInt(properties, "profiler.hitchBudgetMillis", DEFAULTS.hitchBudgetMillis, 0, 10000, problems);
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("Invalid tuning: " + String.join("; ", problems));
+        }
+        return new Tuning(tickRate, fpsCap, renderLevel, aiDifficulty, audioBufferMillis, synthAudio, drawTimeOverlay, metrics,
+                hitchBudgetMillis);
+    }
+
+    /**
+     * Reads a whole number within limits, adding a problem when it is not one.
+     */
+    private static int parseInt(Properties properties, String key, int defaultValue, int min, int max, List<String> problems) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int number = Integer.parseInt(value.trim());
+            if (number >= min && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        problems.add(key + " must be a whole number from " + min + " to " + max + ", not " + value.trim());
+        return defaultValue;
+    }
+
+    /**
+     * Reads true or false, adding a problem when it is neither.
+     */
+    private static boolean parseBoolean(Properties properties, String key, boolean defaultValue, List<String> problems) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.trim().equalsIgnoreCase("true") || value.trim().equalsIgnoreCase("false")) {
+            return Boolean.parseBoolean(value.trim());
+        }
+        problems.add(key + " must be true or false, not " + value.trim());
+        return defaultValue;
+    }
+
+    /**
+     * Returns the number of simulation ticks per second.
+     *
+     * @return the tick rate
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Returns the most frames drawn per second, or 0 to draw every simulated tick.
+     *
+     * @return the frame rate cap
+     */
+    public int getFpsCap() {
+        return fpsCap;
+    }
+
+    /**
+     * Returns the fixed render level, or null to let the render governor choose it.
+     *
+     * @return the render level or null
+     */
+    public RenderGovernor.Level getRenderLevel() {
+        return renderLevel;
+    }
+
+    /**
+     * Returns the difficulty of the computer paddle.
+     *
+     * @return the difficulty
+     */
+    public Difficulty getAiDifficulty() {
+        return aiDifficulty;
+    }
+
+    /**
+     * Returns the size of streamed audio buffers in milliseconds of sound.
+     *
+     * @return the audio buffer size
+     */
+    public int getAudioBufferMillis() {
+        return audioBufferMillis;
+    }
+
+    /**
+     * Checks if the bounce and goal sounds are synthesized instead of played from their files.
+     *
+     * @return true to synthesize the sounds
+     */
+    public boolean isSynthAudio() {
+        return synthAudio;
+    }
+
+    /**
+     * Checks if the draw time overlay is shown.
+     *
+     * @return true to show the overlay
+     */
+    public boolean isDrawTimeOverlay() {
+        return drawTimeOverlay;
+    }
+
+    /**
+     * Checks if frame, tick and sound timings are recorded for the metrics.
+     *
+     * @return true to record the timings
+     */
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the frame or stall time that makes the hitch recorder write the last seconds to a file.
+     *
+     * @return the hitch budget in milliseconds, 0 to only write on demand
+     */
+    public int getHitchBudgetMillis() {
+        return hitchBudgetMillis;
+    }
+}
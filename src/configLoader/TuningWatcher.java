@@ -0,0 +1,136 @@
+package configLoader;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The TuningWatcher class loads the tuning file and reloads it whenever it changes, without restarting the game.
+ * A background thread waits on a WatchService for the directory of the file; each valid reload is handed over
+ * as a pending Tuning, which the simulation thread takes between two ticks so every setting changes at once.
+ * An invalid file is reported and ignored, keeping the settings in use.
+ */
+public class TuningWatcher {
+    private final Path file;
+    private final AtomicReference<Tuning> pending = new AtomicReference<>();
+    private volatile Tuning current = Tuning.DEFAULTS;
+    private WatchService watchService;
+
+    /**
+     * Constructs a TuningWatcher for a file.
+     *
+     * @param file the tuning properties file
+     */
+    public TuningWatcher(Path file) {
+        this.file = file.toAbsolutePath();
+    }
+
+    /**
+     * Loads the file. An invalid or unreadable file is reported and the defaults are used.
+     *
+     * @return the loaded settings
+     */
+    public Tuning load() {
+        try {
+            current = Tuning.load(file);
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage() + ", using the defaults");
+            current = Tuning.DEFAULTS;
+        }
+        return current;
+    }
+
+    /**
+     * Starts watching the file on a daemon thread. If its directory cannot be watched, for example because it does
+     * not exist, this is reported and the game runs without reloading.
+     */
+    public void start() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.err.println("Cannot watch " + file.getParent() + " (" + e + "), tuning changes need a restart");
+            stop();
+            watchService = null;
+            return;
+        }
+        Thread watcher = new Thread(this::watch, "Tuning watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stops watching the file.
+     */
+    public void stop() {
+        try {
+            if (watchService != null) {
+                watchService.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Watch loop reloads the file on every change event for it.
+     */
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (file.getFileName().equals(event.context())) {
+                    changed = true;
+                }
+            }
+            key.reset();
+            if (changed) {
+                reload();
+            }
+        }
+    }
+
+    /**
+     * Reads the file again and makes the settings pending if they are valid.
+     */
+    void reload() {
+        try {
+            Tuning tuning = Tuning.load(file);
+            current = tuning;
+            pending.set(tuning);
+        } catch (RuntimeException e) {
+            // The file may be half written by an editor; the next change event reloads it again
+            System.err.println(e.getMessage() + ", keeping the current tuning");
+        }
+    }
+
+    /**
+     * Takes the settings reloaded since the last call. Called by the simulation thread between ticks.
+     *
+     * @return the new settings, or null if the file did not change
+     */
+    public Tuning poll() {
+        return pending.getAndSet(null);
+    }
+
+    /**
+     * Returns the latest valid settings.
+     *
+     * @return the settings
+     */
+    public Tuning getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,94 @@
+package entity;
+
+import gameGraphics.GamePanel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The Arena class holds the walls, obstacles and power-ups of the field.
+ * All of them are stored in a spatial hash, so the ball only checks the entities near it.
+ */
+public class Arena {
+    private final GamePanel gp;
+    private final SpatialHash spatialHash;
+    private final List<Entity> entities = new ArrayList<>();
+    private final List<Entity> entitiesView = Collections.unmodifiableList(entities);
+
+    /**
+     * Constructs an Arena with only the top and bottom walls.
+     *
+     * @param gp the GamePanel object that contains the game environment
+     */
+    public Arena(GamePanel gp) {
+        this.gp = gp;
+        spatialHash = new SpatialHash(gp.getEntityStore(), gp.getScreenWidth(), gp.getScreenHeight(), 32);
+        // The walls overlap the field by one pixel, so the ball bounces when it touches the border
+        int wallThickness = 32;
+        spatialHash.insert(new Wall(gp, 0, 1 - wallThickness, gp.getScreenWidth(), wallThickness));
+        spatialHash.insert(new Wall(gp, 0, gp.getScreenHeight() - 1, gp.getScreenWidth(), wallThickness));
+    }
+
+    /**
+     * Places the default arena layout: two columns of bricks, a moving obstacle in the middle and two power-ups.
+     */
+    public void loadDefaultLayout() {
+        int brickWidth = 16;
+        int brickHeight = 32;
+        int centerX = gp.getScreenWidth() / 2;
+        for (int row = 1; row < gp.getScreenHeight() / brickHeight - 1; row += 2) {
+            addEntity(new Obstacle(gp, centerX - 150, row * brickHeight, brickWidth, brickHeight));
+            addEntity(new Obstacle(gp, centerX + 150 - brickWidth, row * brickHeight, brickWidth, brickHeight));
+        }
+        addEntity(new MovingObstacle(gp, centerX - 8, 60, brickWidth, 64, 40, gp.getScreenHeight() - 104, 2));
+        addEntity(new PowerUp(gp, centerX - 80, gp.getScreenHeight() / 4, PowerUp.Kind.FAST_BALL));
+        addEntity(new PowerUp(gp, centerX + 64, gp.getScreenHeight() * 3 / 4, PowerUp.Kind.SLOW_BALL));
+    }
+
+    /**
+     * Adds an entity to the arena. Moving obstacles are re-inserted into the spatial hash every update.
+     *
+     * @param entity the entity to add
+     */
+    public void addEntity(Entity entity) {
+        entities.add(entity);
+        spatialHash.insert(entity);
+    }
+
+    /**
+     * Updates every arena entity and moves the moving ones to their new cells.
+     */
+    public void update() {
+        for (Entity entity : entities) {
+            if (entity instanceof MovingObstacle) {
+                spatialHash.remove(entity);
+                entity.update();
+                spatialHash.insert(entity);
+            } else {
+                entity.update();
+            }
+        }
+    }
+
+    /**
+     * Returns the obstacles and power-ups of the arena. Walls are not included.
+     *
+     * @return a read-only view of the arena entities
+     */
+    public List<Entity> getEntities() {
+        return entitiesView;
+    }
+
+    /**
+     * Lets every entity touching the ball react to it.
+     *
+     * @param ball the ball to check collisions for
+     */
+    void handleCollisions(Ball ball) {
+        int hits = spatialHash.query(ball.getX(), ball.getY(), ball.getWidth(), ball.getHeight());
+        for (int i = 0; i < hits; i++) {
+            spatialHash.getResult(i).collide(ball);
+        }
+    }
+}
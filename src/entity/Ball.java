@@ -2,21 +2,22 @@ package entity;
 
 import gameGraphics.GamePanel;
 
-import java.awt.geom.Rectangle2D;
-import java.util.Random;
-
 /**
  * The Ball class represents a ball entity in the game.
  * It extends the Entity class and manages the movement and collision detection of the ball.
  */
 public class Ball extends Entity {
+    static final int BASE_X_SPEED = 5;
+    static final int MAX_X_SPEED = 17;
 
-    private final Random rand = new Random();
+    private final DeterministicRandom rand;
     private int leftScore, rightScore;
     private final Paddle paddle1;
     private final Paddle paddle2;
+    private final Arena arena;
     private int leftIFrames = 0;
     private int rightIFrames = 0;
+    private int rallyHits = 0;
 
     /**
      * Constructs a Ball object with the specified GamePanel and paddles for player 1 and player 2.
@@ -26,26 +27,42 @@ public class Ball extends Entity {
      * @param player2 the Paddle object representing player 2
      */
     public Ball(GamePanel gp, Paddle player1, Paddle player2) {
-        this.gp = gp;
+        this(gp, player1, player2, new Arena(gp), System.nanoTime());
+    }
+
+    /**
+     * Constructs a Ball object that bounces off the walls, obstacles and power-ups of the given arena.
+     *
+     * @param gp      the GamePanel object that contains the game environment
+     * @param player1 the Paddle object representing player 1
+     * @param player2 the Paddle object representing player 2
+     * @param arena   the Arena object containing the walls and obstacles
+     * @param seed    the seed of the random serve positions and angles; the same seed and inputs give the same match
+     */
+    public Ball(GamePanel gp, Paddle player1, Paddle player2, Arena arena, long seed) {
+        super(gp);
+        rand = new DeterministicRandom(seed);
         resetBall();
         this.paddle1 = player1;
         this.paddle2 = player2;
+        this.arena = arena;
     }
 
     /**
      * Resets the position and speed of the ball to its initial state.
      */
     public void resetBall() {
-        width = 24;
-        height = 24;
-        x = ((gp.getScreenWidth() / 2) - (width / 2));
-        y = rand.nextInt(height, gp.getScreenHeight() - height);
+        int width = 24;
+        int height = 24;
+        setSize(width, height);
+        setX((gp.getScreenWidth() / 2) - (width / 2));
+        setY(rand.nextInt(height, gp.getScreenHeight() - height));
         if (isOnLeft) {
-            xSpeed = -5;
+            setXSpeed(-BASE_X_SPEED);
         } else {
-            xSpeed = 5;
+            setXSpeed(BASE_X_SPEED);
         }
-        ySpeed = rand.nextInt(4) - 2;
+        setYSpeed(rand.nextInt(4) - 2);
     }
 
     /**
@@ -54,25 +71,32 @@ public class Ball extends Entity {
      */
     @Override
     public void update() {
+        int width = getWidth();
+        int height = getHeight();
+        // Leave a trail behind the ball before it moves
+        gp.spawnBallTrail(getX() + width / 2, getY() + height / 2);
         // Update position
-        x += xSpeed;
-        y += ySpeed;
-        // Handle collisions with top and bottom walls
-        if (y >= gp.getScreenHeight() - height || y <= 0) {
-            gp.playSE(3);
-            ySpeed *= -1;
-        }
+        setX(getX() + getXSpeed());
+        setY(getY() + getYSpeed());
+        // Handle collisions with walls, obstacles and power-ups
+        arena.handleCollisions(this);
         // Handle scoring and ball reset
-        if (x >= gp.getScreenWidth() - width) {
+        if (getX() >= gp.getScreenWidth() - width) {
             isOnLeft = true;
             leftScore++;
             gp.playSE(4);
+            gp.recordGoal(true, rallyHits);
+            rallyHits = 0;
+            gp.spawnGoalBurst(getX() + width, getY() + height / 2);
             resetBall();
         }
-        if (x <= 0) {
+        if (getX() <= 0) {
             isOnLeft = false;
             rightScore++;
             gp.playSE(4);
+            gp.recordGoal(false, rallyHits);
+            rallyHits = 0;
+            gp.spawnGoalBurst(getX(), getY() + height / 2);
             resetBall();
         }
         // Handle collisions with paddles
@@ -88,18 +112,23 @@ public class Ball extends Entity {
      * @return the updated invincibility frame counter
      */
     private int handlePaddleCollisions(Paddle paddle, int iFrames) {
-        int maxXSpeed = 17;
-        if (x <= paddle.width + paddle.x && collision(x, y, width, height, paddle)) {
+        int x = getX();
+        if (x <= paddle.getWidth() + paddle.getX() && collision(paddle)) {
             if (iFrames == 0) {
-                if (x > gp.getScreenWidth() / 2 && xSpeed <= maxXSpeed) {
+                int xSpeed = getXSpeed();
+                boolean topSpeed = Math.abs(xSpeed) > MAX_X_SPEED;
+                if (x > gp.getScreenWidth() / 2 && xSpeed <= MAX_X_SPEED) {
                     xSpeed++;
 
-                } else if (x < gp.getScreenWidth() / 2 && -xSpeed <= maxXSpeed) {
+                } else if (x < gp.getScreenWidth() / 2 && -xSpeed <= MAX_X_SPEED) {
                     xSpeed--;
                 }
-                xSpeed *= -1;
+                setXSpeed(-xSpeed);
                 iFrames = 10;
-                gp.playSE(3);
+                rallyHits++;
+                gp.recordPaddleHit(paddle.isOnLeft, Math.abs(xSpeed), topSpeed);
+                gp.playSE(3, xSpeed);
+                gp.spawnHitSparks(x + getWidth() / 2, getY() + getHeight() / 2);
             }
         }
         if (iFrames > 0) {
@@ -111,16 +140,12 @@ public class Ball extends Entity {
     /**
      * Checks collision between the ball and a paddle.
      *
-     * @param x      the X-coordinate of the ball
-     * @param y      the Y-coordinate of the ball
-     * @param width  the width of the ball
-     * @param height the height of the ball
      * @param paddle the Paddle object to check collision with
      * @return true if there's a collision, false otherwise
      */
-    private boolean collision(int x, int y, int width, int height, Paddle paddle) {
-        if (new Rectangle2D.Double(x, y, width, height).intersects(new Rectangle2D.Double(paddle.x, paddle.y, paddle.width, paddle.height))) {
-            ySpeed += addYSpeed(paddle);
+    private boolean collision(Paddle paddle) {
+        if (store.intersects(paddle.id, getX(), getY(), getWidth(), getHeight())) {
+            setYSpeed(getYSpeed() + addYSpeed(paddle));
             return true;
         }
         return false;
@@ -135,14 +160,40 @@ public class Ball extends Entity {
     private int addYSpeed(Paddle paddle) {
         int speedToAdd = 0;
         if (paddle.directions.equals(Directions.UP)) {
-            speedToAdd = -paddle.ySpeed / 4;
+            speedToAdd = -paddle.getYSpeed() / 4;
         }
         if (paddle.directions.equals(Directions.DOWN)) {
-            speedToAdd = paddle.ySpeed / 4;
+            speedToAdd = paddle.getYSpeed() / 4;
         }
         return speedToAdd;
     }
 
+    /**
+     * Mixes the scores, invincibility frames, serve side and random generator state into the state hash.
+     *
+     * @param hash the hash so far
+     * @return the updated hash
+     */
+    @Override
+    protected long hashState(long hash) {
+        hash = EntityStore.mix(hash, leftScore);
+        hash = EntityStore.mix(hash, rightScore);
+        hash = EntityStore.mix(hash, leftIFrames);
+        hash = EntityStore.mix(hash, rightIFrames);
+        hash = EntityStore.mix(hash, isOnLeft ? 1 : 0);
+        return EntityStore.mix(hash, rand.getState());
+    }
+
+    /**
+     * Returns the paddle the ball is played against by the given paddle.
+     *
+     * @param paddle one of the paddles of the match
+     * @return the other paddle
+     */
+    Paddle getOpponent(Paddle paddle) {
+        return paddle == paddle1 ? paddle2 : paddle1;
+    }
+
     /**
      * Gets the left player's current score.
      *
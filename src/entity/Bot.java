@@ -0,0 +1,50 @@
+package entity;
+
+import bot.BotChannel;
+import gameGraphics.GamePanel;
+
+/**
+ * The Bot class represents a paddle controlled by an agent in another process through the shared-memory bot channel.
+ * Every tick it sends the agent what it sees and moves the way the agent answers, in lockstep with the game.
+ */
+public class Bot extends Paddle {
+    private final BotChannel channel;
+    private final Paddle opponent;
+
+    /**
+     * Constructs a Bot paddle.
+     *
+     * @param gp       the GamePanel object that contains the game environment
+     * @param isOnLeft a boolean indicating if the bot is on the left side of the screen
+     * @param channel  the channel to the agent
+     * @param opponent the paddle the bot plays against
+     */
+    public Bot(GamePanel gp, boolean isOnLeft, BotChannel channel, Paddle opponent) {
+        super(gp, isOnLeft);
+        this.channel = channel;
+        this.opponent = opponent;
+        setDefaultValues();
+    }
+
+    /**
+     * Sends the agent the ball, the paddles and the score, and moves in the direction it answers.
+     * Without an attached agent the paddle stands still.
+     */
+    @Override
+    public void update() {
+        Ball ball = gp.getBall();
+        int y = getY();
+        int leftY = isOnLeft ? y : opponent.getY();
+        int rightY = isOnLeft ? opponent.getY() : y;
+        directions = ball == null ? Directions.NONE : channel.exchange(ball.getX(), ball.getY(), ball.getXSpeed(),
+                ball.getYSpeed(), leftY, rightY, ball.getLeftScore(), ball.getRightScore(), isOnLeft);
+        if (directions == Directions.UP && y >= 0) {
+            y -= getYSpeed();
+        } else if (directions == Directions.DOWN && y <= gp.getScreenHeight() - getHeight()) {
+            y += getYSpeed();
+        } else {
+            directions = Directions.NONE;
+        }
+        setY(y);
+    }
+}
@@ -1,14 +1,23 @@
 package entity;
 
+import configLoader.Tuning;
 import gameGraphics.GamePanel;
 
 /**
  * The Computer class represents a computer-controlled paddle in the game.
  * It extends the Paddle class and automatically updates its position based on the ball's position.
+ * On the hard difficulty it plans each return with a lookahead search instead of following the ball.
  */
 public class Computer extends Paddle {
-    private final int ySpeed = 1;
-    private final int yMaxSpeed = 5;
+    private static final long SEARCH_BUDGET = 2000000L;
+
+    private LookaheadPlanner planner;
+    private long searchBudget = SEARCH_BUDGET;
+    private boolean planned;
+    private int plannedXSpeed;
+    private int plannedYSpeed;
+    private int ticksSincePlan;
+    private int ticksSinceContact = LookaheadPlanner.LEAD;
 
     /**
      * Constructs a Computer object with the specified GamePanel and position.
@@ -17,18 +26,27 @@ public class Computer extends Paddle {
      * @param isOnLeft a boolean indicating if the computer paddle is on the left side of the screen
      */
     public Computer(GamePanel gp, boolean isOnLeft) {
-        this.gp = gp;
-        this.isOnLeft = isOnLeft;
+        super(gp, isOnLeft);
         setDefaultValues();
     }
 
     /**
      * Updates the computer paddle's position based on the ball's position.
-     * The paddle moves towards the ball's Y-coordinate at ySpeed and if the ball is 25 pixels or further then it moves at yMaxSpeed.
+     * The paddle moves towards the ball's Y-coordinate at the speed of the difficulty and if the ball is 25 pixels
+     * or further then it moves at the maximum speed of the difficulty.
      */
     @Override
     public void update() {
+        Tuning.Difficulty difficulty = gp.getTuning().getAiDifficulty();
+        if (difficulty == Tuning.Difficulty.HARD) {
+            updatePlanned(difficulty.getMaxSpeed());
+            return;
+        }
+        int ySpeed = difficulty.getSpeed();
+        int yMaxSpeed = difficulty.getMaxSpeed();
         directions = Directions.NONE;
+        int y = getY();
+        int height = getHeight();
         if (y + height / 2 - 25 > gp.getBallY() + gp.getBallHeight() / 2) {
             if (y >= 0) {
                 y -= yMaxSpeed;
@@ -51,5 +69,72 @@ public class Computer extends Paddle {
                 directions = Directions.DOWN;
             }
         }
+        setY(y);
+    }
+
+    /**
+     * Follows the plan of the lookahead search while the ball comes towards the paddle: moves to the planned position,
+     * then moves in the planned direction while the ball arrives and for a few ticks after it was returned.
+     * The plan is searched again whenever the speed of the ball changes. While the ball moves away the paddle
+     * returns to the middle of the screen.
+     *
+     * @param speed the most the paddle moves per tick
+     */
+    private void updatePlanned(int speed) {
+        Ball ball = gp.getBall();
+        boolean approaching = isOnLeft ? ball.getXSpeed() < 0 : ball.getXSpeed() > 0;
+        int target;
+        if (approaching) {
+            if (!planned || ball.getXSpeed() != plannedXSpeed || ball.getYSpeed() != plannedYSpeed) {
+                search(ball, speed);
+            }
+            ticksSincePlan++;
+            ticksSinceContact = 0;
+            target = ticksSincePlan > planner.getLeadStart() ? getY() + planner.getPlannedDirection() * speed : planner.getPlannedY();
+        } else {
+            planned = false;
+            if (ticksSinceContact < LookaheadPlanner.LEAD && planner != null) {
+                ticksSinceContact++;
+                target = getY() + planner.getPlannedDirection() * speed;
+            } else {
+                target = (gp.getScreenHeight() - getHeight()) / 2;
+            }
+        }
+        target = Math.max(0, Math.min(gp.getScreenHeight() - getHeight(), target));
+        int move = Math.max(-speed, Math.min(speed, target - getY()));
+        directions = move < 0 ? Directions.UP : move > 0 ? Directions.DOWN : Directions.NONE;
+        setY(getY() + move);
+    }
+
+    /**
+     * Searches for a new plan within the search budget and reports its cost to the metrics.
+     *
+     * @param ball  the ball coming towards the paddle
+     * @param speed the most the paddle moves per tick
+     */
+    private void search(Ball ball, int speed) {
+        if (planner == null) {
+            planner = new LookaheadPlanner(gp.getScreenWidth(), gp.getScreenHeight(), getHeight());
+        }
+        long cpuBefore = planner.getCpuNanos();
+        long rolloutsBefore = planner.getRollouts();
+        long start = System.nanoTime();
+        planner.plan(ball, this, ball.getOpponent(this), speed, searchBudget);
+        gp.getMetrics().recordAiSearch(System.nanoTime() - start, planner.getCpuNanos() - cpuBefore,
+                planner.getRollouts() - rolloutsBefore, planner.wasCut());
+        planned = true;
+        plannedXSpeed = ball.getXSpeed();
+        plannedYSpeed = ball.getYSpeed();
+        ticksSincePlan = 0;
+    }
+
+    /**
+     * Changes the time a hard difficulty search may take. Tests use {@link LookaheadPlanner#UNBUDGETED}
+     * so the plans do not depend on the speed of the machine.
+     *
+     * @param budgetNanos the search budget in nanoseconds
+     */
+    void setSearchBudget(long budgetNanos) {
+        searchBudget = budgetNanos;
     }
 }
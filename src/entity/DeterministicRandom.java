@@ -0,0 +1,60 @@
+package entity;
+
+/**
+ * The DeterministicRandom class is a small seeded random number generator (SplitMix64) whose output is defined
+ * entirely by this class, so two processes using the same seed get the same numbers on any JVM.
+ */
+public class DeterministicRandom {
+    private long state;
+
+    /**
+     * Constructs a DeterministicRandom with the given seed.
+     *
+     * @param seed the seed
+     */
+    public DeterministicRandom(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Returns the next 64 random bits.
+     *
+     * @return the next random long
+     */
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns a random int between zero (inclusive) and the bound (exclusive).
+     *
+     * @param bound the upper bound, must be positive
+     * @return the random int
+     */
+    public int nextInt(int bound) {
+        return (int) ((nextLong() >>> 33) % bound);
+    }
+
+    /**
+     * Returns a random int between the origin (inclusive) and the bound (exclusive).
+     *
+     * @param origin the lower bound
+     * @param bound  the upper bound, must be greater than the origin
+     * @return the random int
+     */
+    public int nextInt(int origin, int bound) {
+        return origin + nextInt(bound - origin);
+    }
+
+    /**
+     * Returns the internal state, used for hashing the game state.
+     *
+     * @return the state of the generator
+     */
+    public long getState() {
+        return state;
+    }
+}
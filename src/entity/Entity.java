@@ -7,23 +7,51 @@ import java.awt.*;
 /**
  * The abstract Entity class represents a general game entity with properties such as position,
  * speed and dimensions. It serves as a base class for specific game entities.
+ * The position, speed and dimensions are stored in the {@link EntityStore} of the game panel;
+ * an Entity object is a view over its slot in the store.
  */
 public abstract class Entity {
-    protected int x, y;
-    protected int ySpeed;
-    protected int xSpeed;
-    protected int width;
-    protected int height;
+    protected final EntityStore store;
+    protected final int id;
     protected boolean isOnLeft;
     protected GamePanel gp;
 
+    /**
+     * Constructs an Entity and adds it to the entity store of the game panel.
+     *
+     * @param gp the GamePanel object that contains the game environment
+     */
+    protected Entity(GamePanel gp) {
+        this.gp = gp;
+        this.store = gp.getEntityStore();
+        this.id = store.add(this);
+    }
+
     /**
      * Returns the height of the entity.
      *
      * @return the height of the entity
      */
     public int getHeight() {
-        return height;
+        return store.height[id];
+    }
+
+    /**
+     * Returns the width of the entity.
+     *
+     * @return the width of the entity
+     */
+    public int getWidth() {
+        return store.width[id];
+    }
+
+    /**
+     * Returns the X-coordinate of the entity.
+     *
+     * @return the X-coordinate of the entity
+     */
+    public int getX() {
+        return store.x[id];
     }
 
     /**
@@ -32,20 +60,98 @@ public abstract class Entity {
      * @return the Y-coordinate of the entity
      */
     public int getY() {
-        return y;
+        return store.y[id];
+    }
+
+    /**
+     * Returns the horizontal speed of the entity.
+     *
+     * @return the horizontal speed of the entity
+     */
+    public int getXSpeed() {
+        return store.xSpeed[id];
+    }
+
+    /**
+     * Returns the vertical speed of the entity.
+     *
+     * @return the vertical speed of the entity
+     */
+    public int getYSpeed() {
+        return store.ySpeed[id];
+    }
+
+    /**
+     * Sets the X-coordinate of the entity.
+     *
+     * @param x the new X-coordinate
+     */
+    protected void setX(int x) {
+        store.x[id] = x;
+    }
+
+    /**
+     * Sets the Y-coordinate of the entity.
+     *
+     * @param y the new Y-coordinate
+     */
+    protected void setY(int y) {
+        store.y[id] = y;
+    }
+
+    /**
+     * Sets the horizontal speed of the entity.
+     *
+     * @param xSpeed the new horizontal speed
+     */
+    protected void setXSpeed(int xSpeed) {
+        store.xSpeed[id] = xSpeed;
+    }
+
+    /**
+     * Sets the vertical speed of the entity.
+     *
+     * @param ySpeed the new vertical speed
+     */
+    protected void setYSpeed(int ySpeed) {
+        store.ySpeed[id] = ySpeed;
+    }
+
+    /**
+     * Sets the dimensions of the entity.
+     *
+     * @param width  the new width
+     * @param height the new height
+     */
+    protected void setSize(int width, int height) {
+        store.width[id] = width;
+        store.height[id] = height;
     }
 
     /**
-     * Draws the entity on the screen using the specified Graphics2D object.
+     * Draws the entity at the given position and size, used to draw the entity as it was in a frame snapshot.
      * The default implementation draws a white rectangle representing the entity.
      *
-     * @param g2 the Graphics2D object used for drawing the entity
+     * @param g2     the Graphics2D object used for drawing the entity
+     * @param x      the X-coordinate to draw the entity at
+     * @param y      the Y-coordinate to draw the entity at
+     * @param width  the width to draw the entity with
+     * @param height the height to draw the entity with
      */
-    public void draw(Graphics2D g2) {
+    public void draw(Graphics2D g2, int x, int y, int width, int height) {
         g2.setColor(Color.WHITE);
         g2.fillRect(x, y, width, height);
     }
 
+    /**
+     * Checks if the entity is currently drawn. The default implementation always returns true.
+     *
+     * @return true if the entity is visible, false otherwise
+     */
+    public boolean isVisible() {
+        return true;
+    }
+
     /**
      * Updates the state of the entity. The default implementation does nothing and can be overridden
      * by subclasses to provide specific update behavior.
@@ -53,4 +159,25 @@ public abstract class Entity {
     public void update() {
         // Default implementation does nothing
     }
+
+    /**
+     * Mixes state that is not kept in the entity store into the state hash.
+     * The default implementation adds nothing.
+     *
+     * @param hash the hash so far
+     * @return the updated hash
+     */
+    protected long hashState(long hash) {
+        return hash;
+    }
+
+    /**
+     * Reacts to the ball touching the entity. The default implementation does nothing and can be
+     * overridden by arena entities such as walls, obstacles and power-ups.
+     *
+     * @param ball the ball that touched the entity
+     */
+    protected void collide(Ball ball) {
+        // Default implementation does nothing
+    }
 }
@@ -0,0 +1,98 @@
+package entity;
+
+import java.util.Arrays;
+
+/**
+ * The EntityStore class keeps the position, velocity and bounds of every entity in packed primitive arrays.
+ * Entity objects are views that only hold their index into the store, so loops over many entities,
+ * such as the spatial hash queries, read contiguous memory instead of following object references.
+ */
+public class EntityStore {
+    int[] x = new int[64];
+    int[] y = new int[64];
+    int[] xSpeed = new int[64];
+    int[] ySpeed = new int[64];
+    int[] width = new int[64];
+    int[] height = new int[64];
+    Entity[] views = new Entity[64];
+    private int count = 0;
+
+    /**
+     * Adds an entity to the store, growing the arrays if they are full.
+     *
+     * @param view the entity object viewing the new slot
+     * @return the index of the entity in the store
+     */
+    int add(Entity view) {
+        if (count == views.length) {
+            int capacity = count * 2;
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            xSpeed = Arrays.copyOf(xSpeed, capacity);
+            ySpeed = Arrays.copyOf(ySpeed, capacity);
+            width = Arrays.copyOf(width, capacity);
+            height = Arrays.copyOf(height, capacity);
+            views = Arrays.copyOf(views, capacity);
+        }
+        views[count] = view;
+        return count++;
+    }
+
+    /**
+     * Returns the number of entities in the store.
+     *
+     * @return the number of entities
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Computes a 64-bit hash of every entity in the store, including state kept outside the store such as scores.
+     * Two simulations fed the same seed and inputs have the same hash after every tick.
+     *
+     * @return the state hash
+     */
+    public long hash() {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < count; i++) {
+            hash = mix(hash, x[i]);
+            hash = mix(hash, y[i]);
+            hash = mix(hash, xSpeed[i]);
+            hash = mix(hash, ySpeed[i]);
+            hash = mix(hash, width[i]);
+            hash = mix(hash, height[i]);
+            hash = views[i].hashState(hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Mixes a value into a hash (FNV-1a over the eight bytes of the value).
+     *
+     * @param hash  the hash so far
+     * @param value the value to mix in
+     * @return the updated hash
+     */
+    static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Checks if a rectangle intersects the bounds of an entity.
+     *
+     * @param id     the index of the entity
+     * @param x      the X-coordinate of the rectangle
+     * @param y      the Y-coordinate of the rectangle
+     * @param width  the width of the rectangle
+     * @param height the height of the rectangle
+     * @return true if they intersect, false otherwise
+     */
+    boolean intersects(int id, int x, int y, int width, int height) {
+        return x < this.x[id] + this.width[id] && this.x[id] < x + width && y < this.y[id] + this.height[id] && this.y[id] < y + height;
+    }
+}
@@ -0,0 +1,339 @@
+package entity;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The LookaheadPlanner class plans how the hard computer paddle returns the ball: where on the paddle it meets the ball
+ * and in which direction the paddle moves at that moment, which bends the ball through the paddle direction effect.
+ * It predicts the ball up to the paddle, then plays every candidate plan out on the deterministic ball model until
+ * the ball reaches the opponent, and picks the plan that leaves the opponent the furthest to travel in the time left.
+ * The rollouts run on a shared fork/join pool and stop at a deadline; the best plan found by then is used,
+ * so a search never takes much longer than its budget. Obstacles and power-ups are not part of the model.
+ */
+class LookaheadPlanner {
+    /**
+     * The number of ticks the paddle moves in the planned direction before the ball reaches it.
+     */
+    static final int LEAD = 3;
+    /**
+     * The search budget that lets every rollout finish, so a plan does not depend on the speed of the machine.
+     */
+    static final long UNBUDGETED = Long.MAX_VALUE;
+
+    private static final int MAX_TICKS = 600;
+    private static final int OFFSET_STEP = 4;
+    private static final int CHUNK = 6;
+    private static final int[] DIRECTIONS = {0, -1, 1};
+    private static final double MISSED = -1e9;
+    private static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 2));
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final int screenWidth;
+    private final int screenHeight;
+    private final int candidates;
+    private final int[] trajectoryX = new int[MAX_TICKS + 1];
+    private final int[] trajectoryY = new int[MAX_TICKS + 1];
+    private final int[] trajectoryXSpeed = new int[MAX_TICKS + 1];
+    private final int[] trajectoryYSpeed = new int[MAX_TICKS + 1];
+    private final double[] scores;
+    private final AtomicLong cpuNanos = new AtomicLong();
+    private final AtomicLong rollouts = new AtomicLong();
+    private volatile boolean cut;
+    private long deadline;
+    private int contactTick;
+    private int ballWidth;
+    private int ballHeight;
+    private int paddleX;
+    private int paddleY;
+    private int paddleWidth;
+    private int paddleHeight;
+    private int paddleSpeed;
+    private int directionEffect;
+    private boolean onLeft;
+    private int opponentX;
+    private int opponentY;
+    private int opponentWidth;
+    private int opponentHeight;
+    private int opponentSpeed;
+    private int plannedY;
+    private int plannedDirection;
+    private int leadStart;
+
+    /**
+     * Constructs a LookaheadPlanner for a field.
+     *
+     * @param screenWidth  the width of the field
+     * @param screenHeight the height of the field
+     * @param paddleHeight the height of the planning paddle, which sets how many contact points are tried
+     */
+    LookaheadPlanner(int screenWidth, int screenHeight, int paddleHeight) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        candidates = ((paddleHeight + 24) / OFFSET_STEP + 1) * DIRECTIONS.length;
+        scores = new double[candidates];
+    }
+
+    /**
+     * Searches for the best plan to return the ball until the budget runs out.
+     *
+     * @param ball         the ball, moving towards the paddle
+     * @param paddle       the planning paddle
+     * @param opponent     the other paddle
+     * @param paddleSpeed  the most the planning paddle moves per tick
+     * @param budgetNanos  the time the search may take, or {@link #UNBUDGETED}
+     */
+    void plan(Ball ball, Paddle paddle, Paddle opponent, int paddleSpeed, long budgetNanos) {
+        deadline = budgetNanos == UNBUDGETED ? Long.MAX_VALUE : System.nanoTime() + budgetNanos;
+        ballWidth = ball.getWidth();
+        ballHeight = ball.getHeight();
+        paddleX = paddle.getX();
+        paddleY = paddle.getY();
+        paddleWidth = paddle.getWidth();
+        paddleHeight = paddle.getHeight();
+        this.paddleSpeed = paddleSpeed;
+        directionEffect = paddle.getYSpeed() / 4; // The effect Ball.addYSpeed gives a moving paddle
+        onLeft = paddle.isOnLeft;
+        opponentX = opponent.getX();
+        opponentY = opponent.getY();
+        opponentWidth = opponent.getWidth();
+        opponentHeight = opponent.getHeight();
+        opponentSpeed = opponent.getYSpeed();
+        predict(ball.getX(), ball.getY(), ball.getXSpeed(), ball.getYSpeed());
+        leadStart = Math.max(0, contactTick - LEAD);
+        cut = false;
+        POOL.invoke(new Search(0, candidates));
+        int best = -1;
+        for (int i = 0; i < candidates; i++) {
+            if (!Double.isNaN(scores[i]) && scores[i] > MISSED && (best < 0 || scores[i] > scores[best])) {
+                best = i;
+            }
+        }
+        if (best < 0) {
+            // Nothing was found in time, or nothing returns the ball: meet it with the paddle center
+            plannedDirection = 0;
+            plannedY = leadStart == 0 ? paddleY : contactY(0);
+        } else {
+            plannedDirection = DIRECTIONS[best % DIRECTIONS.length];
+            plannedY = leadStart == 0 ? paddleY : clamp(contactY(offset(best / DIRECTIONS.length)) - plannedDirection * paddleSpeed * (contactTick - leadStart));
+        }
+    }
+
+    /**
+     * Moves a copy of the ball along its path until it reaches the paddle, bouncing off the walls only.
+     */
+    private void predict(int x, int y, int xSpeed, int ySpeed) {
+        contactTick = MAX_TICKS;
+        for (int t = 0; t <= MAX_TICKS; t++) {
+            trajectoryX[t] = x;
+            trajectoryY[t] = y;
+            trajectoryXSpeed[t] = xSpeed;
+            trajectoryYSpeed[t] = ySpeed;
+            if (t > 0 && (reachesPaddle(x) || x <= 0 || x >= screenWidth - ballWidth)) {
+                contactTick = t;
+                return;
+            }
+            x += xSpeed;
+            y += ySpeed;
+            if (touchesWall(y)) {
+                ySpeed = -ySpeed;
+            }
+        }
+    }
+
+    /**
+     * Plays one candidate plan out and scores it: how much further than it can move in time the opponent
+     * has to travel to reach the ball. Missing the ball scores MISSED.
+     */
+    private double evaluate(int candidate) {
+        int direction = DIRECTIONS[candidate % DIRECTIONS.length];
+        int offsetIndex = candidate / DIRECTIONS.length;
+        int y0;
+        if (leadStart == 0) {
+            if (offsetIndex > 0) {
+                return Double.NaN; // Too late to move into place, only the direction can still be chosen
+            }
+            y0 = paddleY;
+        } else {
+            y0 = clamp(contactY(offset(offsetIndex)) - direction * paddleSpeed * (contactTick - leadStart));
+            if (Math.abs(y0 - paddleY) > paddleSpeed * leadStart) {
+                return MISSED; // The paddle cannot get there in time
+            }
+        }
+        int x = trajectoryX[leadStart];
+        int y = trajectoryY[leadStart];
+        int xSpeed = trajectoryXSpeed[leadStart];
+        int ySpeed = trajectoryYSpeed[leadStart];
+        int py = y0;
+        int iFrames = 0;
+        boolean returned = false;
+        for (int t = leadStart + 1; t <= leadStart + MAX_TICKS; t++) {
+            py = clamp(py + direction * paddleSpeed);
+            x += xSpeed;
+            y += ySpeed;
+            if (touchesWall(y)) {
+                ySpeed = -ySpeed;
+            }
+            if (x <= 0 || x >= screenWidth - ballWidth) {
+                // Scoring past the opponent is the best outcome; a goal before returning is a miss
+                return returned ? screenHeight + Math.abs(py - paddleY) * -0.001 : MISSED;
+            }
+            if (iFrames > 0 || !returned) {
+                if (inPaddleColumn(x) && x < paddleX + paddleWidth && paddleX < x + ballWidth && y < py + paddleHeight && py < y + ballHeight) {
+                    ySpeed += direction * directionEffect;
+                    if (iFrames == 0) {
+                        if (x > screenWidth / 2 && xSpeed <= Ball.MAX_X_SPEED) {
+                            xSpeed++;
+                        } else if (x < screenWidth / 2 && -xSpeed <= Ball.MAX_X_SPEED) {
+                            xSpeed--;
+                        }
+                        xSpeed = -xSpeed;
+                        iFrames = 10;
+                        returned = true;
+                    }
+                }
+                if (iFrames > 0) {
+                    iFrames--;
+                }
+            }
+            if (returned && reachesOpponent(x)) {
+                int distance = Math.abs(y + ballHeight / 2 - (opponentY + opponentHeight / 2)) - (opponentHeight + ballHeight) / 2;
+                return distance - opponentSpeed * (t - contactTick) - Math.abs(y0 - paddleY) * 0.001;
+            }
+        }
+        return returned ? 0 : MISSED;
+    }
+
+    /**
+     * Returns the paddle Y-coordinate that meets the predicted ball at a distance from the paddle center.
+     */
+    private int contactY(int offset) {
+        return clamp(trajectoryY[contactTick] + ballHeight / 2 - paddleHeight / 2 - offset);
+    }
+
+    /**
+     * Maps a candidate index to a contact offset, from the paddle center outwards, so early candidates are the safest.
+     */
+    private static int offset(int index) {
+        int distance = (index + 1) / 2 * OFFSET_STEP;
+        return index % 2 == 1 ? distance : -distance;
+    }
+
+    private int clamp(int y) {
+        return Math.max(0, Math.min(screenHeight - paddleHeight, y));
+    }
+
+    private boolean touchesWall(int y) {
+        return y < 1 || y + ballHeight > screenHeight - 1;
+    }
+
+    private boolean reachesPaddle(int x) {
+        return onLeft ? x <= paddleX + paddleWidth : x + ballWidth > paddleX;
+    }
+
+    private boolean inPaddleColumn(int x) {
+        return x <= paddleX + paddleWidth; // The same check as Ball.handlePaddleCollisions
+    }
+
+    private boolean reachesOpponent(int x) {
+        return onLeft ? x + ballWidth >= opponentX : x <= opponentX + opponentWidth;
+    }
+
+    /**
+     * Returns the paddle Y-coordinate to reach before moving in the planned direction.
+     *
+     * @return the planned Y-coordinate
+     */
+    int getPlannedY() {
+        return plannedY;
+    }
+
+    /**
+     * Returns the direction to move in during the last ticks before contact: -1 up, 1 down or 0.
+     *
+     * @return the planned direction
+     */
+    int getPlannedDirection() {
+        return plannedDirection;
+    }
+
+    /**
+     * Returns the tick, counted from the search, after which the paddle moves in the planned direction.
+     *
+     * @return the lead start tick
+     */
+    int getLeadStart() {
+        return leadStart;
+    }
+
+    /**
+     * Returns the CPU time the searches of this planner used on the pool threads, or their run time
+     * where the CPU time of threads cannot be measured.
+     *
+     * @return the CPU time in nanoseconds
+     */
+    long getCpuNanos() {
+        return cpuNanos.get();
+    }
+
+    /**
+     * Returns the number of candidate plans played out.
+     *
+     * @return the rollout count
+     */
+    long getRollouts() {
+        return rollouts.get();
+    }
+
+    /**
+     * Checks if the latest search ran out of time before every candidate was played out.
+     *
+     * @return true if the search was cut short
+     */
+    boolean wasCut() {
+        return cut;
+    }
+
+    /**
+     * Plays out a range of candidates, splitting it across the pool until the pieces are small.
+     */
+    private class Search extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        private Search(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Search(from, middle), new Search(middle, to));
+                return;
+            }
+            boolean cpuTime = THREADS.isCurrentThreadCpuTimeSupported();
+            long start = cpuTime ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+            int played = 0;
+            for (int i = from; i < to; i++) {
+                if (System.nanoTime() > deadline) {
+                    cut = true;
+                    for (int j = i; j < to; j++) {
+                        scores[j] = Double.NaN;
+                    }
+                    break;
+                }
+                scores[i] = evaluate(i);
+                played++;
+            }
+            cpuNanos.addAndGet((cpuTime ? THREADS.getCurrentThreadCpuTime() : System.nanoTime()) - start);
+            rollouts.addAndGet(played);
+        }
+    }
+}
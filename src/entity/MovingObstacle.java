@@ -0,0 +1,43 @@
+package entity;
+
+import gameGraphics.GamePanel;
+
+/**
+ * The MovingObstacle class represents an obstacle that moves up and down between two bounds.
+ */
+public class MovingObstacle extends Obstacle {
+    private final int minY;
+    private final int maxY;
+
+    /**
+     * Constructs a MovingObstacle object with the specified bounds and vertical range.
+     *
+     * @param gp     the GamePanel object that contains the game environment
+     * @param x      the X-coordinate of the obstacle
+     * @param y      the starting Y-coordinate of the obstacle
+     * @param width  the width of the obstacle
+     * @param height the height of the obstacle
+     * @param minY   the lowest Y-coordinate the obstacle moves to
+     * @param maxY   the highest Y-coordinate the obstacle moves to
+     * @param ySpeed the vertical speed of the obstacle
+     */
+    public MovingObstacle(GamePanel gp, int x, int y, int width, int height, int minY, int maxY, int ySpeed) {
+        super(gp, x, y, width, height);
+        this.minY = minY;
+        this.maxY = maxY;
+        setYSpeed(ySpeed);
+    }
+
+    /**
+     * Moves the obstacle and reverses its direction when it reaches one of its bounds.
+     */
+    @Override
+    public void update() {
+        int y = getY() + getYSpeed();
+        if (y <= minY || y >= maxY) {
+            y = Math.max(minY, Math.min(maxY, y));
+            setYSpeed(-getYSpeed());
+        }
+        setY(y);
+    }
+}
@@ -0,0 +1,73 @@
+package entity;
+
+import gameGraphics.GamePanel;
+
+import java.awt.*;
+
+/**
+ * The Obstacle class represents a static brick placed on the arena field.
+ * The ball bounces off the side of the obstacle it penetrated the least.
+ */
+public class Obstacle extends Entity {
+
+    /**
+     * Constructs an Obstacle object with the specified bounds.
+     *
+     * @param gp     the GamePanel object that contains the game environment
+     * @param x      the X-coordinate of the obstacle
+     * @param y      the Y-coordinate of the obstacle
+     * @param width  the width of the obstacle
+     * @param height the height of the obstacle
+     */
+    public Obstacle(GamePanel gp, int x, int y, int width, int height) {
+        super(gp);
+        setX(x);
+        setY(y);
+        setSize(width, height);
+    }
+
+    /**
+     * Draws the obstacle as a gray rectangle.
+     *
+     * @param g2     the Graphics2D object used for drawing the obstacle
+     * @param x      the X-coordinate to draw the obstacle at
+     * @param y      the Y-coordinate to draw the obstacle at
+     * @param width  the width to draw the obstacle with
+     * @param height the height to draw the obstacle with
+     */
+    @Override
+    public void draw(Graphics2D g2, int x, int y, int width, int height) {
+        g2.setColor(Color.GRAY);
+        g2.fillRect(x, y, width, height);
+    }
+
+    /**
+     * Bounces the ball off the obstacle and pushes it out so it does not bounce again on the next frame.
+     *
+     * @param ball the ball that touched the obstacle
+     */
+    @Override
+    protected void collide(Ball ball) {
+        int ballX = ball.getX();
+        int ballY = ball.getY();
+        int ballWidth = ball.getWidth();
+        int ballHeight = ball.getHeight();
+        if (!store.intersects(id, ballX, ballY, ballWidth, ballHeight)) {
+            return; // Already pushed out by another obstacle this frame
+        }
+        int x = getX();
+        int y = getY();
+        int width = getWidth();
+        int height = getHeight();
+        int overlapX = Math.min(ballX + ballWidth, x + width) - Math.max(ballX, x);
+        int overlapY = Math.min(ballY + ballHeight, y + height) - Math.max(ballY, y);
+        if (overlapX < overlapY) {
+            ball.setXSpeed(-ball.getXSpeed());
+            ball.setX(ballX + ballWidth / 2 < x + width / 2 ? x - ballWidth : x + width);
+        } else {
+            ball.setYSpeed(-ball.getYSpeed());
+            ball.setY(ballY + ballHeight / 2 < y + height / 2 ? y - ballHeight : y + height);
+        }
+        gp.playSE(3, ball.getXSpeed());
+    }
+}
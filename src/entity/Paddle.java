@@ -1,11 +1,24 @@
 package entity;
 
+import gameGraphics.GamePanel;
+
 /**
  * The abstract Paddle class represents a paddle entity in the game, extending the Entity class.
  * It provides default values for the paddle's position and dimensions and includes a direction attribute.
  */
 public abstract class Paddle extends Entity {
 
+    /**
+     * Constructs a Paddle on the given side of the screen.
+     *
+     * @param gp       the GamePanel object that contains the game environment
+     * @param isOnLeft a boolean indicating if the paddle is on the left side of the screen
+     */
+    protected Paddle(GamePanel gp, boolean isOnLeft) {
+        super(gp);
+        this.isOnLeft = isOnLeft;
+    }
+
     /**
      * Sets the default values for the paddle's position, dimensions, and speed.
      * The paddle's X-coordinate is set based on its position (left or right) on the screen.
@@ -13,14 +26,24 @@ public abstract class Paddle extends Entity {
      */
     public void setDefaultValues() {
         if (isOnLeft) {
-            x = 10;
+            setX(10);
         } else {
-            x = gp.getScreenWidth() - 20;
+            setX(gp.getScreenWidth() - 20);
         }
-        height = 100;
-        width = 10;
-        y = (gp.getScreenHeight() / 2) - (height / 2);
-        ySpeed = 10;
+        setSize(10, 100);
+        setY((gp.getScreenHeight() / 2) - (getHeight() / 2));
+        setYSpeed(10);
+    }
+
+    /**
+     * Mixes the current direction into the state hash.
+     *
+     * @param hash the hash so far
+     * @return the updated hash
+     */
+    @Override
+    protected long hashState(long hash) {
+        return EntityStore.mix(hash, directions.ordinal());
     }
 
     /**
@@ -18,9 +18,8 @@ public class Player extends Paddle {
      * @param isOnLeft a boolean indicating if the player is on the left side of the screen
      */
     public Player(GamePanel gp, KeyHandler keyH, boolean isOnLeft) {
-        this.gp = gp;
+        super(gp, isOnLeft);
         this.keyH = keyH;
-        this.isOnLeft = isOnLeft;
         setDefaultValues();
     }
 
@@ -31,6 +30,8 @@ public class Player extends Paddle {
     @Override
     public void update() {
         directions = Directions.NONE;
+        int y = getY();
+        int ySpeed = getYSpeed();
         if (isOnLeft) {
             if (keyH.isLeftPlayerUpPressed()) {
                 if (y >= 0) {
@@ -39,7 +40,7 @@ public class Player extends Paddle {
                 }
             }
             if (keyH.isLeftPlayerDownPressed()) {
-                if (y <= gp.getScreenHeight() - height) {
+                if (y <= gp.getScreenHeight() - getHeight()) {
                     y += ySpeed;
                     directions = Directions.DOWN;
                 }
@@ -52,11 +53,12 @@ public class Player extends Paddle {
                 }
             }
             if (keyH.isRightPlayerDownPressed()) {
-                if (y <= gp.getScreenHeight() - height) {
+                if (y <= gp.getScreenHeight() - getHeight()) {
                     y += ySpeed;
                     directions = Directions.DOWN;
                 }
             }
         }
+        setY(y);
     }
 }
@@ -0,0 +1,107 @@
+package entity;
+
+import gameGraphics.GamePanel;
+
+import java.awt.*;
+
+/**
+ * The PowerUp class represents a pickup on the arena field.
+ * When the ball touches it, the power-up changes the ball's speed and disappears for a while.
+ */
+public class PowerUp extends Entity {
+
+    /**
+     * The effect a power-up has on the ball.
+     */
+    public enum Kind {
+        FAST_BALL, SLOW_BALL
+    }
+
+    private final Kind kind;
+    private final int respawnFrames = 600;
+    private boolean active = true;
+    private int respawnCounter = 0;
+
+    /**
+     * Constructs a PowerUp object at the specified position.
+     *
+     * @param gp   the GamePanel object that contains the game environment
+     * @param x    the X-coordinate of the power-up
+     * @param y    the Y-coordinate of the power-up
+     * @param kind the effect of the power-up
+     */
+    public PowerUp(GamePanel gp, int x, int y, Kind kind) {
+        super(gp);
+        setX(x);
+        setY(y);
+        setSize(16, 16);
+        this.kind = kind;
+    }
+
+    /**
+     * Counts down the respawn timer while the power-up is collected.
+     */
+    @Override
+    public void update() {
+        if (!active && --respawnCounter <= 0) {
+            active = true;
+        }
+    }
+
+    /**
+     * Draws the power-up. Fast power-ups are red and slow power-ups are blue.
+     *
+     * @param g2     the Graphics2D object used for drawing the power-up
+     * @param x      the X-coordinate to draw the power-up at
+     * @param y      the Y-coordinate to draw the power-up at
+     * @param width  the width to draw the power-up with
+     * @param height the height to draw the power-up with
+     */
+    @Override
+    public void draw(Graphics2D g2, int x, int y, int width, int height) {
+        g2.setColor(kind == Kind.FAST_BALL ? Color.RED : Color.CYAN);
+        g2.fillOval(x, y, width, height);
+    }
+
+    /**
+     * Applies the effect to the ball and starts the respawn timer.
+     *
+     * @param ball the ball that touched the power-up
+     */
+    @Override
+    protected void collide(Ball ball) {
+        if (!active) {
+            return;
+        }
+        int direction = ball.getXSpeed() < 0 ? -1 : 1;
+        if (kind == Kind.FAST_BALL) {
+            ball.setXSpeed(direction * Math.min(Math.abs(ball.getXSpeed()) + 3, Ball.MAX_X_SPEED));
+        } else {
+            ball.setXSpeed(direction * Ball.BASE_X_SPEED);
+        }
+        active = false;
+        respawnCounter = respawnFrames;
+        gp.playSE(1);
+    }
+
+    /**
+     * Mixes the active flag and the respawn timer into the state hash.
+     *
+     * @param hash the hash so far
+     * @return the updated hash
+     */
+    @Override
+    protected long hashState(long hash) {
+        return EntityStore.mix(EntityStore.mix(hash, active ? 1 : 0), respawnCounter);
+    }
+
+    /**
+     * Checks if the power-up can currently be collected. Collected power-ups are not drawn.
+     *
+     * @return true if the power-up is active, false otherwise
+     */
+    @Override
+    public boolean isVisible() {
+        return active;
+    }
+}
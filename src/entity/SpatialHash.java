@@ -0,0 +1,146 @@
+package entity;
+
+import java.util.Arrays;
+
+/**
+ * The SpatialHash class is a uniform grid used for broad-phase collision detection.
+ * Entities are stored by their index in the {@link EntityStore} in every cell their bounds overlap,
+ * so a query only looks at the cells around the queried area instead of every entity on the field.
+ */
+public class SpatialHash {
+    private final EntityStore store;
+    private final int cellSize;
+    private final int cols;
+    private final int rows;
+    private final int[][] cells;
+    private final int[] cellCounts;
+    private int[] result = new int[16];
+    private int resultCount = 0;
+
+    /**
+     * Constructs a SpatialHash covering the given area.
+     * Bounds outside the area are clamped to the border cells.
+     *
+     * @param store    the entity store holding the bounds of the entities
+     * @param width    the width of the covered area
+     * @param height   the height of the covered area
+     * @param cellSize the width and height of a single cell
+     */
+    public SpatialHash(EntityStore store, int width, int height, int cellSize) {
+        this.store = store;
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (width + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+        cells = new int[cols * rows][4];
+        cellCounts = new int[cols * rows];
+    }
+
+    /**
+     * Inserts an entity into every cell its current bounds overlap.
+     *
+     * @param entity the entity to insert
+     */
+    public void insert(Entity entity) {
+        int id = entity.id;
+        int minCol = col(store.x[id]);
+        int maxCol = col(store.x[id] + store.width[id] - 1);
+        int minRow = row(store.y[id]);
+        int maxRow = row(store.y[id] + store.height[id] - 1);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                int cell = r * cols + c;
+                if (cellCounts[cell] == cells[cell].length) {
+                    cells[cell] = Arrays.copyOf(cells[cell], cellCounts[cell] * 2);
+                }
+                cells[cell][cellCounts[cell]++] = id;
+            }
+        }
+    }
+
+    /**
+     * Removes an entity from the cells its current bounds overlap.
+     * The entity must not have moved since it was inserted.
+     *
+     * @param entity the entity to remove
+     */
+    public void remove(Entity entity) {
+        int id = entity.id;
+        int minCol = col(store.x[id]);
+        int maxCol = col(store.x[id] + store.width[id] - 1);
+        int minRow = row(store.y[id]);
+        int maxRow = row(store.y[id] + store.height[id] - 1);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                int cell = r * cols + c;
+                int[] ids = cells[cell];
+                for (int i = 0; i < cellCounts[cell]; i++) {
+                    if (ids[i] == id) {
+                        ids[i] = ids[--cellCounts[cell]];
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the entities whose bounds intersect the given rectangle.
+     * The results are read with {@link #getResult(int)} until the next query.
+     *
+     * @param x      the X-coordinate of the rectangle
+     * @param y      the Y-coordinate of the rectangle
+     * @param width  the width of the rectangle
+     * @param height the height of the rectangle
+     * @return the number of intersecting entities
+     */
+    public int query(int x, int y, int width, int height) {
+        resultCount = 0;
+        int minCol = col(x);
+        int maxCol = col(x + width - 1);
+        int minRow = row(y);
+        int maxRow = row(y + height - 1);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                int cell = r * cols + c;
+                int[] ids = cells[cell];
+                for (int i = 0; i < cellCounts[cell]; i++) {
+                    int id = ids[i];
+                    if (store.intersects(id, x, y, width, height) && !isInResult(id)) {
+                        if (resultCount == result.length) {
+                            result = Arrays.copyOf(result, resultCount * 2);
+                        }
+                        result[resultCount++] = id;
+                    }
+                }
+            }
+        }
+        return resultCount;
+    }
+
+    /**
+     * Returns an entity found by the last query.
+     *
+     * @param i the index of the result, less than the count returned by the query
+     * @return the entity
+     */
+    public Entity getResult(int i) {
+        return store.views[result[i]];
+    }
+
+    private boolean isInResult(int id) {
+        for (int i = 0; i < resultCount; i++) {
+            if (result[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int col(int x) {
+        return Math.min(cols - 1, Math.max(0, Math.floorDiv(x, cellSize)));
+    }
+
+    private int row(int y) {
+        return Math.min(rows - 1, Math.max(0, Math.floorDiv(y, cellSize)));
+    }
+}
@@ -0,0 +1,37 @@
+package entity;
+
+import gameGraphics.GamePanel;
+
+/**
+ * The Wall class represents the top or bottom border of the field.
+ * Walls are never drawn and always bounce the ball vertically.
+ */
+public class Wall extends Entity {
+
+    /**
+     * Constructs a Wall object with the specified bounds.
+     *
+     * @param gp     the GamePanel object that contains the game environment
+     * @param x      the X-coordinate of the wall
+     * @param y      the Y-coordinate of the wall
+     * @param width  the width of the wall
+     * @param height the height of the wall
+     */
+    public Wall(GamePanel gp, int x, int y, int width, int height) {
+        super(gp);
+        setX(x);
+        setY(y);
+        setSize(width, height);
+    }
+
+    /**
+     * Bounces the ball off the wall.
+     *
+     * @param ball the ball that touched the wall
+     */
+    @Override
+    protected void collide(Ball ball) {
+        gp.playSE(3, ball.getXSpeed());
+        ball.setYSpeed(-ball.getYSpeed());
+    }
+}
@@ -0,0 +1,81 @@
+package gameGraphics;
+
+import assetLoader.AssetLoader;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The AssetManager class loads images once and caches copies converted to the display's native pixel format.
+ * Drawing a converted image at its own size is a straight copy instead of a scaled, format-converting blit.
+ */
+public class AssetManager {
+    private final Map<String, BufferedImage> converted = new HashMap<>();
+
+    /**
+     * Returns the image with the given name as it was decoded by the asset loader.
+     *
+     * @param path the name of the image
+     * @return the loaded image
+     */
+    public BufferedImage getImage(String path) {
+        return AssetLoader.getImage(path);
+    }
+
+    /**
+     * Returns the image at the given path converted to an opaque, display-compatible image of the exact given size.
+     * The converted image is cached, so the conversion is only done once per size.
+     *
+     * @param path   the path of the image
+     * @param width  the target width
+     * @param height the target height
+     * @return the converted image
+     */
+    public BufferedImage getOpaqueImage(String path, int width, int height) {
+        return getConvertedImage(path, width, height, Transparency.OPAQUE);
+    }
+
+    /**
+     * Returns the image at the given path converted to a display-compatible image that keeps its transparency.
+     *
+     * @param path the path of the image
+     * @return the converted image
+     */
+    public BufferedImage getTranslucentImage(String path) {
+        BufferedImage source = getImage(path);
+        return getConvertedImage(path, source.getWidth(), source.getHeight(), Transparency.TRANSLUCENT);
+    }
+
+    private BufferedImage getConvertedImage(String path, int width, int height, int transparency) {
+        String key = path + "@" + width + "x" + height + "/" + transparency;
+        BufferedImage image = converted.get(key);
+        if (image == null) {
+            image = createCompatibleImage(width, height, transparency);
+            Graphics2D g2 = image.createGraphics();
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2.drawImage(getImage(path), 0, 0, width, height, null);
+            g2.dispose();
+            converted.put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * Creates an image in the pixel format of the default screen. When running headless a plain RGB or ARGB image is created.
+     *
+     * @param width        the width of the image
+     * @param height       the height of the image
+     * @param transparency the transparency of the image, as defined in {@link Transparency}
+     * @return the new image
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (GraphicsEnvironment.isHeadless()) {
+            int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+            return new BufferedImage(width, height, type);
+        }
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        return gc.createCompatibleImage(width, height, transparency);
+    }
+}
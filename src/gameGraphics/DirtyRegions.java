@@ -0,0 +1,194 @@
+package gameGraphics;
+
+import entity.Entity;
+
+/**
+ * The DirtyRegions class finds the regions of the field that changed since the previous frame:
+ * the old and new bounds of every entity that moved or appeared, the area of the particles in both frames,
+ * the score when it changed and the draw time overlay. Only these regions need the background restored
+ * and only these regions need to be presented. When too much changed, or the previous frame is unknown,
+ * the whole frame is redrawn instead. Only used by the render thread; nothing is allocated per frame.
+ */
+public class DirtyRegions {
+    private static final int MAX_REGIONS = 64;
+    private static final int MARGIN = 2;
+    private static final double MAX_DIRTY_AREA = 0.6;
+    private static final int[] SCORE_AREA = {250, 0, 300, 64};
+    private static final int[] OVERLAY_AREA = {0, 370, 800, 40};
+
+    private final int screenWidth;
+    private final int screenHeight;
+    private final int[] regions = new int[MAX_REGIONS * 4];
+    private int count;
+    private boolean full = true;
+    private final Entity[] previousEntities;
+    private final int[] previousBounds;
+    private final boolean[] previousVisible;
+    private int previousCount;
+    private int previousLeftScore;
+    private int previousRightScore;
+    private boolean previousOverlay;
+    private final int[] previousParticles = new int[4];
+    private boolean previousHadParticles;
+    private final int[] particleBounds = new int[4];
+
+    /**
+     * Constructs a DirtyRegions tracker.
+     *
+     * @param capacity     the maximum number of entities in a frame
+     * @param screenWidth  the width of the field
+     * @param screenHeight the height of the field
+     */
+    public DirtyRegions(int capacity, int screenWidth, int screenHeight) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        previousEntities = new Entity[capacity];
+        previousBounds = new int[capacity * 4];
+        previousVisible = new boolean[capacity];
+    }
+
+    /**
+     * Forgets the previous frame, so the next frame is drawn and presented in full.
+     */
+    public void invalidate() {
+        full = true;
+        previousCount = -1;
+    }
+
+    /**
+     * Compares a frame with the previous one, collects the changed regions and remembers the frame.
+     *
+     * @param snapshot  the snapshot being drawn
+     * @param particles the particles being drawn, already updated for this frame
+     * @param overlay   true if the draw time overlay is shown
+     */
+    public void collect(FrameSnapshot snapshot, ParticleSystem particles, boolean overlay) {
+        count = 0;
+        boolean known = previousCount == snapshot.getCount();
+        for (int i = 0; known && i < previousCount; i++) {
+            known = previousEntities[i] == snapshot.getEntity(i);
+        }
+        full = !known;
+        if (!full) {
+            for (int i = 0; i < previousCount; i++) {
+                int b = i * 4;
+                boolean visible = snapshot.isVisible(i);
+                int x = snapshot.getX(i);
+                int y = snapshot.getY(i);
+                int w = snapshot.getWidth(i);
+                int h = snapshot.getHeight(i);
+                if (visible == previousVisible[i] && x == previousBounds[b] && y == previousBounds[b + 1]
+                        && w == previousBounds[b + 2] && h == previousBounds[b + 3]) {
+                    continue;
+                }
+                if (previousVisible[i] && visible) {
+                    int left = Math.min(x, previousBounds[b]);
+                    int top = Math.min(y, previousBounds[b + 1]);
+                    int right = Math.max(x + w, previousBounds[b] + previousBounds[b + 2]);
+                    int bottom = Math.max(y + h, previousBounds[b + 1] + previousBounds[b + 3]);
+                    add(left, top, right - left, bottom - top);
+                } else if (previousVisible[i]) {
+                    add(previousBounds[b], previousBounds[b + 1], previousBounds[b + 2], previousBounds[b + 3]);
+                } else {
+                    add(x, y, w, h);
+                }
+            }
+            if (previousHadParticles) {
+                add(previousParticles[0], previousParticles[1],
+                        previousParticles[2] - previousParticles[0], previousParticles[3] - previousParticles[1]);
+            }
+        }
+        boolean hasParticles = particles.getBounds(particleBounds);
+        if (!full) {
+            if (hasParticles) {
+                add(particleBounds[0], particleBounds[1], particleBounds[2] - particleBounds[0], particleBounds[3] - particleBounds[1]);
+            }
+            if (snapshot.getLeftScore() != previousLeftScore || snapshot.getRightScore() != previousRightScore) {
+                add(SCORE_AREA[0], SCORE_AREA[1], SCORE_AREA[2], SCORE_AREA[3]);
+            }
+            if (overlay || previousOverlay) {
+                add(OVERLAY_AREA[0], OVERLAY_AREA[1], OVERLAY_AREA[2], OVERLAY_AREA[3]);
+            }
+            long area = 0;
+            for (int i = 0; i < count; i++) {
+                area += (long) regions[i * 4 + 2] * regions[i * 4 + 3];
+            }
+            if (area > MAX_DIRTY_AREA * screenWidth * screenHeight) {
+                full = true;
+            }
+        }
+        remember(snapshot, hasParticles, overlay);
+    }
+
+    /**
+     * Remembers the bounds of a frame to compare the next frame with.
+     */
+    private void remember(FrameSnapshot snapshot, boolean hasParticles, boolean overlay) {
+        previousCount = Math.min(snapshot.getCount(), previousEntities.length);
+        for (int i = 0; i < previousCount; i++) {
+            int b = i * 4;
+            previousEntities[i] = snapshot.getEntity(i);
+            previousVisible[i] = snapshot.isVisible(i);
+            previousBounds[b] = snapshot.getX(i);
+            previousBounds[b + 1] = snapshot.getY(i);
+            previousBounds[b + 2] = snapshot.getWidth(i);
+            previousBounds[b + 3] = snapshot.getHeight(i);
+        }
+        previousHadParticles = hasParticles;
+        System.arraycopy(particleBounds, 0, previousParticles, 0, 4);
+        previousLeftScore = snapshot.getLeftScore();
+        previousRightScore = snapshot.getRightScore();
+        previousOverlay = overlay;
+    }
+
+    /**
+     * Adds a region grown by a small margin and clipped to the field. Falls back to a full frame when there are too many.
+     */
+    private void add(int x, int y, int w, int h) {
+        int left = Math.max(0, x - MARGIN);
+        int top = Math.max(0, y - MARGIN);
+        int right = Math.min(screenWidth, x + w + MARGIN);
+        int bottom = Math.min(screenHeight, y + h + MARGIN);
+        if (right <= left || bottom <= top) {
+            return;
+        }
+        if (count == MAX_REGIONS) {
+            full = true;
+            return;
+        }
+        int r = count * 4;
+        regions[r] = left;
+        regions[r + 1] = top;
+        regions[r + 2] = right - left;
+        regions[r + 3] = bottom - top;
+        count++;
+    }
+
+    /**
+     * Checks if the whole frame has to be drawn and presented.
+     *
+     * @return true for a full frame
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Returns the number of changed regions of an incremental frame.
+     *
+     * @return the region count
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the changed regions as consecutive X, Y, width and height values in field coordinates.
+     * The array is reused by the next frame.
+     *
+     * @return the regions
+     */
+    public int[] getRegions() {
+        return regions;
+    }
+}
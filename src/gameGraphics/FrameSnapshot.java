@@ -0,0 +1,209 @@
+package gameGraphics;
+
+import entity.Entity;
+
+import java.awt.*;
+
+/**
+ * The FrameSnapshot class holds everything the render thread needs to draw one frame:
+ * the game state, the scores and the bounds and visibility of every entity on the field.
+ * Snapshots are reused, so filling one allocates nothing.
+ */
+public class FrameSnapshot {
+    private final Entity[] entities;
+    private final int[] x;
+    private final int[] y;
+    private final int[] width;
+    private final int[] height;
+    private final boolean[] visible;
+    private int count;
+    private GameState gameState;
+    private int leftScore;
+    private int rightScore;
+    private long playTicks;
+    private long tickNanos;
+
+    /**
+     * Constructs an empty FrameSnapshot.
+     *
+     * @param capacity the maximum number of entities in the snapshot
+     */
+    public FrameSnapshot(int capacity) {
+        entities = new Entity[capacity];
+        x = new int[capacity];
+        y = new int[capacity];
+        width = new int[capacity];
+        height = new int[capacity];
+        visible = new boolean[capacity];
+    }
+
+    /**
+     * Removes every entity and sets the game state and scores of the snapshot.
+     *
+     * @param gameState  the game state
+     * @param leftScore  the left player's score
+     * @param rightScore the right player's score
+     */
+    public void reset(GameState gameState, int leftScore, int rightScore) {
+        this.gameState = gameState;
+        this.leftScore = leftScore;
+        this.rightScore = rightScore;
+        count = 0;
+    }
+
+    /**
+     * Sets the game time of the snapshot, which the render thread advances the particles by.
+     *
+     * @param playTicks the number of match ticks simulated up to this snapshot
+     * @param tickNanos the game time of one tick
+     */
+    public void setTime(long playTicks, long tickNanos) {
+        this.playTicks = playTicks;
+        this.tickNanos = tickNanos;
+    }
+
+    /**
+     * Copies the current bounds and visibility of an entity into the snapshot.
+     * Entities that do not fit are left out.
+     *
+     * @param entity the entity to add
+     */
+    public void add(Entity entity) {
+        if (count < entities.length) {
+            entities[count] = entity;
+            x[count] = entity.getX();
+            y[count] = entity.getY();
+            width[count] = entity.getWidth();
+            height[count] = entity.getHeight();
+            visible[count] = entity.isVisible();
+            count++;
+        }
+    }
+
+    /**
+     * Draws every visible entity at the position and size it had when the snapshot was taken.
+     *
+     * @param g2 the Graphics2D object used for drawing
+     */
+    public void drawEntities(Graphics2D g2) {
+        for (int i = 0; i < count; i++) {
+            if (visible[i]) {
+                entities[i].draw(g2, x[i], y[i], width[i], height[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entities in the snapshot.
+     *
+     * @return the entity count
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns an entity of the snapshot.
+     *
+     * @param i the index of the entity
+     * @return the entity
+     */
+    Entity getEntity(int i) {
+        return entities[i];
+    }
+
+    /**
+     * Returns the X-coordinate an entity had when the snapshot was taken.
+     *
+     * @param i the index of the entity
+     * @return the X-coordinate
+     */
+    int getX(int i) {
+        return x[i];
+    }
+
+    /**
+     * Returns the Y-coordinate an entity had when the snapshot was taken.
+     *
+     * @param i the index of the entity
+     * @return the Y-coordinate
+     */
+    int getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * Returns the width an entity had when the snapshot was taken.
+     *
+     * @param i the index of the entity
+     * @return the width
+     */
+    int getWidth(int i) {
+        return width[i];
+    }
+
+    /**
+     * Returns the height an entity had when the snapshot was taken.
+     *
+     * @param i the index of the entity
+     * @return the height
+     */
+    int getHeight(int i) {
+        return height[i];
+    }
+
+    /**
+     * Checks if an entity was visible when the snapshot was taken.
+     *
+     * @param i the index of the entity
+     * @return true if the entity was visible
+     */
+    boolean isVisible(int i) {
+        return visible[i];
+    }
+
+    /**
+     * Returns the game state of the snapshot.
+     *
+     * @return the game state
+     */
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    /**
+     * Returns the number of match ticks simulated up to this snapshot. Ticks in menus and while paused are not counted.
+     *
+     * @return the play tick count
+     */
+    public long getPlayTicks() {
+        return playTicks;
+    }
+
+    /**
+     * Returns the game time of one tick when the snapshot was taken.
+     *
+     * @return the tick length in nanoseconds
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Returns the left player's score.
+     *
+     * @return the left player's score
+     */
+    public int getLeftScore() {
+        return leftScore;
+    }
+
+    /**
+     * Returns the right player's score.
+     *
+     * @return the right player's score
+     */
+    public int getRightScore() {
+        return rightScore;
+    }
+}
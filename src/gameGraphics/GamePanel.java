@@ -1,20 +1,41 @@
 package gameGraphics;
 
+import assetLoader.AssetLoader;
+import bot.BotChannel;
+import capture.FrameCapture;
 import configLoader.Config;
+import configLoader.Tuning;
+import configLoader.TuningWatcher;
+import entity.Arena;
 import entity.Ball;
+import entity.Bot;
 import entity.Computer;
+import entity.Entity;
+import entity.EntityStore;
 import entity.Paddle;
 import keyInputs.KeyHandler;
 import entity.Player;
+import history.MatchHistory;
+import history.MatchRecord;
 import main.Main;
+import metrics.GameMetrics;
+import metrics.HitchRecorder;
+import metrics.Overruns;
 import sound.Sound;
+import sound.Synthesizer;
+import stats.MatchStats;
+import stats.StatsStore;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * GamePanel is the main class responsible for the game graphics and logic.
@@ -27,110 +48,529 @@ public class GamePanel extends JPanel implements Runnable {
 
     protected final KeyHandler keyH = new KeyHandler(this);
     private final Sound sound;
+    private final Synthesizer synthesizer = new Synthesizer();
+    private final ExecutorService audioControl = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Synthesizer control");
+        thread.setDaemon(true);
+        return thread;
+    });
     private final Config config = new Config(this);
     private Thread gameThread;
-    private final Paddle paddle1 = new Player(this, keyH, true);
+    private Thread renderThread;
+    private EntityStore entityStore = new EntityStore();
+    private Paddle paddle1 = new Player(this, keyH, true);
     private Paddle paddle2;
     private Ball ball;
-    private final int FPS = 60;
+    private Arena arena;
+    private final Path configDirectory = Path.of("gameConfig");
+    private final TuningWatcher tuningWatcher = new TuningWatcher(configDirectory.resolve("tuning.properties"));
+    private volatile Tuning tuning = Tuning.DEFAULTS;
+    private final RenderGovernor governor = new RenderGovernor(1000000000L / tuning.getTickRate());
+    private final int MAX_CATCH_UP_TICKS = 5;
+    private static final double MIN_WHOLE_SCALE_FILL = 0.9;
+    private static final long TICK_SPIN_NANOS = 500000L; // Parking may oversleep by this much, so the rest is spun
+    private final TickScheduler clock = new TickScheduler(1000000000L / tuning.getTickRate(), MAX_CATCH_UP_TICKS);
+    private long longestTick;
+    private final BufferedImage[] levelScreens = new BufferedImage[RenderGovernor.Level.values().length];
+    private final Graphics2D[] levelGraphics = new Graphics2D[RenderGovernor.Level.values().length];
+    private RenderGovernor.Level renderLevel;
+    private RenderGovernor.Level presentedLevel;
     private long drawTime;
-    private GameState gameState;
+    private boolean drawTimeShown;
+    private final char[] drawTimeText = new char[48];
+    private volatile GameState gameState = GameState.TITLE_STATE;
+    private GameState playState = GameState.PVP_PLAY_STATE;
     protected final UI ui = new UI(this);
-    private Image background;
+    private final ParticleSystem particles = new ParticleSystem(2048, 2000000);
+    private final SnapshotBuffer snapshots = new SnapshotBuffer(512);
+    private final DirtyRegions dirtyRegions = new DirtyRegions(512, screenWidth, screenHeight);
+    private volatile boolean fullPresent = true;
+    private Graphics2D screenGraphics; // Only used by the render thread
+    private volatile boolean screenGraphicsStale = true;
+    private boolean fixedPresentTarget;
+    private final FrameCapture capture = new FrameCapture(screenWidth, screenHeight, 8, Path.of("captures"), Path.of("screenshots"));
+    private volatile boolean screenshotRequested;
+    private static final boolean REPORT_FIRST_FRAME = Boolean.getBoolean("pong.reportFirstFrame");
+    private final CountDownLatch firstFrame = new CountDownLatch(1);
+    private final HitchRecorder hitchRecorder = new HitchRecorder(configDirectory.toAbsolutePath().resolveSibling("hitches"));
+    private BotChannel botChannel;
+    private final StateMachine stateMachine = new StateMachine();
+    private final AssetManager assets = new AssetManager();
+    private final GameMetrics metrics = new GameMetrics();
+    private final StatsStore statsStore = new StatsStore();
+    private MatchStats matchStats = new MatchStats();
+    private volatile MatchStats lastMatchStats = new MatchStats();
+    private final MatchHistory matchHistory = new MatchHistory();
+    private GameState matchMode = GameState.PVP_PLAY_STATE;
+    private BufferedImage background;
     private int screenWidth2 = screenWidth; // For fullscreen
     private int screenHeight2 = screenHeight;
     private BufferedImage tempScreen;
     private Graphics2D g2;
     private boolean fullScreenOn;
+    private boolean windowFullScreen;
+    private boolean warmingUp = false;
+    private boolean soundEnabled = true;
+    private boolean effectsEnabled = true;
+    private long matchSeed;
+    private long tick;
+    private long playTicks; // Match ticks since the game started, only written by the simulation thread
+    private long particleTicks; // Play ticks the particles were advanced to, only used by the render thread
 
     /**
      * Constructor initializes the GamePanel.
      * Sets preferred size, background color, and adds key listeners.
      */
     public GamePanel() {
-        sound = new Sound();
+        sound = new Sound((end, nanos) -> {
+            metrics.getOverruns().noteSound(end, nanos);
+            if (tuning.isMetrics()) {
+                metrics.observeSoundLatency(nanos);
+            }
+        });
         this.setPreferredSize(new Dimension(screenWidth, screenHeight));
         this.setBackground(Color.BLACK);
         this.setDoubleBuffered(true);
         this.addKeyListener(keyH);
         this.setFocusable(true);
+        registerStates();
+        keyH.registerInputs(stateMachine);
+    }
+
+    /**
+     * Registers the update and draw handlers of every game state.
+     */
+    private void registerStates() {
+        for (GameState state : GameState.values()) {
+            if (state.isPlayState()) {
+                stateMachine.onUpdate(state, this::updatePlay);
+                stateMachine.onDraw(state, this::drawPlayFrame);
+            }
+        }
+        stateMachine.onDraw(GameState.PAUSE_STATE, (g2, snapshot) -> {
+            drawField(g2, snapshot, true);
+            ui.drawScore(g2, snapshot.getLeftScore(), snapshot.getRightScore());
+            ui.drawPauseScreen(g2); // If the game is paused, "PAUSED" is drawn on top of everything
+        });
+        stateMachine.onDraw(GameState.MENU_STATE, (g2, snapshot) -> {
+            drawField(g2, snapshot, false);
+            ui.drawInGameMenu(g2);
+        });
+        stateMachine.onDraw(GameState.TITLE_STATE, (g2, snapshot) -> ui.drawTitleScreen(g2));
+        stateMachine.onDraw(GameState.SETTINGS_STATE, (g2, snapshot) -> ui.drawSettingsScreen(g2));
+        stateMachine.onDraw(GameState.CONTROLS_STATE, (g2, snapshot) -> ui.drawControlsScreen(g2));
+        stateMachine.onDraw(GameState.CONFIRM_EXIT_STATE, (g2, snapshot) -> ui.drawConfirmExitScreen(g2));
+        stateMachine.onDraw(GameState.CREDITS_STATE, (g2, snapshot) -> ui.drawCredits(g2));
+        stateMachine.onDraw(GameState.STATS_STATE, (g2, snapshot) -> ui.drawStatsScreen(g2, lastMatchStats, statsStore.getLifetime()));
+        stateMachine.onDraw(GameState.LEADERBOARD_STATE, (g2, snapshot) -> ui.drawMatchList(g2, "TOP 10", matchHistory.getLeaderboard()));
+        stateMachine.onDraw(GameState.RECENT_MATCHES_STATE, (g2, snapshot) -> ui.drawMatchList(g2, "RECENT", matchHistory.getRecent()));
     }
 
     /**
      * Sets up the game by preloading images and setting the initial game state.
      */
     public void setupGame() {
-        fullScreenOn = Main.window.isUndecorated();
-        preloadImages();
-        setGameState(GameState.TITLE_STATE);
-        tempScreen = new BufferedImage(screenWidth, screenHeight, BufferedImage.TYPE_INT_ARGB);
-        g2 = (Graphics2D) tempScreen.getGraphics();
+        windowFullScreen = Main.window.isUndecorated();
+        fullScreenOn = windowFullScreen;
+        Main.window.setIconImage(assets.getTranslucentImage(AssetLoader.ICON));
+        setupOffscreen();
         if (fullScreenOn) {
             setFullscreen();
         }
+        applyRenderLevel();
+        sound.start();
+        if (Boolean.getBoolean("pong.capture")) {
+            capture.startRecording(); // Record the whole session, for example match footage at events
+        }
+    }
+
+    /**
+     * Sets up the background and the temporary screens of every render level without a window,
+     * so frames can be drawn headless. Levels with the same render scale share a temporary screen.
+     */
+    public void setupOffscreen() {
+        background = assets.getOpaqueImage(AssetLoader.BACKGROUND, screenWidth, screenHeight);
+        setGameState(GameState.TITLE_STATE);
+        RenderGovernor.Level[] levels = RenderGovernor.Level.values();
+        for (int i = 0; i < levels.length; i++) {
+            double scale = levels[i].getRenderScale();
+            if (i > 0 && scale == levels[i - 1].getRenderScale()) {
+                levelScreens[i] = levelScreens[i - 1];
+                levelGraphics[i] = levelGraphics[i - 1];
+                continue;
+            }
+            levelScreens[i] = AssetManager.createCompatibleImage((int) Math.ceil(screenWidth * scale),
+                    (int) Math.ceil(screenHeight * scale), Transparency.OPAQUE);
+            levelGraphics[i] = levelScreens[i].createGraphics();
+            levelGraphics[i].scale(scale, scale);
+        }
+        useLevel(governor.getLevel());
+    }
+
+    /**
+     * Fixes the render level from -Dpong.renderLevel or the tuning, or lets the governor choose it in fullscreen.
+     */
+    private void applyRenderLevel() {
+        String property = System.getProperty("pong.renderLevel");
+        RenderGovernor.Level fixedLevel = property != null ? RenderGovernor.Level.valueOf(property) : tuning.getRenderLevel();
+        governor.setLevel(fixedLevel != null ? fixedLevel : RenderGovernor.Level.ULTRA);
+        governor.setEnabled(fullScreenOn && fixedLevel == null);
     }
 
     /**
-     * Preloads images such as the background and icon.
+     * Switches the game to new tuning settings. Called between two ticks, so a tick never sees a mix of old and new settings.
+     *
+     * @param tuning the new settings
      */
-    public void preloadImages() {
-        try {
-            BufferedImage image = ImageIO.read(new File("res/icon/Icon.png"));
-            Main.window.setIconImage(image);
-            background = ImageIO.read(new File("res/background/Background.png"));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    public void applyTuning(Tuning tuning) {
+        Tuning previous = this.tuning;
+        this.tuning = tuning;
+        clock.setTickNanos(1000000000L / tuning.getTickRate());
+        governor.setBudget(1000000000L / (tuning.getFpsCap() > 0 ? tuning.getFpsCap() : tuning.getTickRate()));
+        if (tuning.getRenderLevel() != previous.getRenderLevel()) {
+            applyRenderLevel();
+        }
+        if (tuning.isDrawTimeOverlay() != previous.isDrawTimeOverlay()) {
+            keyH.setCheckDrawTime(tuning.isDrawTimeOverlay());
+        }
+        if (tuning.isSynthAudio() != previous.isSynthAudio() || tuning.getAudioBufferMillis() != previous.getAudioBufferMillis()) {
+            applySynthAudio(tuning.isSynthAudio(), tuning.getAudioBufferMillis());
         }
     }
 
     /**
-     * Starts the game thread which runs the game loop.
+     * Starts or stops synthesizing the bounce and goal sounds, restarting the synthesizer for a new buffer size.
+     * Opening and closing the audio line can block, so the switch runs on the synthesizer control thread; until
+     * the synthesizer is running, and when no audio line is available, the sound files are played instead.
+     *
+     * @param enabled      true to synthesize the sounds
+     * @param bufferMillis the length of sound generated at once
+     */
+    private void applySynthAudio(boolean enabled, int bufferMillis) {
+        audioControl.execute(() -> {
+            synthesizer.stop();
+            if (enabled) {
+                try {
+                    synthesizer.start(bufferMillis);
+                } catch (RuntimeException e) {
+                    System.err.println("Could not synthesize sound, playing the sound files: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Switches drawing to the temporary screen and effects quality of a render level.
+     *
+     * @param level the render level of the next frame
+     */
+    private void useLevel(RenderGovernor.Level level) {
+        if (level != renderLevel) {
+            dirtyRegions.invalidate(); // The temporary screen of the level holds an older frame
+        }
+        renderLevel = level;
+        tempScreen = levelScreens[level.ordinal()];
+        g2 = levelGraphics[level.ordinal()];
+    }
+
+    /**
+     * Runs a silent computer vs computer match offscreen so the JIT compiles the ball, paddle and UI code
+     * before the first real frame. Used by the fast start launcher.
+     *
+     * @param frames the number of frames to simulate and draw
+     */
+    public void warmUp(int frames) {
+        warmingUp = true;
+        Arena warmUpArena = new Arena(this);
+        warmUpArena.loadDefaultLayout();
+        Paddle left = new Computer(this, true);
+        Paddle right = new Computer(this, false);
+        ball = new Ball(this, left, right, warmUpArena, 0);
+        GameState previousState = gameState;
+        Paddle previousPaddle2 = paddle2;
+        Arena previousArena = arena;
+        paddle2 = right;
+        arena = warmUpArena;
+        gameState = GameState.ARENA_PLAY_STATE;
+        for (int i = 0; i < frames; i++) {
+            left.update();
+            right.update();
+            warmUpArena.update();
+            ball.update();
+            playTicks++;
+            publishSnapshot(left);
+            drawToTempScreen(snapshots.poll());
+        }
+        gameState = previousState;
+        paddle2 = previousPaddle2;
+        arena = previousArena;
+        ball = null;
+        particles.clear();
+        dirtyRegions.invalidate();
+        publishSnapshot(paddle1);
+        warmingUp = false;
+    }
+
+    /**
+     * Starts the game thread which runs the game loop and the render thread which draws the published snapshots.
      */
     public void startGameThread() {
-        gameThread = new Thread(this);
+        gameThread = new Thread(this, "simulation");
+        renderThread = new Thread(this::renderLoop, "render");
         gameThread.start();
+        renderThread.start();
     }
 
     /**
-     * Main game loop runs at the specified FPS.
-     * Updates and renders the game state.
+     * Main game loop runs at the tick rate of the tuning.
+     * Updates the game state and publishes a snapshot of it for the render thread,
+     * so a slow draw never delays the next update. Reloaded tuning settings are applied before a tick.
+     * After a stall the due ticks run back to back and only the last one is published; beyond
+     * MAX_CATCH_UP_TICKS the stalled time is dropped, and every overrun is recorded with its cause.
+     * Between ticks the thread parks until shortly before the next one is due.
      */
     @Override
     public void run() {
-        double drawInternal = 1000000000.0 / FPS;
-        double delta = 0;
-        long lastTime = System.nanoTime();
-        long currentTime;
-        long timer = 0;
+        metrics.getOverruns().listenForGc();
+        clock.setTickNanos(1000000000L / tuning.getTickRate());
+        clock.start(System.nanoTime());
         while (gameThread.isAlive()) {
-            currentTime = System.nanoTime();
-            delta += (currentTime - lastTime) / drawInternal;
-            timer += currentTime - lastTime;
-            lastTime = currentTime;
-            if (delta >= 1) {
-                update();
-                drawToTempScreen(); // Draw everything to the buffered image
-                drawToScreen(); // Draw the buffered image to the screen
-                delta--;
+            if (runDueTicks(System.nanoTime()) == 0) {
+                long wait = clock.getTickNanos() - clock.getLag() - TICK_SPIN_NANOS;
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
             }
-            if (timer >= 1000000000) {
-                timer = 0;
+        }
+    }
+
+    /**
+     * Runs the ticks that are due at a point in time, recording an overrun when more than one is due.
+     * The stall is the time the simulation fell behind its schedule, and the slowest tick of the previous pass
+     * is the tick that may have caused it. Called by the game loop, and by tests with a fake clock.
+     *
+     * @param now the current time from System.nanoTime
+     * @return the number of ticks run
+     */
+    int runDueTicks(long now) {
+        int ticks = clock.advance(now);
+        if (ticks == 0) {
+            return 0;
+        }
+        if (ticks > 1) {
+            long stall = (ticks - 1L + clock.getLastDropped()) * clock.getTickNanos() + clock.getLag();
+            metrics.getOverruns().record(now - stall, now, longestTick, clock.getTickNanos(), clock.getLastDropped());
+            if (isHitch(stall)) {
+                hitchRecorder.dump(HitchRecorder.Reason.TICK_OVERRUN);
+            }
+        }
+        longestTick = 0;
+        for (int i = 0; i < ticks; i++) {
+            Tuning reloaded = tuningWatcher.poll();
+            if (reloaded != null) {
+                applyTuning(reloaded);
+            }
+            if (tuning.isMetrics()) {
+                metrics.observeTickLag((ticks - 1 - i) * clock.getTickNanos() + clock.getLag());
             }
+            long tickStart = System.nanoTime();
+            update();
+            long tickTime = System.nanoTime() - tickStart;
+            longestTick = Math.max(longestTick, tickTime);
+            recordTick(tickStart, tickTime, (ticks - 1 - i) * clock.getTickNanos() + clock.getLag());
         }
+        publishSnapshot(paddle1);
+        return ticks;
+    }
+
+    /**
+     * Returns the hitch recorder of the game.
+     *
+     * @return the hitch recorder
+     */
+    HitchRecorder getHitchRecorder() {
+        return hitchRecorder;
     }
 
     /**
-     * Updates the game state depending on the current game state.
+     * Starts the tick clock at a point in time. Used by tests driving the game loop with a fake clock.
+     *
+     * @param now the start time
      */
-    public void update() {
-        if (getGameState().equals(GameState.PVP_PLAY_STATE) || getGameState().equals(GameState.PVC_PLAY_STATE)) {
-            if (!Main.window.isFocused()) {
-                setGameState(GameState.PAUSE_STATE);
+    void startClock(long now) {
+        clock.start(now);
+    }
+
+    /**
+     * Records a tick with the pressed keys and the ball in the hitch recorder.
+     *
+     * @param start       the time the tick started
+     * @param updateNanos the time the update took
+     * @param lagNanos    how far the tick was behind schedule
+     */
+    private void recordTick(long start, long updateNanos, long lagNanos) {
+        int inputs = (keyH.isLeftPlayerUpPressed() ? 1 : 0) | (keyH.isLeftPlayerDownPressed() ? 2 : 0)
+                | (keyH.isRightPlayerUpPressed() ? 4 : 0) | (keyH.isRightPlayerDownPressed() ? 8 : 0);
+        Ball ball = this.ball;
+        if (ball != null) {
+            hitchRecorder.recordTick(start, updateNanos, lagNanos, gameState, inputs, ball.getX(), ball.getY(),
+                    ball.getXSpeed(), ball.getYSpeed());
+        } else {
+            hitchRecorder.recordTick(start, updateNanos, lagNanos, gameState, inputs, 0, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Checks if a frame or stall time is over the hitch budget of the tuning.
+     *
+     * @param nanos the frame time, or the time the simulation fell behind its schedule
+     * @return true if the hitch recorder should write the last seconds
+     */
+    private boolean isHitch(long nanos) {
+        int budget = tuning.getHitchBudgetMillis();
+        return budget > 0 && nanos > budget * 1000000L;
+    }
+
+    /**
+     * Writes the last seconds of ticks and frames from the hitch recorder to a file, in the background.
+     */
+    public void dumpHitchRecorder() {
+        hitchRecorder.dump(HitchRecorder.Reason.MANUAL);
+    }
+
+    /**
+     * Render loop draws the newest published snapshot. It never waits on the simulation thread;
+     * when no new snapshot is available it parks briefly. With a frame rate cap it also parks until the next frame is due.
+     */
+    private void renderLoop() {
+        long lastFrameStart = 0;
+        while (gameThread.isAlive()) {
+            int fpsCap = tuning.getFpsCap();
+            long wait = fpsCap > 0 ? lastFrameStart + 1000000000L / fpsCap - System.nanoTime() : 0;
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
             }
-            paddle1.update();
-            paddle2.update();
-            ball.update();
+            long frameStart = System.nanoTime();
+            if (!renderFrame(frameStart)) {
+                LockSupport.parkNanos(500000);
+                continue;
+            }
+            lastFrameStart = frameStart;
+        }
+    }
+
+    /**
+     * Draws and presents the latest snapshot published by the simulation, if there is a new one, and records
+     * the frame time. Called by the render loop, and by tests driving the frame path headless.
+     *
+     * @param frameStart the time the frame started, from System.nanoTime
+     * @return false if no new snapshot was published
+     */
+    boolean renderFrame(long frameStart) {
+        FrameSnapshot snapshot = snapshots.poll();
+        if (snapshot == null) {
+            return false;
+        }
+        useLevel(governor.getLevel());
+        drawToTempScreen(snapshot); // Draw everything to the buffered image
+        captureFrame();
+        long drawEnd = System.nanoTime();
+        drawToScreen(); // Draw the buffered image to the screen
+        long frameEnd = System.nanoTime();
+        long frameTime = frameEnd - frameStart;
+        if (tuning.isMetrics()) {
+            metrics.observeFrameTime(frameTime);
+        }
+        governor.record(frameTime);
+        hitchRecorder.recordFrame(frameStart, drawEnd - frameStart, frameEnd - drawEnd, renderLevel.ordinal(),
+                dirtyRegions.isFull() ? -1 : dirtyRegions.getCount());
+        if (isHitch(frameTime)) {
+            hitchRecorder.dump(HitchRecorder.Reason.FRAME_BUDGET);
+        }
+        return true;
+    }
+
+    /**
+     * Hands the drawn frame to the capture encoders when recording or when a screenshot was requested.
+     * Frames the encoders cannot take are dropped and counted rather than delaying the frame.
+     */
+    private void captureFrame() {
+        if (screenshotRequested) {
+            screenshotRequested = false;
+            if (!capture.screenshot(tempScreen)) {
+                metrics.recordDroppedCapture(true);
+            }
+        }
+        if (capture.isRecording() && !capture.record(tempScreen)) {
+            metrics.recordDroppedCapture(false);
+        }
+    }
+
+    /**
+     * Copies the current game state, scores and entity positions into the back snapshot and publishes it.
+     *
+     * @param leftPaddle the left paddle to include in the snapshot
+     */
+    private void publishSnapshot(Paddle leftPaddle) {
+        FrameSnapshot snapshot = snapshots.getBack();
+        GameState state = gameState;
+        if (ball != null && state.isFieldVisible()) {
+            snapshot.reset(state, ball.getLeftScore(), ball.getRightScore());
+            List<Entity> arenaEntities = arena.getEntities();
+            for (int i = 0; i < arenaEntities.size(); i++) {
+                snapshot.add(arenaEntities.get(i));
+            }
+            snapshot.add(leftPaddle);
+            snapshot.add(paddle2);
+            snapshot.add(ball);
+        } else {
+            snapshot.reset(state, 0, 0);
         }
+        snapshot.setTime(playTicks, clock.getTickNanos());
+        snapshots.publish();
+    }
+
+    /**
+     * Publishes a snapshot of the current state and draws it to the temporary screen on the calling thread.
+     * Only used while the render thread is not running, for example in headless tests.
+     *
+     * @return the temporary screen holding the drawn frame
+     */
+    public BufferedImage renderOffscreen() {
+        useLevel(governor.getLevel());
+        publishSnapshot(paddle1);
+        drawToTempScreen(snapshots.poll());
+        return tempScreen;
+    }
+
+    /**
+     * Updates the game depending on the current game state.
+     */
+    public void update() {
+        stateMachine.update(gameState);
+    }
+
+    /**
+     * Updates the paddles, the arena and the ball while a match is being played.
+     */
+    private void updatePlay() {
+        if (Main.window != null && !Main.window.isFocused()) {
+            setGameState(GameState.PAUSE_STATE);
+        }
+        simulateTick();
+    }
+
+    /**
+     * Simulates one tick of the current match without any window or rendering, so it can also run headless.
+     */
+    public void simulateTick() {
+        paddle1.update();
+        paddle2.update();
+        arena.update();
+        ball.update();
+        tick++;
+        playTicks++;
     }
 
     /**
@@ -142,43 +582,280 @@ public class GamePanel extends JPanel implements Runnable {
         graphicsDevice.setFullScreenWindow(Main.window);
         screenWidth2 = Main.window.getWidth();
         screenHeight2 = Main.window.getHeight();
+        metrics.getOverruns().noteFullscreenSwitch(System.nanoTime());
     }
 
     /**
-     * Draws all game elements to a temporary screen.
+     * Draws a frame snapshot to a temporary screen.
+     *
+     * @param snapshot the snapshot to draw
      */
-    public void drawToTempScreen() {
-        if (keyH.isCheckDrawTime()) {
+    public void drawToTempScreen(FrameSnapshot snapshot) {
+        drawTimeShown = keyH.isCheckDrawTime();
+        if (drawTimeShown) {
             drawTime = System.nanoTime();
         }
-        g2.setColor(Color.BLACK);
-        g2.fillRect(0, 0, getWidth(), getHeight());
-        if (getGameState().equals(GameState.PVP_PLAY_STATE) || getGameState().equals(GameState.PAUSE_STATE) || getGameState().equals(GameState.MENU_STATE) || getGameState().equals(GameState.PVC_PLAY_STATE)) {
-            if (getGameState().equals(GameState.PVP_PLAY_STATE) || getGameState().equals(GameState.PAUSE_STATE) || getGameState().equals(GameState.PVC_PLAY_STATE)) {
-                g2.drawImage(background, 0, 0, screenWidth, screenHeight, null);
-            }
-            paddle1.draw(g2);
-            paddle2.draw(g2);
-            ball.draw(g2);
-            ui.draw(g2, ball);
-        } else {
-            ui.draw(g2, ball);
+        if (!snapshot.getGameState().isPlayState()) {
+            // Gameplay frames only repaint what changed; every other screen is drawn whole
+            dirtyRegions.invalidate();
+            g2.setColor(Color.BLACK);
+            g2.fillRect(0, 0, screenWidth, screenHeight);
         }
-        if (keyH.isCheckDrawTime()) {
+        ui.setDefaultFont(g2);
+        stateMachine.draw(snapshot.getGameState(), g2, snapshot);
+        if (drawTimeShown) {
             long drawEnd = System.nanoTime();
             long passed = drawEnd - drawTime;
-            g2.setFont(g2.getFont().deriveFont(Font.BOLD, 24f));
-            g2.drawString("Draw time:" + passed, 10, 400);
+            g2.setFont(ui.getMenuFont());
+            g2.drawChars(drawTimeText, 0, formatDrawTime(passed), 10, 400);
         }
     }
 
     /**
-     * Draws the temporary screen to the main screen.
+     * Writes "Draw time:" followed by the given time and the render level into the reused character buffer,
+     * so the overlay allocates nothing.
+     *
+     * @param passed the draw time in nanoseconds
+     * @return the number of characters written
+     */
+    private int formatDrawTime(long passed) {
+        String label = "Draw time:";
+        label.getChars(0, label.length(), drawTimeText, 0);
+        int length = label.length();
+        int digits = 1;
+        for (long rest = passed / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            drawTimeText[i] = (char) ('0' + passed % 10);
+            passed /= 10;
+        }
+        length += digits;
+        drawTimeText[length++] = ' ';
+        String level = renderLevel.name();
+        level.getChars(0, level.length(), drawTimeText, length);
+        return length + level.length();
+    }
+
+    /**
+     * Draws a gameplay frame incrementally: only the regions that changed since the previous frame get the
+     * background restored, then the particles, the entities and the score are drawn on top.
+     * Everything drawn over the regions is opaque, so drawing the unchanged entities again leaves them the same.
+     *
+     * @param g2       the Graphics2D object used for drawing
+     * @param snapshot the snapshot to draw
+     */
+    private void drawPlayFrame(Graphics2D g2, FrameSnapshot snapshot) {
+        updateParticles(snapshot);
+        dirtyRegions.collect(snapshot, particles, drawTimeShown);
+        if (dirtyRegions.isFull()) {
+            g2.drawImage(background, 0, 0, null);
+        } else {
+            // Copy the regions with drawImage rather than clipping, since setting a clip allocates
+            int[] regions = dirtyRegions.getRegions();
+            for (int i = 0; i < dirtyRegions.getCount() * 4; i += 4) {
+                int right = regions[i] + regions[i + 2];
+                int bottom = regions[i + 1] + regions[i + 3];
+                g2.drawImage(background, regions[i], regions[i + 1], right, bottom,
+                        regions[i], regions[i + 1], right, bottom, null);
+            }
+        }
+        drawField(g2, snapshot, false);
+        ui.drawScore(g2, snapshot.getLeftScore(), snapshot.getRightScore());
+    }
+
+    /**
+     * Advances the particles by every tick simulated since the previous frame, so effects keep to game time
+     * whatever the frame rate. After a long stall at most a second is caught up, which every particle outlives.
+     *
+     * @param snapshot the snapshot about to be drawn
+     */
+    private void updateParticles(FrameSnapshot snapshot) {
+        long ticks = Math.min(snapshot.getPlayTicks() - particleTicks, 1000000000L / snapshot.getTickNanos());
+        particleTicks = snapshot.getPlayTicks();
+        for (long i = 0; i < ticks; i++) {
+            particles.update(snapshot.getTickNanos());
+        }
+    }
+
+    /**
+     * Draws the particles, the paddles and the ball of a snapshot.
+     *
+     * @param g2         the Graphics2D object used for drawing
+     * @param snapshot   the snapshot to draw
+     * @param background true to draw the background image first
+     */
+    private void drawField(Graphics2D g2, FrameSnapshot snapshot, boolean background) {
+        if (background) {
+            g2.drawImage(this.background, 0, 0, null);
+        }
+        if (renderLevel.getParticleStride() > 0) {
+            particles.draw(g2, renderLevel.getParticleStride());
+        }
+        snapshot.drawEntities(g2);
+    }
+
+    /**
+     * Draws the temporary screen to the main screen. After an incremental gameplay frame only the changed regions
+     * are copied; the whole frame is copied after a full redraw, after Swing repainted the panel and when upscaling smoothly.
      */
     public void drawToScreen() {
-        Graphics g = getGraphics();
-        g.drawImage(tempScreen, 0, 0, screenWidth2, screenHeight2, null);
-        g.dispose();
+        Graphics2D g = getScreenGraphics();
+        if (g == null) {
+            return; // The panel is not displayable yet
+        }
+        boolean full = dirtyRegions.isFull() || fullPresent;
+        fullPresent = false;
+        if (renderLevel != presentedLevel) {
+            // Clear the bars around a frame of the previous level
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, screenWidth2, screenHeight2);
+            presentedLevel = renderLevel;
+            full = true;
+        }
+        int factor = wholeScaleFactor(tempScreen.getWidth(), tempScreen.getHeight(), screenWidth2, screenHeight2);
+        if (renderLevel.isSmoothUpscale() || !fullScreenOn || factor == 0) {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            if (full || screenWidth2 != tempScreen.getWidth() || screenHeight2 != tempScreen.getHeight()) {
+                g.drawImage(tempScreen, 0, 0, screenWidth2, screenHeight2, null);
+            } else {
+                presentRegions(g, 1, 0, 0);
+            }
+        } else {
+            // Scale by a whole factor, so every pixel becomes an equal block
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            int width = tempScreen.getWidth() * factor;
+            int height = tempScreen.getHeight() * factor;
+            if (full) {
+                g.drawImage(tempScreen, (screenWidth2 - width) / 2, (screenHeight2 - height) / 2, width, height, null);
+            } else {
+                presentRegions(g, factor, (screenWidth2 - width) / 2, (screenHeight2 - height) / 2);
+            }
+        }
+        reportFirstFrame();
+    }
+
+    /**
+     * Prints the time since the JVM started the first time it is called, when -Dpong.reportFirstFrame=true is set
+     * as in the measuring runs of the fast start launcher. Called after a frame is presented.
+     */
+    private void reportFirstFrame() {
+        if (firstFrame.getCount() != 0) {
+            if (REPORT_FIRST_FRAME) {
+                System.out.println("Time to first frame: " + ManagementFactory.getRuntimeMXBean().getUptime() + " ms");
+            }
+            firstFrame.countDown();
+        }
+    }
+
+    /**
+     * Waits until the first frame has been presented.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void awaitFirstFrame() throws InterruptedException {
+        firstFrame.await();
+    }
+
+    /**
+     * Returns the graphics of the panel the frames are presented with. They are kept between frames, since
+     * getGraphics creates new graphics on every call, and created again after Swing repainted the panel,
+     * for example when the window changed size.
+     *
+     * @return the graphics, or null if the panel is not displayable
+     */
+    private Graphics2D getScreenGraphics() {
+        if (screenGraphicsStale && !fixedPresentTarget) {
+            screenGraphicsStale = false;
+            if (screenGraphics != null) {
+                screenGraphics.dispose();
+            }
+            screenGraphics = (Graphics2D) getGraphics();
+        }
+        return screenGraphics;
+    }
+
+    /**
+     * Presents the frames into an image instead of the panel, so the whole frame path can run headless.
+     *
+     * @param target the image receiving the presented frames, the size of the main screen
+     */
+    void setPresentTarget(BufferedImage target) {
+        fixedPresentTarget = true;
+        screenGraphics = target.createGraphics();
+    }
+
+    /**
+     * Returns the largest whole factor a frame can be scaled by to fit the screen, if the scaled frame fills
+     * at least {@value #MIN_WHOLE_SCALE_FILL} of the screen width or height. Otherwise the bars around it would be
+     * large, and the frame is stretched smoothly instead.
+     *
+     * @param frameWidth   the width of the temporary screen
+     * @param frameHeight  the height of the temporary screen
+     * @param screenWidth  the width of the main screen
+     * @param screenHeight the height of the main screen
+     * @return the scale factor, or 0 to stretch the frame smoothly
+     */
+    static int wholeScaleFactor(int frameWidth, int frameHeight, int screenWidth, int screenHeight) {
+        int factor = Math.min(screenWidth / frameWidth, screenHeight / frameHeight);
+        if (factor == 0) {
+            return 0;
+        }
+        double fill = Math.max((double) frameWidth * factor / screenWidth, (double) frameHeight * factor / screenHeight);
+        return fill >= MIN_WHOLE_SCALE_FILL ? factor : 0;
+    }
+
+    /**
+     * Copies the changed regions of the temporary screen to the main screen, scaled by a whole factor.
+     *
+     * @param g       the graphics of the main screen
+     * @param factor  the whole scale factor from temporary screen pixels to screen pixels
+     * @param offsetX the X-coordinate of the frame on the screen
+     * @param offsetY the Y-coordinate of the frame on the screen
+     */
+    private void presentRegions(Graphics2D g, int factor, int offsetX, int offsetY) {
+        double scale = renderLevel.getRenderScale();
+        int[] regions = dirtyRegions.getRegions();
+        for (int i = 0; i < dirtyRegions.getCount() * 4; i += 4) {
+            // Grow the region to whole temporary screen pixels
+            int left = (int) Math.floor(regions[i] * scale);
+            int top = (int) Math.floor(regions[i + 1] * scale);
+            int right = Math.min(tempScreen.getWidth(), (int) Math.ceil((regions[i] + regions[i + 2]) * scale));
+            int bottom = Math.min(tempScreen.getHeight(), (int) Math.ceil((regions[i + 1] + regions[i + 3]) * scale));
+            g.drawImage(tempScreen, offsetX + left * factor, offsetY + top * factor, offsetX + right * factor,
+                    offsetY + bottom * factor, left, top, right, bottom, null);
+        }
+    }
+
+    /**
+     * Paints the panel when Swing asks for it, for example after the window was uncovered,
+     * and makes the next frame present the whole temporary screen.
+     *
+     * @param g the graphics of the panel
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        screenGraphicsStale = true;
+        fullPresent = true;
+    }
+
+    /**
+     * Starts recording the frames as a PNG sequence, or stops the running recording and adds its frames to the metrics.
+     */
+    public void switchRecording() {
+        if (capture.isRecording()) {
+            metrics.recordRecording(capture.stopRecording());
+        } else {
+            capture.startRecording();
+        }
+    }
+
+    /**
+     * Makes the render thread save the next drawn frame as a screenshot.
+     */
+    public void requestScreenshot() {
+        screenshotRequested = true;
     }
 
     /**
@@ -200,19 +877,19 @@ public class GamePanel extends JPanel implements Runnable {
     }
 
     /**
-     * Increases the command number and plays a sound effect.
+     * Increases the command number, wrapping around the menu of the current game state, and plays a sound effect.
      */
     public void addCommandNum() {
         playSE(0);
-        ui.addCommandNum();
+        ui.setCommandNum(gameState.wrapItem(ui.getCommandNum() + 1));
     }
 
     /**
-     * Decreases the command number and plays a sound effect.
+     * Decreases the command number, wrapping around the menu of the current game state, and plays a sound effect.
      */
     public void removeCommandNum() {
         playSE(0);
-        ui.removeCommandNum();
+        ui.setCommandNum(gameState.wrapItem(ui.getCommandNum() - 1));
     }
 
     /**
@@ -221,8 +898,95 @@ public class GamePanel extends JPanel implements Runnable {
      * @param i the index of the sound effect to play
      */
     public void playSE(int i) {
-        sound.setFile(i);
-        sound.play();
+        playSE(i, 0);
+    }
+
+    /**
+     * Plays a sound effect. When sound synthesis is on, bounces and goals are synthesized instead of played
+     * from their files, and bounces are pitched by the speed of the ball.
+     *
+     * @param i      the index of the sound effect to play
+     * @param xSpeed the X speed of the ball
+     */
+    public void playSE(int i, int xSpeed) {
+        if (!soundEnabled) {
+            return;
+        }
+        boolean synthesized = (i == 3 || i == 4) && synthesizer.isRunning();
+        if (!warmingUp) {
+            if (synthesized) {
+                synthesizer.setVolumeScale(sound.getVolumeScale());
+                if (i == 3) {
+                    synthesizer.bounce(xSpeed);
+                } else {
+                    synthesizer.goal();
+                }
+            } else {
+                sound.play(i);
+            }
+        }
+    }
+
+    /**
+     * Spawns sparks where the ball hit a paddle.
+     *
+     * @param x the X-coordinate of the hit
+     * @param y the Y-coordinate of the hit
+     */
+    public void spawnHitSparks(int x, int y) {
+        if (effectsEnabled) {
+            particles.spawnSparks(x, y);
+        }
+    }
+
+    /**
+     * Spawns a burst of particles where a goal was scored.
+     *
+     * @param x the X-coordinate of the goal
+     * @param y the Y-coordinate of the goal
+     */
+    public void spawnGoalBurst(int x, int y) {
+        if (effectsEnabled) {
+            particles.spawnBurst(x, y);
+        }
+    }
+
+    /**
+     * Spawns a trail particle behind the ball.
+     *
+     * @param x the X-coordinate of the ball center
+     * @param y the Y-coordinate of the ball center
+     */
+    public void spawnBallTrail(int x, int y) {
+        if (effectsEnabled) {
+            particles.spawnTrail(x, y);
+        }
+    }
+
+    /**
+     * Records a goal in the game metrics and the match statistics.
+     *
+     * @param leftScored true if the left player scored, false if the right player scored
+     * @param paddleHits the number of paddle hits in the rally
+     */
+    public void recordGoal(boolean leftScored, int paddleHits) {
+        if (!warmingUp) {
+            metrics.recordGoal(leftScored, paddleHits);
+            matchStats.onGoal(leftScored, paddleHits);
+        }
+    }
+
+    /**
+     * Records a paddle hit in the match statistics.
+     *
+     * @param left     true if the left paddle hit the ball
+     * @param speed    the horizontal speed of the ball after the hit
+     * @param topSpeed true if the ball was already at its maximum speed
+     */
+    public void recordPaddleHit(boolean left, int speed, boolean topSpeed) {
+        if (!warmingUp) {
+            matchStats.onPaddleHit(left, speed, topSpeed);
+        }
     }
 
     /**
@@ -234,6 +998,24 @@ public class GamePanel extends JPanel implements Runnable {
         return screenWidth;
     }
 
+    /**
+     * Returns the number of simulation ticks per second.
+     *
+     * @return the tick rate
+     */
+    public int getFPS() {
+        return tuning.getTickRate();
+    }
+
+    /**
+     * Returns the tuning settings in use.
+     *
+     * @return the settings
+     */
+    public Tuning getTuning() {
+        return tuning;
+    }
+
     /**
      * Returns the screen height.
      *
@@ -258,15 +1040,155 @@ public class GamePanel extends JPanel implements Runnable {
      * @param gameState the new game state
      */
     public void setGameState(GameState gameState) {
-        if (gameState.equals(GameState.PVP_PLAY_STATE) && this.gameState.equals(GameState.TITLE_STATE)) {
+        if (gameState.isPlayState() && this.gameState.equals(GameState.TITLE_STATE)) {
+            // The seed is fixed with -Dpong.seed for lockstep and replays
+            startMatch(gameState, Long.getLong("pong.seed", System.nanoTime()));
+        }
+        if (gameState.isPlayState()) {
+            playState = gameState;
+        }
+        if (gameState.equals(GameState.TITLE_STATE)) {
+            if (this.gameState.isFieldVisible()) {
+                endMatch();
+            }
+            particles.clear();
+        }
+        this.gameState = gameState;
+        setCommandNum(gameState.getInitialItem());
+    }
+
+    /**
+     * Adds the match that was left to the match history and its statistics to the lifetime statistics.
+     */
+    private void endMatch() {
+        if (ball != null && tick > 0) {
+            matchHistory.append(new MatchRecord(System.currentTimeMillis(), matchMode, paddle1 instanceof Computer,
+                    paddle2 instanceof Computer, ball.getLeftScore(), ball.getRightScore(), tick, tuning.getTickRate(), matchSeed));
+        }
+        if (!matchStats.isEmpty()) {
+            matchStats.finishMatch();
+            statsStore.append(matchStats);
+            lastMatchStats = matchStats;
+        }
+        matchStats = new MatchStats();
+    }
+
+    /**
+     * Creates the paddles, the arena and the ball of a new match. Every match starts with a fresh entity store.
+     *
+     * @param mode the play state of the match
+     * @param seed the seed of the match
+     */
+    public void startMatch(GameState mode, long seed) {
+        entityStore = new EntityStore();
+        matchSeed = seed;
+        matchMode = mode;
+        tick = 0;
+        matchStats = new MatchStats();
+        paddle1 = new Player(this, keyH, true);
+        if (mode.equals(GameState.PVP_PLAY_STATE)) {
             paddle2 = new Player(this, keyH, false);
-            ball = new Ball(this, paddle1, paddle2);
-        } else if (gameState.equals(GameState.PVC_PLAY_STATE) && this.gameState.equals(GameState.TITLE_STATE)) {
+        } else if (botChannel != null) {
+            paddle2 = new Bot(this, false, botChannel, paddle1);
+        } else {
             paddle2 = new Computer(this, false);
-            ball = new Ball(this, paddle1, paddle2);
         }
-        this.gameState = gameState;
-        setCommandNum(0);
+        arena = new Arena(this);
+        if (mode.equals(GameState.ARENA_PLAY_STATE)) {
+            arena.loadDefaultLayout();
+        }
+        ball = new Ball(this, paddle1, paddle2, arena, matchSeed);
+    }
+
+    /**
+     * Returns the entity store holding the position, speed and dimensions of every entity of the current match.
+     *
+     * @return the entity store
+     */
+    public EntityStore getEntityStore() {
+        return entityStore;
+    }
+
+    /**
+     * Enables or disables sound effects, used to run matches headless.
+     *
+     * @param soundEnabled true to play sound effects, false to skip them
+     */
+    public void setSoundEnabled(boolean soundEnabled) {
+        this.soundEnabled = soundEnabled;
+    }
+
+    /**
+     * Enables or disables particle effects, used to draw reproducible frames.
+     *
+     * @param effectsEnabled true to spawn particles, false to skip them
+     */
+    public void setEffectsEnabled(boolean effectsEnabled) {
+        this.effectsEnabled = effectsEnabled;
+    }
+
+    /**
+     * Returns the metrics of the running game.
+     *
+     * @return the game metrics
+     */
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the key handler of the game.
+     *
+     * @return the key handler
+     */
+    public KeyHandler getKeyHandler() {
+        return keyH;
+    }
+
+    /**
+     * Returns the seed of the current match.
+     *
+     * @return the match seed
+     */
+    public long getMatchSeed() {
+        return matchSeed;
+    }
+
+    /**
+     * Returns the number of ticks simulated in the current match.
+     *
+     * @return the current tick
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Returns a hash of the complete simulation state of the current match.
+     * Two games started with the same seed and fed the same inputs have the same hash at the same tick.
+     *
+     * @return the state hash
+     */
+    public long getStateHash() {
+        return entityStore.hash();
+    }
+
+    /**
+     * Returns the state machine dispatching updates, drawing and input for every game state.
+     *
+     * @return the state machine
+     */
+    public StateMachine getStateMachine() {
+        return stateMachine;
+    }
+
+    /**
+     * Returns the play state of the current match, used to resume it from the pause and menu screens.
+     *
+     * @return the play state of the current match
+     */
+    public GameState getPlayState() {
+        return playState;
     }
 
     /**
@@ -278,6 +1200,15 @@ public class GamePanel extends JPanel implements Runnable {
         return fullScreenOn;
     }
 
+    /**
+     * Checks if the window was created in fullscreen mode. Changing the setting takes effect after a restart.
+     *
+     * @return true if the window is fullscreen, false otherwise
+     */
+    public boolean isWindowFullScreen() {
+        return windowFullScreen;
+    }
+
     /**
      * Enables or disables fullscreen mode.
      *
@@ -288,10 +1219,12 @@ public class GamePanel extends JPanel implements Runnable {
     }
 
     /**
-     * Toggles fullscreen mode on or off.
+     * Toggles fullscreen mode on or off and saves the configuration.
      */
     public void switchFullScreen() {
         fullScreenOn = !fullScreenOn;
+        saveConfig();
+        metrics.getOverruns().noteFullscreenSwitch(System.nanoTime());
     }
 
     /**
@@ -313,18 +1246,20 @@ public class GamePanel extends JPanel implements Runnable {
     }
 
     /**
-     * Increases the volume and plays a sound effect.
+     * Increases the volume, saves the configuration and plays a sound effect.
      */
     public void addVolume() {
         sound.addVolume();
+        saveConfig();
         playSE(0);
     }
 
     /**
-     * Decreases the volume and plays a sound effect.
+     * Decreases the volume, saves the configuration and plays a sound effect.
      */
     public void removeVolume() {
         sound.removeVolume();
+        saveConfig();
         playSE(0);
     }
 
@@ -342,6 +1277,73 @@ public class GamePanel extends JPanel implements Runnable {
         config.loadConfig();
     }
 
+    /**
+     * Loads the tuning settings and starts reloading them whenever the file changes.
+     */
+    public void loadTuning() {
+        applyTuning(tuningWatcher.load());
+        tuningWatcher.start();
+    }
+
+    /**
+     * Opens the shared-memory bot channel, so an agent in another process plays the computer paddle.
+     *
+     * @param file the file shared with the agent
+     */
+    public void openBotChannel(Path file) {
+        botChannel = new BotChannel(file, screenWidth, screenHeight);
+    }
+
+    /**
+     * Loads the lifetime statistics, which are appended to after every match.
+     */
+    public void loadStats() {
+        statsStore.load(configDirectory.resolve("stats.dat"));
+    }
+
+    /**
+     * Opens the match history, which is appended to after every match.
+     */
+    public void loadHistory() {
+        matchHistory.open(configDirectory);
+    }
+
+    /**
+     * Returns the history of finished matches.
+     *
+     * @return the match history
+     */
+    public MatchHistory getMatchHistory() {
+        return matchHistory;
+    }
+
+    /**
+     * Returns the left paddle of the current match.
+     *
+     * @return the left paddle
+     */
+    public Paddle getPaddle1() {
+        return paddle1;
+    }
+
+    /**
+     * Returns the right paddle of the current match.
+     *
+     * @return the right paddle
+     */
+    public Paddle getPaddle2() {
+        return paddle2;
+    }
+
+    /**
+     * Returns the ball of the current match.
+     *
+     * @return the ball
+     */
+    public Ball getBall() {
+        return ball;
+    }
+
     /**
      * Returns the Y-coordinate of the ball.
      *
@@ -2,7 +2,78 @@ package gameGraphics;
 
 /**
  * GameState represents the different states of the game.
+ * Each state owns its menu model: the range of selectable items and the item selected when the state is entered.
+ * The update, draw and input handlers of every state are registered in the {@link StateMachine}.
  */
 public enum GameState {
-    TITLE_STATE, SETTINGS_STATE, MENU_STATE, CONTROLS_STATE, CONFIRM_EXIT_STATE, PVP_PLAY_STATE, PVC_PLAY_STATE, PAUSE_STATE, CREDITS_STATE
+    TITLE_STATE(0, 5, 0, false, false),
+    SETTINGS_STATE(0, 4, 0, false, false),
+    MENU_STATE(0, 1, 0, false, true),
+    CONTROLS_STATE(6, 6, 6, false, false),
+    CONFIRM_EXIT_STATE(1, 2, 2, false, false),
+    PVP_PLAY_STATE(0, 0, 0, true, true),
+    PVC_PLAY_STATE(0, 0, 0, true, true),
+    ARENA_PLAY_STATE(0, 0, 0, true, true),
+    PAUSE_STATE(0, 0, 0, false, true),
+    CREDITS_STATE(5, 5, 5, false, false),
+    STATS_STATE(0, 2, 2, false, false),
+    LEADERBOARD_STATE(0, 0, 0, false, false),
+    RECENT_MATCHES_STATE(0, 0, 0, false, false);
+
+    private final int firstItem;
+    private final int lastItem;
+    private final int initialItem;
+    private final boolean playState;
+    private final boolean fieldVisible;
+
+    GameState(int firstItem, int lastItem, int initialItem, boolean playState, boolean fieldVisible) {
+        this.firstItem = firstItem;
+        this.lastItem = lastItem;
+        this.initialItem = initialItem;
+        this.playState = playState;
+        this.fieldVisible = fieldVisible;
+    }
+
+    /**
+     * Wraps a menu item number around the selectable items of this state.
+     *
+     * @param item the item number, possibly one past either end of the menu
+     * @return the item number inside the menu
+     */
+    public int wrapItem(int item) {
+        if (item > lastItem) {
+            return firstItem;
+        }
+        if (item < firstItem) {
+            return lastItem;
+        }
+        return item;
+    }
+
+    /**
+     * Returns the menu item selected when this state is entered.
+     *
+     * @return the initial item number
+     */
+    public int getInitialItem() {
+        return initialItem;
+    }
+
+    /**
+     * Checks if this state is one of the play states.
+     *
+     * @return true if the game is being played in this state, false otherwise
+     */
+    public boolean isPlayState() {
+        return playState;
+    }
+
+    /**
+     * Checks if the paddles and the ball are drawn in this state.
+     *
+     * @return true if the field is visible, false otherwise
+     */
+    public boolean isFieldVisible() {
+        return fieldVisible;
+    }
 }
@@ -0,0 +1,306 @@
+package gameGraphics;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * The ParticleSystem class manages hit sparks, goal bursts and the ball trail.
+ * Particles are stored in fixed-size primitive arrays, so nothing is allocated after construction.
+ * Drawing is limited by a time budget; when the budget is exceeded the number of live particles is reduced.
+ * Particles are drawn as parts of prepared translucent sprites, because filling with a translucent color allocates on every call.
+ * Spawn requests may come from the simulation thread; they are queued and applied by the render thread in {@link #update(long)}.
+ * Speeds and lifetimes are in game time, so effects look the same at every tick rate.
+ */
+public class ParticleSystem {
+    /**
+     * Particle kind used for the sparks when the ball hits a paddle.
+     */
+    public static final int SPARK = 0;
+    /**
+     * Particle kind used for the burst when a goal is scored.
+     */
+    public static final int BURST = 1;
+    /**
+     * Particle kind used for the ball trail.
+     */
+    public static final int TRAIL = 2;
+
+    private static final int ALPHA_LEVELS = 4;
+    private static final int SPRITE_SIZE = 16;
+    private static final int QUEUE_SIZE = 256;
+    private final int[] requests = new int[QUEUE_SIZE * 3];
+    private volatile int requestHead = 0; // written by the spawning thread
+    private volatile int requestTail = 0; // written by the drawing thread
+    private volatile boolean clearRequested = false;
+    private volatile int droppedRequests = 0; // written by the spawning thread
+    private final int capacity;
+    private final float[] x, y, xSpeed, ySpeed; // Speeds in pixels per second
+    private final long[] life, maxLife; // Nanoseconds
+    private final int[] kind, size;
+    private int count = 0;
+    private int limit;
+    private int dropped = 0;
+    private final long drawBudget;
+    private final Random rand = new Random();
+    private final BufferedImage[][] sprites = new BufferedImage[3][ALPHA_LEVELS];
+
+    /**
+     * Constructs a ParticleSystem with the given capacity and draw time budget.
+     *
+     * @param capacity   the maximum number of live particles
+     * @param drawBudget the time in nanoseconds the particles may take to draw each frame
+     */
+    public ParticleSystem(int capacity, long drawBudget) {
+        this.capacity = capacity;
+        this.limit = capacity;
+        this.drawBudget = drawBudget;
+        x = new float[capacity];
+        y = new float[capacity];
+        xSpeed = new float[capacity];
+        ySpeed = new float[capacity];
+        life = new long[capacity];
+        maxLife = new long[capacity];
+        kind = new int[capacity];
+        size = new int[capacity];
+        Color[] base = {Color.YELLOW, Color.ORANGE, Color.WHITE};
+        for (int k = 0; k < base.length; k++) {
+            for (int a = 0; a < ALPHA_LEVELS; a++) {
+                int alpha = 255 * (a + 1) / ALPHA_LEVELS;
+                sprites[k][a] = AssetManager.createCompatibleImage(SPRITE_SIZE, SPRITE_SIZE, Transparency.TRANSLUCENT);
+                Graphics2D g2 = sprites[k][a].createGraphics();
+                g2.setComposite(AlphaComposite.Src);
+                g2.setColor(new Color(base[k].getRed(), base[k].getGreen(), base[k].getBlue(), alpha));
+                g2.fillRect(0, 0, SPRITE_SIZE, SPRITE_SIZE);
+                g2.dispose();
+            }
+        }
+    }
+
+    /**
+     * Spawns sparks flying away from a paddle hit.
+     *
+     * @param px the X-coordinate of the hit
+     * @param py the Y-coordinate of the hit
+     */
+    public void spawnSparks(int px, int py) {
+        request(SPARK, px, py);
+    }
+
+    private void emitSparks(int px, int py) {
+        for (int i = 0; i < 12; i++) {
+            spawn(SPARK, px, py, rand.nextFloat() * 480 - 240, rand.nextFloat() * 480 - 240, 250 + rand.nextInt(167), 3);
+        }
+    }
+
+    /**
+     * Spawns a burst of particles where a goal was scored.
+     *
+     * @param px the X-coordinate of the goal
+     * @param py the Y-coordinate of the goal
+     */
+    public void spawnBurst(int px, int py) {
+        request(BURST, px, py);
+    }
+
+    private void emitBurst(int px, int py) {
+        for (int i = 0; i < 40; i++) {
+            double angle = rand.nextDouble() * Math.PI * 2;
+            float speed = 120 + rand.nextFloat() * 360;
+            spawn(BURST, px, py, (float) Math.cos(angle) * speed, (float) Math.sin(angle) * speed, 500 + rand.nextInt(333), 4);
+        }
+    }
+
+    /**
+     * Spawns a single trail particle behind the ball.
+     *
+     * @param px the X-coordinate of the ball center
+     * @param py the Y-coordinate of the ball center
+     */
+    public void spawnTrail(int px, int py) {
+        request(TRAIL, px, py);
+    }
+
+    /**
+     * Queues a spawn request. If the queue is full the request is counted as dropped.
+     */
+    private void request(int k, int px, int py) {
+        int head = requestHead;
+        if (head - requestTail >= QUEUE_SIZE) {
+            droppedRequests++;
+            return;
+        }
+        int slot = (head % QUEUE_SIZE) * 3;
+        requests[slot] = k;
+        requests[slot + 1] = px;
+        requests[slot + 2] = py;
+        requestHead = head + 1;
+    }
+
+    /**
+     * Applies the queued spawn requests and a pending clear.
+     */
+    private void drainRequests() {
+        if (clearRequested) {
+            clearRequested = false;
+            count = 0;
+            requestTail = requestHead;
+        }
+        int tail = requestTail;
+        int head = requestHead;
+        while (tail != head) {
+            int slot = (tail % QUEUE_SIZE) * 3;
+            switch (requests[slot]) {
+                case SPARK -> emitSparks(requests[slot + 1], requests[slot + 2]);
+                case BURST -> emitBurst(requests[slot + 1], requests[slot + 2]);
+                default -> spawn(TRAIL, requests[slot + 1], requests[slot + 2], 0, 0, 200, 8);
+            }
+            tail++;
+        }
+        requestTail = tail;
+    }
+
+    /**
+     * Adds a particle if the current limit allows it, otherwise counts it as dropped.
+     */
+    private void spawn(int k, float px, float py, float vx, float vy, int millis, int s) {
+        if (count >= limit) {
+            dropped++;
+            return;
+        }
+        x[count] = px;
+        y[count] = py;
+        xSpeed[count] = vx;
+        ySpeed[count] = vy;
+        life[count] = millis * 1000000L;
+        maxLife[count] = life[count];
+        kind[count] = k;
+        size[count] = s;
+        count++;
+    }
+
+    /**
+     * Spawns the queued particles, moves every particle by a step of game time and removes the ones that have expired.
+     *
+     * @param nanos the game time of the step, one simulation tick
+     */
+    public void update(long nanos) {
+        drainRequests();
+        float seconds = nanos / 1e9f;
+        int i = 0;
+        while (i < count) {
+            life[i] -= nanos;
+            if (life[i] <= 0) {
+                removeAt(i);
+            } else {
+                x[i] += xSpeed[i] * seconds;
+                y[i] += ySpeed[i] * seconds;
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Computes the area covered by the live particles.
+     *
+     * @param bounds receives the left, top, right and bottom edge of the area
+     * @return true if there are live particles, false if the bounds were not set
+     */
+    public boolean getBounds(int[] bounds) {
+        if (count == 0) {
+            return false;
+        }
+        float minX = x[0], minY = y[0], maxX = x[0], maxY = y[0];
+        for (int i = 1; i < count; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        int half = SPRITE_SIZE / 2 + 1;
+        bounds[0] = (int) minX - half;
+        bounds[1] = (int) minY - half;
+        bounds[2] = (int) maxX + half;
+        bounds[3] = (int) maxY + half;
+        return true;
+    }
+
+    /**
+     * Draws every particle in one pass. If drawing exceeds the time budget the remaining particles are skipped
+     * and the particle limit is halved; it recovers slowly while frames stay within the budget.
+     *
+     * @param g2 the Graphics2D object used for drawing
+     */
+    public void draw(Graphics2D g2) {
+        draw(g2, 1);
+    }
+
+    /**
+     * Draws every n-th particle, used to lower the effects quality on slow machines.
+     *
+     * @param g2     the Graphics2D object used for drawing
+     * @param stride draw every stride-th particle
+     */
+    public void draw(Graphics2D g2, int stride) {
+        long start = System.nanoTime();
+        boolean overBudget = false;
+        int drawn = 0;
+        for (int i = 0; i < count; i += stride) {
+            if ((++drawn & 63) == 0 && System.nanoTime() - start > drawBudget) {
+                overBudget = true;
+                break;
+            }
+            int alpha = (int) Math.min(ALPHA_LEVELS - 1, life[i] * ALPHA_LEVELS / maxLife[i]);
+            int s = Math.min(SPRITE_SIZE, kind[i] == TRAIL ? (int) (size[i] * life[i] / maxLife[i]) + 1 : size[i]);
+            int px = (int) x[i] - s / 2;
+            int py = (int) y[i] - s / 2;
+            g2.drawImage(sprites[kind[i]][alpha], px, py, px + s, py + s, 0, 0, s, s, null);
+        }
+        if (overBudget || System.nanoTime() - start > drawBudget) {
+            limit = Math.max(capacity / 16, limit / 2);
+            while (count > limit) {
+                removeAt(count - 1);
+                dropped++;
+            }
+        } else if (limit < capacity) {
+            limit++;
+        }
+    }
+
+    private void removeAt(int i) {
+        count--;
+        x[i] = x[count];
+        y[i] = y[count];
+        xSpeed[i] = xSpeed[count];
+        ySpeed[i] = ySpeed[count];
+        life[i] = life[count];
+        maxLife[i] = maxLife[count];
+        kind[i] = kind[count];
+        size[i] = size[count];
+    }
+
+    /**
+     * Removes every particle and queued request before the next update.
+     */
+    public void clear() {
+        clearRequested = true;
+    }
+
+    /**
+     * Returns the number of live particles.
+     *
+     * @return the number of live particles
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of particles dropped because of the limit or the time budget.
+     *
+     * @return the number of dropped particles
+     */
+    public int getDropped() {
+        return dropped + droppedRequests;
+    }
+}
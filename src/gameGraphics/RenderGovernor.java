@@ -0,0 +1,144 @@
+package gameGraphics;
+
+/**
+ * The RenderGovernor class tracks the frame time and lowers or raises the render quality to hold the frame rate.
+ * It lowers the quality one level as soon as the average frame time nears the budget and raises it again
+ * only after frames have stayed well within the budget for a while, so the level does not flicker.
+ * Frames are recorded by the render thread; the budget, level and enabled state may be changed from the simulation
+ * thread when the tuning is reloaded, so those fields are volatile.
+ */
+public class RenderGovernor {
+    /**
+     * The render quality levels from best to cheapest.
+     */
+    public enum Level {
+        ULTRA(1.0, true, 1),
+        HIGH(1.0, false, 1),
+        MEDIUM(1.0, false, 2),
+        LOW(0.75, false, 2),
+        MINIMAL(0.5, false, 0);
+
+        private final double renderScale;
+        private final boolean smoothUpscale;
+        private final int particleStride;
+
+        Level(double renderScale, boolean smoothUpscale, int particleStride) {
+            this.renderScale = renderScale;
+            this.smoothUpscale = smoothUpscale;
+            this.particleStride = particleStride;
+        }
+
+        /**
+         * Returns the size of the internal render target relative to the game resolution.
+         *
+         * @return the render scale
+         */
+        public double getRenderScale() {
+            return renderScale;
+        }
+
+        /**
+         * Checks if the frame is always stretched to the display with bilinear filtering. The other levels are
+         * scaled by a whole factor with nearest-neighbor sampling in fullscreen when that fills most of the screen,
+         * and stretched like this otherwise.
+         *
+         * @return true for smooth upscaling
+         */
+        public boolean isSmoothUpscale() {
+            return smoothUpscale;
+        }
+
+        /**
+         * Returns the effects quality: every n-th particle is drawn, or none for 0.
+         *
+         * @return the particle stride
+         */
+        public int getParticleStride() {
+            return particleStride;
+        }
+    }
+
+    private static final double SMOOTHING = 0.1;
+    private static final double LOWER_AT = 0.9;
+    private static final double RAISE_AT = 0.5;
+    private static final int SETTLE_FRAMES = 30;
+    private static final int RAISE_FRAMES = 300;
+
+    private volatile long budget;
+    private final Level[] levels = Level.values();
+    private volatile boolean enabled = false;
+    private double average = 0;
+    private volatile int frames = 0;
+    private volatile int level = 0;
+
+    /**
+     * Constructs a RenderGovernor for the given frame budget.
+     *
+     * @param budget the frame time budget in nanoseconds
+     */
+    public RenderGovernor(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Changes the frame budget, for example when the frame rate cap changes.
+     *
+     * @param budget the frame time budget in nanoseconds
+     */
+    public void setBudget(long budget) {
+        this.budget = budget;
+        frames = 0;
+    }
+
+    /**
+     * Records the time of a frame and changes the level if needed.
+     *
+     * @param frameNanos the time taken to draw and present the frame
+     */
+    public void record(long frameNanos) {
+        if (!enabled) {
+            return;
+        }
+        average = frames == 0 ? frameNanos : average + (frameNanos - average) * SMOOTHING;
+        frames++;
+        if (frames < SETTLE_FRAMES) {
+            return;
+        }
+        if (average > budget * LOWER_AT && level < levels.length - 1) {
+            level++;
+            frames = 0;
+        } else if (average < budget * RAISE_AT && frames >= RAISE_FRAMES && level > 0) {
+            level--;
+            frames = 0;
+        }
+    }
+
+    /**
+     * Enables or disables the governor. While disabled the level stays where it is.
+     *
+     * @param enabled true to adjust the level to the frame time
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        frames = 0;
+    }
+
+    /**
+     * Fixes the level, for example from the command line on known slow machines.
+     *
+     * @param level the level to use
+     */
+    public void setLevel(Level level) {
+        this.level = level.ordinal();
+        frames = 0;
+    }
+
+    /**
+     * Returns the current level.
+     *
+     * @return the render quality level
+     */
+    public Level getLevel() {
+        return levels[level];
+    }
+}
@@ -0,0 +1,58 @@
+package gameGraphics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The SnapshotBuffer class passes frame snapshots from the simulation thread to the render thread without locks.
+ * It is a triple buffer: the simulation thread fills the back snapshot, the render thread draws the front snapshot
+ * and the two threads swap through the middle one, so neither ever waits for the other.
+ */
+public class SnapshotBuffer {
+    private static final int INDEX_MASK = 3;
+    private static final int NEW = 4;
+    private final FrameSnapshot[] snapshots = new FrameSnapshot[3];
+    private final AtomicInteger middle = new AtomicInteger(2);
+    private int back = 0;
+    private int front = 1;
+
+    /**
+     * Constructs a SnapshotBuffer with three empty snapshots.
+     *
+     * @param capacity the maximum number of entities in each snapshot
+     */
+    public SnapshotBuffer(int capacity) {
+        for (int i = 0; i < snapshots.length; i++) {
+            snapshots[i] = new FrameSnapshot(capacity);
+        }
+    }
+
+    /**
+     * Returns the snapshot the simulation thread may fill. Only called by the simulation thread.
+     *
+     * @return the back snapshot
+     */
+    public FrameSnapshot getBack() {
+        return snapshots[back];
+    }
+
+    /**
+     * Publishes the back snapshot to the render thread. Only called by the simulation thread.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | NEW) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the most recently published snapshot if one was published since the last call.
+     * Only called by the render thread.
+     *
+     * @return the newest snapshot, or null if nothing new was published
+     */
+    public FrameSnapshot poll() {
+        if ((middle.get() & NEW) == 0) {
+            return null;
+        }
+        front = middle.getAndSet(front) & INDEX_MASK;
+        return snapshots[front];
+    }
+}
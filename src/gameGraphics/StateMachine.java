@@ -0,0 +1,117 @@
+package gameGraphics;
+
+import java.awt.*;
+import java.util.EnumMap;
+import java.util.function.IntConsumer;
+
+/**
+ * The StateMachine class dispatches updates, drawing and key input to the handlers registered for each game state.
+ * Handlers are looked up in an EnumMap, so adding a state only means registering its handlers.
+ */
+public class StateMachine {
+
+    /**
+     * Draws the screen of a game state from a frame snapshot.
+     */
+    public interface Renderer {
+        /**
+         * Draws the screen.
+         *
+         * @param g2       the Graphics2D object used for drawing
+         * @param snapshot the snapshot of the frame being drawn
+         */
+        void draw(Graphics2D g2, FrameSnapshot snapshot);
+    }
+
+    private static final Runnable NO_UPDATE = () -> {
+    };
+    private static final Renderer NO_DRAW = (g2, snapshot) -> {
+    };
+    private static final IntConsumer NO_INPUT = code -> {
+    };
+
+    private final EnumMap<GameState, Runnable> updaters = new EnumMap<>(GameState.class);
+    private final EnumMap<GameState, Renderer> renderers = new EnumMap<>(GameState.class);
+    private final EnumMap<GameState, IntConsumer> keyPressedHandlers = new EnumMap<>(GameState.class);
+    private final EnumMap<GameState, IntConsumer> keyReleasedHandlers = new EnumMap<>(GameState.class);
+
+    /**
+     * Registers the update handler of a state.
+     *
+     * @param state   the game state
+     * @param updater the handler called every tick in this state
+     */
+    public void onUpdate(GameState state, Runnable updater) {
+        updaters.put(state, updater);
+    }
+
+    /**
+     * Registers the draw handler of a state.
+     *
+     * @param state    the game state
+     * @param renderer the handler called every frame in this state
+     */
+    public void onDraw(GameState state, Renderer renderer) {
+        renderers.put(state, renderer);
+    }
+
+    /**
+     * Registers the key pressed handler of a state.
+     *
+     * @param state   the game state
+     * @param handler the handler called with the key code of every pressed key in this state
+     */
+    public void onKeyPressed(GameState state, IntConsumer handler) {
+        keyPressedHandlers.put(state, handler);
+    }
+
+    /**
+     * Registers the key released handler of a state.
+     *
+     * @param state   the game state
+     * @param handler the handler called with the key code of every released key in this state
+     */
+    public void onKeyReleased(GameState state, IntConsumer handler) {
+        keyReleasedHandlers.put(state, handler);
+    }
+
+    /**
+     * Runs the update handler of a state.
+     *
+     * @param state the current game state
+     */
+    public void update(GameState state) {
+        updaters.getOrDefault(state, NO_UPDATE).run();
+    }
+
+    /**
+     * Runs the draw handler of a state.
+     *
+     * @param state    the game state being drawn
+     * @param g2       the Graphics2D object used for drawing
+     * @param snapshot the snapshot of the frame being drawn
+     */
+    public void draw(GameState state, Graphics2D g2, FrameSnapshot snapshot) {
+        renderers.getOrDefault(state, NO_DRAW).draw(g2, snapshot);
+    }
+
+    /**
+     * Runs the key pressed handler of a state.
+     *
+     * @param state the current game state
+     * @param code  the key code of the pressed key
+     */
+    public void keyPressed(GameState state, int code) {
+        keyPressedHandlers.getOrDefault(state, NO_INPUT).accept(code);
+    }
+
+    /**
+     * Runs the key released handler of a state.
+     *
+     * @param state the current game state
+     * @param code  the key code of the released key
+     */
+    public void keyReleased(GameState state, int code) {
+        keyReleasedHandlers.getOrDefault(state, NO_INPUT).accept(code);
+    }
+}
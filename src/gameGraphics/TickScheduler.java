@@ -0,0 +1,92 @@
+package gameGraphics;
+
+/**
+ * The TickScheduler class decides how many simulation ticks are due at a point in time.
+ * After a stall it lets the simulation catch up with several ticks in a row, but never more than a fixed number;
+ * the rest of the stalled time is dropped, so the game does not play fast-forward after a long hitch.
+ */
+public class TickScheduler {
+    private final int maxCatchUp;
+    private long tickNanos;
+    private long last;
+    private long accumulated;
+    private int lastDropped;
+
+    /**
+     * Constructs a TickScheduler.
+     *
+     * @param tickNanos  the time of one tick in nanoseconds
+     * @param maxCatchUp the most ticks run at once after a stall
+     */
+    public TickScheduler(long tickNanos, int maxCatchUp) {
+        this.tickNanos = tickNanos;
+        this.maxCatchUp = maxCatchUp;
+    }
+
+    /**
+     * Starts counting time, with no tick due yet.
+     *
+     * @param now the current time from System.nanoTime
+     */
+    public void start(long now) {
+        last = now;
+        accumulated = 0;
+    }
+
+    /**
+     * Adds the time passed since the previous call and takes the ticks that are due.
+     *
+     * @param now the current time from System.nanoTime
+     * @return the number of ticks to run now, at most the catch-up limit
+     */
+    public int advance(long now) {
+        accumulated += now - last;
+        last = now;
+        long due = accumulated / tickNanos;
+        lastDropped = 0;
+        if (due > maxCatchUp) {
+            lastDropped = (int) Math.min(Integer.MAX_VALUE, due - maxCatchUp);
+            due = maxCatchUp;
+            accumulated %= tickNanos;
+        } else {
+            accumulated -= due * tickNanos;
+        }
+        return (int) due;
+    }
+
+    /**
+     * Returns how far the simulation is behind schedule after the due ticks are run.
+     *
+     * @return the lag in nanoseconds, less than one tick
+     */
+    public long getLag() {
+        return accumulated;
+    }
+
+    /**
+     * Returns the number of ticks dropped by the latest call to advance.
+     *
+     * @return the dropped tick count
+     */
+    public int getLastDropped() {
+        return lastDropped;
+    }
+
+    /**
+     * Changes the time of one tick, for example when the tick rate is reloaded.
+     *
+     * @param tickNanos the time of one tick in nanoseconds
+     */
+    public void setTickNanos(long tickNanos) {
+        this.tickNanos = tickNanos;
+    }
+
+    /**
+     * Returns the time of one tick.
+     *
+     * @return the tick time in nanoseconds
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+}
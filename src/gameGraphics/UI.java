@@ -1,11 +1,14 @@
 package gameGraphics;
 
-import entity.Ball;
-import main.Main;
+import assetLoader.AssetLoader;
+import history.MatchRecord;
+import stats.MatchStats;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
 
 import java.awt.*;
-import java.io.IOException;
-import java.io.InputStream;
 
 /**
  * The UI class handles the graphical user interface elements of the game.
@@ -13,7 +16,14 @@ import java.io.InputStream;
  */
 public class UI {
     private final GamePanel gp;
+    private static final int CACHED_SCORES = 100;
+    private static final int STATS_LINE = 24;
+
     private Font pressStartRegular;
+    private final Font menuFont;
+    private final Font noteFont;
+    private final String[] scoreText = new String[CACHED_SCORES];
+    private final int[] scoreWidth = new int[CACHED_SCORES];
     private int commandNum = 0;
     private final int offset = 25; //offset to make all options visible in controls
 
@@ -25,52 +35,70 @@ public class UI {
     public UI(GamePanel gp) {
         this.gp = gp;
         try {
-            InputStream stream = ClassLoader.getSystemClassLoader().getResourceAsStream("press-start-font/PressStartRegular-ay8E.ttf");
-            assert stream != null;
-            pressStartRegular = Font.createFont(Font.TRUETYPE_FONT, stream).deriveFont(48f);
-        } catch (IOException | FontFormatException e) {
+            pressStartRegular = AssetLoader.getFont(AssetLoader.FONT).deriveFont(48f);
+        } catch (RuntimeException e) {
             pressStartRegular = new Font("Arial", Font.PLAIN, 48); //backup font for the case when the font is not found
         }
+        // Derive the smaller fonts and the score texts once instead of on every frame
+        menuFont = pressStartRegular.deriveFont(Font.BOLD, 24f);
+        noteFont = pressStartRegular.deriveFont(Font.BOLD, 12f);
+        for (int i = 0; i < CACHED_SCORES; i++) {
+            scoreText[i] = String.valueOf(i);
+        }
+        scoreWidth[0] = -1;
     }
 
     /**
-     * Draws the user interface elements based on the current game state.
+     * Sets the default user interface font before a screen is drawn.
      *
-     * @param g2   The Graphics2D object.
-     * @param ball The ball object.
+     * @param g2 The Graphics2D object.
      */
-    public void draw(Graphics2D g2, Ball ball) {
+    void setDefaultFont(Graphics2D g2) {
         g2.setFont(pressStartRegular);
-        if (gp.getGameState().equals(GameState.PVP_PLAY_STATE) || gp.getGameState().equals(GameState.PVC_PLAY_STATE)) {
-            drawScore(g2, ball);
-        } else if (gp.getGameState().equals(GameState.PAUSE_STATE)) {
-            drawScore(g2, ball);
-            drawPauseScreen(g2);//if the game is paused, "PAUSED" is drawn on top of everything
-        } else if (gp.getGameState().equals(GameState.TITLE_STATE)) {
-            drawTitleScreen(g2);
-        } else if (gp.getGameState().equals(GameState.SETTINGS_STATE)) {
-            drawSettingsScreen(g2);
-        } else if (gp.getGameState().equals(GameState.CONTROLS_STATE)) {
-            drawControlsScreen(g2);
-        } else if (gp.getGameState().equals(GameState.CONFIRM_EXIT_STATE)) {
-            drawConfirmExitScreen(g2);
-        } else if (gp.getGameState().equals(GameState.MENU_STATE)) {
-            drawInGameMenu(g2);
-        } else if (gp.getGameState().equals(GameState.CREDITS_STATE)) {
-            drawCredits(g2);
-        }
+    }
+
+    /**
+     * Returns the bold font used for menu items.
+     *
+     * @return the menu font
+     */
+    Font getMenuFont() {
+        return menuFont;
     }
 
     /**
      * Draws the score on the screen.
      *
-     * @param g2   The Graphics2D object.
-     * @param ball The ball object.
+     * @param g2         The Graphics2D object.
+     * @param leftScore  The left player's score.
+     * @param rightScore The right player's score.
      */
-    private void drawScore(Graphics2D g2, Ball ball) {
+    void drawScore(Graphics2D g2, int leftScore, int rightScore) {
         g2.setColor(Color.WHITE);
-        g2.drawString(String.valueOf(ball.getLeftScore()), getXForCenteredText(String.valueOf(ball.getLeftScore()), g2) - 75, 50); //250 50
-        g2.drawString(String.valueOf(ball.getRightScore()), getXForCenteredText(String.valueOf(ball.getRightScore()), g2) + 75, 50); // 475 50
+        drawScoreText(g2, leftScore, -75); //250 50
+        drawScoreText(g2, rightScore, 75); // 475 50
+    }
+
+    /**
+     * Draws one score centered around an offset from the middle of the screen.
+     * Scores below 100 use cached texts and widths, measured together on the first call, so drawing them allocates nothing.
+     *
+     * @param g2     The Graphics2D object.
+     * @param score  The score to draw.
+     * @param offset The horizontal offset from the center of the screen.
+     */
+    private void drawScoreText(Graphics2D g2, int score, int offset) {
+        if (score < 0 || score >= CACHED_SCORES) {
+            String text = String.valueOf(score);
+            g2.drawString(text, getXForCenteredText(text, g2) + offset, 50);
+            return;
+        }
+        if (scoreWidth[0] < 0) {
+            for (int i = 0; i < CACHED_SCORES; i++) {
+                scoreWidth[i] = (int) g2.getFontMetrics().getStringBounds(scoreText[i], g2).getWidth();
+            }
+        }
+        g2.drawString(scoreText[score], gp.getScreenWidth() / 2 - scoreWidth[score] / 2 + offset, 50);
     }
 
     /**
@@ -78,7 +106,7 @@ public class UI {
      *
      * @param g2 The Graphics2D object.
      */
-    private void drawPauseScreen(Graphics2D g2) {
+    void drawPauseScreen(Graphics2D g2) {
         g2.setColor(Color.GRAY);
         g2.drawString("PAUSED", getXForCenteredText("PAUSED", g2), gp.getScreenHeight() / 2);
     }
@@ -88,10 +116,10 @@ public class UI {
      *
      * @param g2 The Graphics2D object.
      */
-    private void drawTitleScreen(Graphics2D g2) {
+    void drawTitleScreen(Graphics2D g2) {
         String text = "PONG";
         drawTitle(text, g2);
-        g2.setFont(g2.getFont().deriveFont(Font.BOLD, 24f));
+        g2.setFont(menuFont);
         text = "Player vs Player";
         int line = 0;
         if (commandNum == line) {
@@ -103,6 +131,16 @@ public class UI {
             drawChoice(text, g2, commandNum);
         }
         line = drawMenu(text, g2, line);
+        text = "Arena";
+        if (commandNum == line) {
+            drawChoice(text, g2, commandNum);
+        }
+        line = drawMenu(text, g2, line);
+        text = "Statistics";
+        if (commandNum == line) {
+            drawChoice(text, g2, commandNum);
+        }
+        line = drawMenu(text, g2, line);
         text = "Settings";
         if (commandNum == line) {
             drawChoice(text, g2, commandNum);
@@ -120,13 +158,13 @@ public class UI {
      *
      * @param g2 The Graphics2D object.
      */
-    private void drawSettingsScreen(Graphics2D g2) {
+    void drawSettingsScreen(Graphics2D g2) {
         String text = "SETTINGS";
         drawTitle(text, g2);
-        g2.setFont(g2.getFont().deriveFont(Font.BOLD, 24f));
+        g2.setFont(menuFont);
         text = "Fullscreen";
         int line = 0;
-        boolean fullScreenNotification = (Main.window.isUndecorated() && !gp.isFullScreenOn()) || (!Main.window.isUndecorated() && gp.isFullScreenOn());
+        boolean fullScreenNotification = gp.isWindowFullScreen() != gp.isFullScreenOn();
         if (gp.isFullScreenOn()) {
             drawFilledCheckbox(text, g2, line);
         }
@@ -158,7 +196,7 @@ public class UI {
         }
         line = drawMenu(text, g2, line);
         if (fullScreenNotification) {
-            g2.setFont(g2.getFont().deriveFont(Font.BOLD, 12f));
+            g2.setFont(noteFont);
             text = "The change will take effect after restarting the game.";
             line = drawMenu(text, g2, line);
             if (gp.isFullScreenOn()) {
@@ -166,7 +204,6 @@ public class UI {
                 drawMenu(text, g2, line);
             }
         }
-        gp.saveConfig();
     }
 
     /**
@@ -174,10 +211,10 @@ public class UI {
      *
      * @param g2 The Graphics2D object.
      */
-    private void drawControlsScreen(Graphics2D g2) {
+    void drawControlsScreen(Graphics2D g2) {
         String text = "CONTROLS";
         drawTitle(text, g2);
-        g2.setFont(g2.getFont().deriveFont(Font.BOLD, 24f));
+        g2.setFont(menuFont);
         int line = 0;
         text = "Left player UP - W";
         line = drawMenu(text, g2, line);
@@ -201,10 +238,10 @@ public class UI {
      *
      * @param g2 The Graphics2D object.
      */
-    private void drawConfirmExitScreen(Graphics2D g2) {
+    void drawConfirmExitScreen(Graphics2D g2) {
         String text = "PONG";
         drawTitle(text, g2);
-        g2.setFont(g2.getFont().deriveFont(Font.BOLD, 24f));
+        g2.setFont(menuFont);
         int line = 0;
         text = "Are you sure you want to exit?";
         line = drawMenu(text, g2, line);
@@ -225,10 +262,10 @@ public class UI {
      *
      * @param g2 The Graphics2D object.
      */
-    private void drawInGameMenu(Graphics2D g2) {
+    void drawInGameMenu(Graphics2D g2) {
         String text = "MENU";
         drawTitle(text, g2);
-        g2.setFont(g2.getFont().deriveFont(Font.BOLD, 24f));
+        g2.setFont(menuFont);
         int line = 0;
         text = "Back to game";
 
@@ -248,10 +285,10 @@ public class UI {
      *
      * @param g2 The Graphics2D object.
      */
-    private void drawCredits(Graphics2D g2) {
+    void drawCredits(Graphics2D g2) {
         String text = "CREDITS";
         drawTitle(text, g2);
-        g2.setFont(g2.getFont().deriveFont(Font.BOLD, 24f));
+        g2.setFont(menuFont);
         int line = 0;
         text = "Art by Sans-coding-the-skeleton";
         line = drawMenu(text, g2, line);
@@ -267,6 +304,158 @@ public class UI {
         drawChoice(text, g2, commandNum);
     }
 
+    /**
+     * Draws the statistics screen comparing the last match with the lifetime totals.
+     *
+     * @param g2        The Graphics2D object.
+     * @param lastMatch The statistics of the last finished match.
+     * @param lifetime  The lifetime statistics.
+     */
+    void drawStatsScreen(Graphics2D g2, MatchStats lastMatch, MatchStats lifetime) {
+        drawTitle("STATS", g2);
+        g2.setFont(noteFont);
+        int y = 150;
+        drawStatsRow(g2, y, "", "LAST", "TOTAL");
+        y += STATS_LINE;
+        drawStatsRow(g2, y, "Matches", "", String.valueOf(lifetime.getMatches()));
+        y += STATS_LINE;
+        drawStatsRow(g2, y, "Goals", lastMatch.getLeftGoals() + "-" + lastMatch.getRightGoals(),
+                lifetime.getLeftGoals() + "-" + lifetime.getRightGoals());
+        y += STATS_LINE;
+        drawStatsRow(g2, y, "Paddle hits", String.valueOf(lastMatch.getPaddleHits()), String.valueOf(lifetime.getPaddleHits()));
+        y += STATS_LINE;
+        drawStatsRow(g2, y, "Avg rally", formatStat(lastMatch.getRallies().getMean()), formatStat(lifetime.getRallies().getMean()));
+        y += STATS_LINE;
+        drawStatsRow(g2, y, "Median rally", formatCount(lastMatch.getRallies().quantile(0.5)), formatCount(lifetime.getRallies().quantile(0.5)));
+        y += STATS_LINE;
+        drawStatsRow(g2, y, "90% rally", formatCount(lastMatch.getRallies().quantile(0.9)), formatCount(lifetime.getRallies().quantile(0.9)));
+        y += STATS_LINE;
+        drawStatsRow(g2, y, "Longest rally", formatCount(lastMatch.getRallies().getMax()), formatCount(lifetime.getRallies().getMax()));
+        y += STATS_LINE;
+        drawStatsRow(g2, y, "Avg hit speed", formatStat(lastMatch.getHitSpeeds().getMean()), formatStat(lifetime.getHitSpeeds().getMean()));
+        y += STATS_LINE;
+        drawStatsRow(g2, y, "Top speed hits", String.valueOf(lastMatch.getTopSpeedHits()), String.valueOf(lifetime.getTopSpeedHits()));
+        g2.setFont(menuFont);
+        drawRowItem(g2, "Top 10", 170, 0);
+        drawRowItem(g2, "Recent", 400, 1);
+        drawRowItem(g2, "Back", 630, 2);
+    }
+
+    /**
+     * Draws one item of a horizontal menu, with the selection indicator if it is selected.
+     *
+     * @param g2     The Graphics2D object.
+     * @param text   The text of the item.
+     * @param center The X-coordinate of the center of the item.
+     * @param item   The item number.
+     */
+    private void drawRowItem(Graphics2D g2, String text, int center, int item) {
+        int x = center - (int) g2.getFontMetrics().getStringBounds(text, g2).getWidth() / 2;
+        g2.drawString(text, x, 420);
+        if (commandNum == item) {
+            g2.drawString(">", x - 30, 420);
+        }
+    }
+
+    /**
+     * Draws a list of matches with their mode, players, score, duration and date.
+     *
+     * @param g2      The Graphics2D object.
+     * @param title   The title of the screen.
+     * @param matches The matches to list.
+     */
+    void drawMatchList(Graphics2D g2, String title, List<MatchRecord> matches) {
+        drawTitle(title, g2);
+        g2.setFont(noteFont);
+        g2.setColor(Color.WHITE);
+        int y = 150;
+        drawMatchRow(g2, y, "#", "MODE", "SCORE", "TIME", "DATE");
+        if (matches.isEmpty()) {
+            String text = "No matches played yet";
+            g2.drawString(text, getXForCenteredText(text, g2), y + STATS_LINE * 2);
+        }
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        for (int i = 0; i < matches.size(); i++) {
+            MatchRecord match = matches.get(i);
+            y += STATS_LINE;
+            long seconds = match.getDurationMillis() / 1000;
+            drawMatchRow(g2, y, String.valueOf(i + 1), formatMode(match),
+                    match.getLeftScore() + "-" + match.getRightScore(),
+                    seconds / 60 + ":" + (seconds % 60 < 10 ? "0" : "") + seconds % 60,
+                    dateFormat.format(new Date(match.getEndTime())));
+        }
+        g2.setFont(menuFont);
+        String text = "Back";
+        g2.drawString(text, getXForCenteredText(text, g2), 420);
+        g2.drawString(">", getXForCenteredText(text, g2) - pressStartRegular.getSize(), 420);
+    }
+
+    /**
+     * Draws one row of the match list.
+     *
+     * @param g2    The Graphics2D object.
+     * @param y     The baseline of the row.
+     * @param rank  The position in the list.
+     * @param mode  The mode of the match.
+     * @param score The final score.
+     * @param time  The duration.
+     * @param date  The date the match ended.
+     */
+    private void drawMatchRow(Graphics2D g2, int y, String rank, String mode, String score, String time, String date) {
+        g2.drawString(rank, 80, y);
+        g2.drawString(mode, 130, y);
+        g2.drawString(score, 330, y);
+        g2.drawString(time, 450, y);
+        g2.drawString(date, 570, y);
+    }
+
+    /**
+     * Returns the short name of the mode and players of a match.
+     *
+     * @param match The match.
+     * @return The mode name.
+     */
+    private String formatMode(MatchRecord match) {
+        String players = (match.isLeftComputer() ? "CPU" : "P1") + " v " + (match.isRightComputer() ? "CPU" : "P2");
+        return match.getMode() == GameState.ARENA_PLAY_STATE ? "Arena " + players : players;
+    }
+
+    /**
+     * Draws one row of the statistics table.
+     *
+     * @param g2       The Graphics2D object.
+     * @param y        The baseline of the row.
+     * @param label    The name of the statistic.
+     * @param last     The value of the last match.
+     * @param lifetime The lifetime value.
+     */
+    private void drawStatsRow(Graphics2D g2, int y, String label, String last, String lifetime) {
+        g2.setColor(Color.WHITE);
+        g2.drawString(label, 150, y);
+        g2.drawString(last, 470, y);
+        g2.drawString(lifetime, 590, y);
+    }
+
+    /**
+     * Formats a mean with one decimal.
+     *
+     * @param value The value to format.
+     * @return The formatted value.
+     */
+    private String formatStat(double value) {
+        return String.valueOf(Math.round(value * 10) / 10.0);
+    }
+
+    /**
+     * Formats an estimated count as a whole number.
+     *
+     * @param value The value to format.
+     * @return The formatted value.
+     */
+    private String formatCount(double value) {
+        return String.valueOf(Math.round(value));
+    }
+
     /**
      * Draws the title text.
      *
@@ -0,0 +1,251 @@
+package history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The MatchHistory class stores every finished match in an append-only log of fixed-size records
+ * and keeps a small sidecar index with the number of records and the record numbers of the leaderboard.
+ * Opening reads the index, the leaderboard records and the most recent records, so it takes the same time
+ * however many matches are stored. If the index is behind the log, only the missing records are read;
+ * if it is missing or damaged, it is rebuilt from the log once. Records of an unknown play mode are skipped.
+ * Until {@link #open(Path)} is called, or after the log could not be read or written, the history is only kept
+ * in memory.
+ */
+public class MatchHistory {
+    /**
+     * Number of matches on the leaderboard.
+     */
+    public static final int LEADERBOARD_SIZE = 10;
+    /**
+     * Number of recent matches kept for the recent matches screen.
+     */
+    public static final int RECENT_SIZE = 10;
+    /**
+     * Orders matches by goal margin, then by the winner's score, then by the shorter duration.
+     */
+    public static final Comparator<MatchRecord> RANKING = Comparator.comparingInt(MatchRecord::getMargin).reversed()
+            .thenComparing(Comparator.comparingInt((MatchRecord r) -> Math.max(r.getLeftScore(), r.getRightScore())).reversed())
+            .thenComparingLong(MatchRecord::getDurationMillis);
+    private static final int INDEX_MAGIC = 0x4D494458; // "MIDX"
+
+    private Path log;
+    private Path index;
+    private volatile long count;
+    private final List<Long> leaderboardPositions = new ArrayList<>();
+    private volatile List<MatchRecord> leaderboard = List.of();
+    private volatile List<MatchRecord> recent = List.of();
+
+    /**
+     * Opens the history log and index in the given directory, creating them when the first match is appended.
+     *
+     * @param directory the directory holding matches.log and matches.idx
+     */
+    public synchronized void open(Path directory) {
+        log = directory.resolve("matches.log");
+        index = directory.resolve("matches.idx");
+        count = 0;
+        leaderboardPositions.clear();
+        try {
+            long logCount = Files.exists(log) ? Files.size(log) / MatchRecord.SIZE : 0;
+            if (!readIndex(logCount)) {
+                count = 0;
+                leaderboardPositions.clear();
+            }
+            try (FileChannel channel = logCount > 0 ? FileChannel.open(log, StandardOpenOption.READ) : null) {
+                List<MatchRecord> board = new ArrayList<>();
+                for (long position : leaderboardPositions) {
+                    MatchRecord record = read(channel, position);
+                    if (record == null) {
+                        board = null;
+                        break;
+                    }
+                    board.add(record);
+                }
+                if (board == null) {
+                    // Rank the whole log again, so the next best match takes the place of the unknown one
+                    board = new ArrayList<>();
+                    leaderboardPositions.clear();
+                    count = 0;
+                }
+                // Catch up with records appended after the index was last written
+                while (count < logCount) {
+                    MatchRecord record = read(channel, count);
+                    if (record != null) {
+                        rank(board, record, count);
+                    }
+                    count++;
+                }
+                leaderboard = Collections.unmodifiableList(board);
+                List<MatchRecord> latest = new ArrayList<>();
+                for (long position = Math.max(0, count - RECENT_SIZE); position < count; position++) {
+                    MatchRecord record = read(channel, position);
+                    if (record != null) {
+                        latest.add(0, record);
+                    }
+                }
+                recent = Collections.unmodifiableList(latest);
+            }
+            if (logCount > 0) {
+                writeIndex();
+            }
+        } catch (IOException e) {
+            System.err.println("Could not open the match history, keeping it in memory only: " + e.getMessage());
+            log = null;
+            index = null;
+            count = 0;
+            leaderboardPositions.clear();
+            leaderboard = List.of();
+            recent = List.of();
+        }
+    }
+
+    /**
+     * Reads the index if it matches the log.
+     *
+     * @return true if the index was read
+     */
+    private boolean readIndex(long logCount) throws IOException {
+        if (!Files.exists(index)) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(index));
+        if (buffer.remaining() < 16 || buffer.getInt() != INDEX_MAGIC) {
+            return false;
+        }
+        count = buffer.getLong();
+        int size = buffer.getInt();
+        if (count > logCount || size < 0 || size > LEADERBOARD_SIZE || buffer.remaining() < size * 8) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            long position = buffer.getLong();
+            if (position >= count) {
+                return false;
+            }
+            leaderboardPositions.add(position);
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the index with a new one written to a temporary file first, so a crash never leaves a torn index.
+     */
+    private void writeIndex() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(16 + LEADERBOARD_SIZE * 8);
+        buffer.putInt(INDEX_MAGIC);
+        buffer.putLong(count);
+        buffer.putInt(leaderboardPositions.size());
+        for (long position : leaderboardPositions) {
+            buffer.putLong(position);
+        }
+        Path temp = index.resolveSibling(index.getFileName() + ".tmp");
+        Files.write(temp, Arrays.copyOf(buffer.array(), buffer.position()));
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static MatchRecord read(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(MatchRecord.SIZE);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position * MatchRecord.SIZE + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of match record " + position);
+            }
+        }
+        return MatchRecord.read(buffer.flip());
+    }
+
+    /**
+     * Inserts a record into the leaderboard if it ranks high enough.
+     */
+    private void rank(List<MatchRecord> board, MatchRecord record, long position) {
+        int i = 0;
+        while (i < board.size() && RANKING.compare(board.get(i), record) <= 0) {
+            i++;
+        }
+        if (i < LEADERBOARD_SIZE) {
+            board.add(i, record);
+            leaderboardPositions.add(i, position);
+            if (board.size() > LEADERBOARD_SIZE) {
+                board.remove(LEADERBOARD_SIZE);
+                leaderboardPositions.remove(LEADERBOARD_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Appends a finished match to the log and updates the index, the leaderboard and the recent matches.
+     *
+     * @param record the finished match
+     */
+    public synchronized void append(MatchRecord record) {
+        if (log != null) {
+            try (FileChannel channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(MatchRecord.SIZE);
+                record.write(buffer);
+                buffer.flip();
+                channel.truncate(count * MatchRecord.SIZE); // Drop a torn record left by a crash
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, count * MatchRecord.SIZE + buffer.position());
+                }
+            } catch (IOException e) {
+                System.err.println("Could not save the match, keeping the history in memory only: " + e.getMessage());
+                log = null;
+            }
+        }
+        List<MatchRecord> board = new ArrayList<>(leaderboard);
+        rank(board, record, count);
+        count++;
+        leaderboard = Collections.unmodifiableList(board);
+        List<MatchRecord> latest = new ArrayList<>(recent);
+        latest.add(0, record);
+        if (latest.size() > RECENT_SIZE) {
+            latest.remove(RECENT_SIZE);
+        }
+        recent = Collections.unmodifiableList(latest);
+        if (log != null) {
+            try {
+                writeIndex();
+            } catch (IOException e) {
+                // The match is in the log, and the next open catches the index up with it
+                System.err.println("Could not update the match history index: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the best matches, best first.
+     *
+     * @return the leaderboard, never modified afterwards
+     */
+    public List<MatchRecord> getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * Returns the most recent matches, newest first.
+     *
+     * @return the recent matches, never modified afterwards
+     */
+    public List<MatchRecord> getRecent() {
+        return recent;
+    }
+
+    /**
+     * Returns the number of stored matches.
+     *
+     * @return the match count
+     */
+    public long getCount() {
+        return count;
+    }
+}
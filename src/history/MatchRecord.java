@@ -0,0 +1,241 @@
+package history;
+
+import gameGraphics.GameState;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The MatchRecord class holds the result of one finished match. Records have a fixed binary size,
+ * so the n-th record of the history log is found by its offset alone.
+ */
+public class MatchRecord {
+    /**
+     * Size of a record in the history log in bytes.
+     */
+    public static final int SIZE = 48;
+
+    private static final int LEGACY_TICK_RATE = 60;
+    // Stable codes of the play modes in the log, the GameState ordinals of the modes when the log was introduced
+    private static final byte PVP_CODE = 5;
+    private static final byte PVC_CODE = 6;
+    private static final byte ARENA_CODE = 7;
+
+    private final long endTime;
+    private final GameState mode;
+    private final boolean leftComputer;
+    private final boolean rightComputer;
+    private final int leftScore;
+    private final int rightScore;
+    private final long ticks;
+    private final int tickRate;
+    private final long seed;
+
+    /**
+     * Constructs a MatchRecord.
+     *
+     * @param endTime       the time the match ended in milliseconds since the epoch
+     * @param mode          the play state of the match
+     * @param leftComputer  true if the left paddle was played by the computer
+     * @param rightComputer true if the right paddle was played by the computer
+     * @param leftScore     the final score of the left player
+     * @param rightScore    the final score of the right player
+     * @param ticks         the duration of the match in simulation ticks
+     * @param tickRate      the ticks simulated per second during the match
+     * @param seed          the seed of the match
+     * @throws IllegalArgumentException if the mode is not a play state
+     */
+    public MatchRecord(long endTime, GameState mode, boolean leftComputer, boolean rightComputer,
+                       int leftScore, int rightScore, long ticks, int tickRate, long seed) {
+        modeCode(mode); // Rejects modes that cannot be stored
+        this.endTime = endTime;
+        this.mode = mode;
+        this.leftComputer = leftComputer;
+        this.rightComputer = rightComputer;
+        this.leftScore = leftScore;
+        this.rightScore = rightScore;
+        this.ticks = ticks;
+        this.tickRate = tickRate;
+        this.seed = seed;
+    }
+
+    /**
+     * Writes the record at the current position of a buffer.
+     *
+     * @param buffer the buffer with at least {@link #SIZE} bytes remaining
+     */
+    void write(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putLong(endTime);
+        buffer.putLong(seed);
+        buffer.putLong(ticks);
+        buffer.putInt(leftScore);
+        buffer.putInt(rightScore);
+        buffer.put(modeCode(mode));
+        buffer.put((byte) (leftComputer ? 1 : 0));
+        buffer.put((byte) (rightComputer ? 1 : 0));
+        buffer.putShort((short) tickRate);
+        while (buffer.position() < start + SIZE) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * Reads a record from the current position of a buffer.
+     *
+     * @param buffer the buffer with at least {@link #SIZE} bytes remaining
+     * @return the record, or null if its mode is unknown
+     */
+    static MatchRecord read(ByteBuffer buffer) {
+        int start = buffer.position();
+        long endTime = buffer.getLong();
+        long seed = buffer.getLong();
+        long ticks = buffer.getLong();
+        int leftScore = buffer.getInt();
+        int rightScore = buffer.getInt();
+        GameState mode = mode(buffer.get());
+        boolean leftComputer = buffer.get() != 0;
+        boolean rightComputer = buffer.get() != 0;
+        int tickRate = buffer.getShort();
+        if (tickRate <= 0) {
+            tickRate = LEGACY_TICK_RATE; // Written before the tick rate was configurable
+        }
+        buffer.position(start + SIZE);
+        if (mode == null) {
+            return null;
+        }
+        return new MatchRecord(endTime, mode, leftComputer, rightComputer, leftScore, rightScore, ticks, tickRate, seed);
+    }
+
+    /**
+     * Returns the code a play mode is stored with, which does not change when game states are added or reordered.
+     */
+    private static byte modeCode(GameState mode) {
+        switch (mode) {
+            case PVP_PLAY_STATE:
+                return PVP_CODE;
+            case PVC_PLAY_STATE:
+                return PVC_CODE;
+            case ARENA_PLAY_STATE:
+                return ARENA_CODE;
+            default:
+                throw new IllegalArgumentException("Not a play mode: " + mode);
+        }
+    }
+
+    /**
+     * Returns the play mode stored with a code.
+     *
+     * @return the play mode, or null if the code is unknown
+     */
+    private static GameState mode(byte code) {
+        switch (code) {
+            case PVP_CODE:
+                return GameState.PVP_PLAY_STATE;
+            case PVC_CODE:
+                return GameState.PVC_PLAY_STATE;
+            case ARENA_CODE:
+                return GameState.ARENA_PLAY_STATE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the difference between the winner's and the loser's score, used to rank the leaderboard.
+     *
+     * @return the goal margin
+     */
+    public int getMargin() {
+        return Math.abs(leftScore - rightScore);
+    }
+
+    /**
+     * Returns the time the match ended.
+     *
+     * @return the end time in milliseconds since the epoch
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Returns the play state of the match.
+     *
+     * @return the match mode
+     */
+    public GameState getMode() {
+        return mode;
+    }
+
+    /**
+     * Checks if the left paddle was played by the computer.
+     *
+     * @return true for the computer, false for a player
+     */
+    public boolean isLeftComputer() {
+        return leftComputer;
+    }
+
+    /**
+     * Checks if the right paddle was played by the computer.
+     *
+     * @return true for the computer, false for a player
+     */
+    public boolean isRightComputer() {
+        return rightComputer;
+    }
+
+    /**
+     * Returns the final score of the left player.
+     *
+     * @return the left score
+     */
+    public int getLeftScore() {
+        return leftScore;
+    }
+
+    /**
+     * Returns the final score of the right player.
+     *
+     * @return the right score
+     */
+    public int getRightScore() {
+        return rightScore;
+    }
+
+    /**
+     * Returns the duration of the match.
+     *
+     * @return the duration in simulation ticks
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the ticks simulated per second during the match.
+     *
+     * @return the tick rate
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Returns the duration of the match in real time, comparable between matches played at different tick rates.
+     *
+     * @return the duration in milliseconds
+     */
+    public long getDurationMillis() {
+        return ticks * 1000 / tickRate;
+    }
+
+    /**
+     * Returns the seed of the match, which replays it together with the recorded inputs.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+}
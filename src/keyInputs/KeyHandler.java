@@ -2,6 +2,7 @@ package keyInputs;
 
 import gameGraphics.GamePanel;
 import gameGraphics.GameState;
+import gameGraphics.StateMachine;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
@@ -14,7 +15,7 @@ public class KeyHandler implements KeyListener {
     private final GamePanel gp;
     private boolean leftPlayerUpPressed, leftPlayerDownPressed;
     private boolean rightPlayerUpPressed, rightPlayerDownPressed;
-    private boolean checkDrawTime = false;
+    private volatile boolean checkDrawTime = false;
 
     /**
      * Constructs a KeyHandler with a reference to the GamePanel.
@@ -25,6 +26,30 @@ public class KeyHandler implements KeyListener {
         this.gp = gp;
     }
 
+    /**
+     * Registers the key handlers of every game state in the state machine.
+     *
+     * @param stateMachine the state machine dispatching the input
+     */
+    public void registerInputs(StateMachine stateMachine) {
+        stateMachine.onKeyPressed(GameState.TITLE_STATE, this::titleState);
+        stateMachine.onKeyPressed(GameState.SETTINGS_STATE, this::settingsState);
+        stateMachine.onKeyPressed(GameState.CONTROLS_STATE, this::readMenuState);
+        stateMachine.onKeyPressed(GameState.CREDITS_STATE, this::readMenuState);
+        stateMachine.onKeyPressed(GameState.STATS_STATE, this::statsState);
+        stateMachine.onKeyPressed(GameState.LEADERBOARD_STATE, this::matchListState);
+        stateMachine.onKeyPressed(GameState.RECENT_MATCHES_STATE, this::matchListState);
+        stateMachine.onKeyPressed(GameState.CONFIRM_EXIT_STATE, this::confirmExitState);
+        stateMachine.onKeyPressed(GameState.PAUSE_STATE, this::pauseState);
+        stateMachine.onKeyPressed(GameState.MENU_STATE, this::menuState);
+        for (GameState state : GameState.values()) {
+            if (state.isPlayState()) {
+                stateMachine.onKeyPressed(state, this::playState);
+                stateMachine.onKeyReleased(state, this::playReleased);
+            }
+        }
+    }
+
     /**
      * Not used but required by the KeyListener interface.
      */
@@ -41,23 +66,15 @@ public class KeyHandler implements KeyListener {
     @Override
     public void keyPressed(KeyEvent e) {
         int code = e.getKeyCode();
-        if (gp.getGameState().equals(GameState.TITLE_STATE)) {
-            titleState(code);
-        } else if (gp.getGameState().equals(GameState.SETTINGS_STATE)) {
-            settingsState(code);
-        } else if (gp.getGameState().equals(GameState.CONTROLS_STATE) || gp.getGameState().equals(GameState.CREDITS_STATE)) {
-            readMenuState(code);
-        } else if (gp.getGameState().equals(GameState.CONFIRM_EXIT_STATE)) {
-            confirmExitState(code);
-        } else if (gp.getGameState().equals(GameState.PVP_PLAY_STATE) || gp.getGameState().equals(GameState.PVC_PLAY_STATE)) {
-            playState(code);
-        } else if (gp.getGameState().equals(GameState.PAUSE_STATE)) {
-            pauseState(code);
-        } else if (gp.getGameState().equals(GameState.MENU_STATE)) {
-            menuState(code);
-        }
+        gp.getStateMachine().keyPressed(gp.getGameState(), code);
         if (code == KeyEvent.VK_T) {
             checkDrawTime = !checkDrawTime;
+        } else if (code == KeyEvent.VK_F9) {
+            gp.switchRecording();
+        } else if (code == KeyEvent.VK_F10) {
+            gp.dumpHitchRecorder();
+        } else if (code == KeyEvent.VK_F12) {
+            gp.requestScreenshot();
         }
     }
 
@@ -68,18 +85,8 @@ public class KeyHandler implements KeyListener {
      */
     private void titleState(int code) {
         switch (code) {
-            case KeyEvent.VK_W, KeyEvent.VK_UP -> {
-                gp.removeCommandNum();
-                if (gp.getCommandNum() < 0) {
-                    gp.setCommandNum(3);
-                }
-            }
-            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> {
-                gp.addCommandNum();
-                if (gp.getCommandNum() > 3) {
-                    gp.setCommandNum(0);
-                }
-            }
+            case KeyEvent.VK_W, KeyEvent.VK_UP -> gp.removeCommandNum();
+            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> gp.addCommandNum();
             case KeyEvent.VK_ENTER -> {
                 if (gp.getCommandNum() == 0) {
                     gp.playSE(1);
@@ -90,18 +97,23 @@ public class KeyHandler implements KeyListener {
                     gp.setGameState(GameState.PVC_PLAY_STATE);
                 }
                 if (gp.getCommandNum() == 2) {
-                    gp.setGameState(GameState.SETTINGS_STATE);
+                    gp.playSE(1);
+                    gp.setGameState(GameState.ARENA_PLAY_STATE);
                 }
                 if (gp.getCommandNum() == 3) {
+                    gp.setGameState(GameState.STATS_STATE);
+                }
+                if (gp.getCommandNum() == 4) {
+                    gp.setGameState(GameState.SETTINGS_STATE);
+                }
+                if (gp.getCommandNum() == 5) {
                     gp.playSE(2);
                     gp.setGameState(GameState.CONFIRM_EXIT_STATE);
-                    gp.setCommandNum(2);
                 }
             }
             case KeyEvent.VK_ESCAPE -> {
                 gp.playSE(2);
                 gp.setGameState(GameState.CONFIRM_EXIT_STATE);
-                gp.setCommandNum(2);
             }
         }
     }
@@ -113,18 +125,8 @@ public class KeyHandler implements KeyListener {
      */
     private void settingsState(int code) {
         switch (code) {
-            case KeyEvent.VK_W, KeyEvent.VK_UP -> {
-                gp.removeCommandNum();
-                if (gp.getCommandNum() < 0) {
-                    gp.setCommandNum(4);
-                }
-            }
-            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> {
-                gp.addCommandNum();
-                if (gp.getCommandNum() > 4) {
-                    gp.setCommandNum(0);
-                }
-            }
+            case KeyEvent.VK_W, KeyEvent.VK_UP -> gp.removeCommandNum();
+            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> gp.addCommandNum();
             case KeyEvent.VK_A, KeyEvent.VK_LEFT -> {
                 if (gp.getCommandNum() == 1) {
                     gp.removeVolume();
@@ -141,11 +143,9 @@ public class KeyHandler implements KeyListener {
                 }
                 if (gp.getCommandNum() == 2) {
                     gp.setGameState(GameState.CONTROLS_STATE);
-                    gp.setCommandNum(6);
                 }
                 if (gp.getCommandNum() == 3) {
                     gp.setGameState(GameState.CREDITS_STATE);
-                    gp.setCommandNum(5);
                 }
                 if (gp.getCommandNum() == 4) {
                     gp.setGameState(GameState.TITLE_STATE);
@@ -167,24 +167,49 @@ public class KeyHandler implements KeyListener {
     }
 
     /**
-     * Handles key press events in the confirm exit state.
+     * Handles key press events in the statistics state.
      *
      * @param code the key code of the pressed key
      */
-    private void confirmExitState(int code) {
+    private void statsState(int code) {
         switch (code) {
-            case KeyEvent.VK_W, KeyEvent.VK_UP -> {
-                gp.removeCommandNum();
-                if (gp.getCommandNum() < 1) {
-                    gp.setCommandNum(2);
+            case KeyEvent.VK_A, KeyEvent.VK_LEFT, KeyEvent.VK_W, KeyEvent.VK_UP -> gp.removeCommandNum();
+            case KeyEvent.VK_D, KeyEvent.VK_RIGHT, KeyEvent.VK_S, KeyEvent.VK_DOWN -> gp.addCommandNum();
+            case KeyEvent.VK_ENTER -> {
+                if (gp.getCommandNum() == 0) {
+                    gp.setGameState(GameState.LEADERBOARD_STATE);
                 }
-            }
-            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> {
-                gp.addCommandNum();
-                if (gp.getCommandNum() > 2) {
-                    gp.setCommandNum(1);
+                if (gp.getCommandNum() == 1) {
+                    gp.setGameState(GameState.RECENT_MATCHES_STATE);
+                }
+                if (gp.getCommandNum() == 2) {
+                    gp.setGameState(GameState.TITLE_STATE);
                 }
             }
+            case KeyEvent.VK_ESCAPE -> gp.setGameState(GameState.TITLE_STATE);
+        }
+    }
+
+    /**
+     * Handles key press events in the leaderboard and recent matches states.
+     *
+     * @param code the key code of the pressed key
+     */
+    private void matchListState(int code) {
+        switch (code) {
+            case KeyEvent.VK_ESCAPE, KeyEvent.VK_ENTER -> gp.setGameState(GameState.STATS_STATE);
+        }
+    }
+
+    /**
+     * Handles key press events in the confirm exit state.
+     *
+     * @param code the key code of the pressed key
+     */
+    private void confirmExitState(int code) {
+        switch (code) {
+            case KeyEvent.VK_W, KeyEvent.VK_UP -> gp.removeCommandNum();
+            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> gp.addCommandNum();
             case KeyEvent.VK_ENTER -> {
                 if (gp.getCommandNum() == 1) {
                     System.exit(0);
@@ -220,7 +245,7 @@ public class KeyHandler implements KeyListener {
      */
     private void pauseState(int code) {
         switch (code) {
-            case KeyEvent.VK_P -> gp.setGameState(GameState.PVP_PLAY_STATE);
+            case KeyEvent.VK_P -> gp.setGameState(gp.getPlayState());
             case KeyEvent.VK_ESCAPE -> gp.setGameState(GameState.MENU_STATE);
         }
     }
@@ -233,28 +258,18 @@ public class KeyHandler implements KeyListener {
     private void menuState(int code) {
         switch (code) {
             case KeyEvent.VK_P -> gp.setGameState(GameState.PAUSE_STATE);
-            case KeyEvent.VK_W, KeyEvent.VK_UP -> {
-                gp.removeCommandNum();
-                if (gp.getCommandNum() < 0) {
-                    gp.setCommandNum(1);
-                }
-            }
-            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> {
-                gp.addCommandNum();
-                if (gp.getCommandNum() > 1) {
-                    gp.setCommandNum(0);
-                }
-            }
+            case KeyEvent.VK_W, KeyEvent.VK_UP -> gp.removeCommandNum();
+            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> gp.addCommandNum();
             case KeyEvent.VK_ENTER -> {
                 if (gp.getCommandNum() == 0) {
-                    gp.setGameState(GameState.PVP_PLAY_STATE);
+                    gp.setGameState(gp.getPlayState());
                 }
                 if (gp.getCommandNum() == 1) {
                     gp.playSE(2);
                     gp.setGameState(GameState.TITLE_STATE);
                 }
             }
-            case KeyEvent.VK_ESCAPE -> gp.setGameState(GameState.PVP_PLAY_STATE);
+            case KeyEvent.VK_ESCAPE -> gp.setGameState(gp.getPlayState());
         }
     }
 
@@ -265,14 +280,20 @@ public class KeyHandler implements KeyListener {
      */
     @Override
     public void keyReleased(KeyEvent e) {
-        if (gp.getGameState().equals(GameState.PVP_PLAY_STATE) || gp.getGameState().equals(GameState.PVC_PLAY_STATE)) {
-            int code = e.getKeyCode();
-            switch (code) {
-                case KeyEvent.VK_W -> leftPlayerUpPressed = false;
-                case KeyEvent.VK_S -> leftPlayerDownPressed = false;
-                case KeyEvent.VK_UP -> rightPlayerUpPressed = false;
-                case KeyEvent.VK_DOWN -> rightPlayerDownPressed = false;
-            }
+        gp.getStateMachine().keyReleased(gp.getGameState(), e.getKeyCode());
+    }
+
+    /**
+     * Handles key release events in the play state.
+     *
+     * @param code the key code of the released key
+     */
+    private void playReleased(int code) {
+        switch (code) {
+            case KeyEvent.VK_W -> leftPlayerUpPressed = false;
+            case KeyEvent.VK_S -> leftPlayerDownPressed = false;
+            case KeyEvent.VK_UP -> rightPlayerUpPressed = false;
+            case KeyEvent.VK_DOWN -> rightPlayerDownPressed = false;
         }
     }
 
@@ -321,6 +342,15 @@ public class KeyHandler implements KeyListener {
         return checkDrawTime;
     }
 
+    /**
+     * Shows or hides the draw time overlay.
+     *
+     * @param checkDrawTime true to show the draw time
+     */
+    public void setCheckDrawTime(boolean checkDrawTime) {
+        this.checkDrawTime = checkDrawTime;
+    }
+
     /**
      * Sets the state of the left player's up movement.
      * This method is intended to be used only in unit tests.
@@ -340,4 +370,24 @@ public class KeyHandler implements KeyListener {
     public void setLeftPlayerDownPressed(boolean leftPlayerDownPressed) {
         this.leftPlayerDownPressed = leftPlayerDownPressed;
     }
+
+    /**
+     * Sets the state of the right player's up movement.
+     * This method is intended to be used only in unit tests.
+     *
+     * @param rightPlayerUpPressed true if the right player's up movement is pressed, false otherwise.
+     */
+    public void setRightPlayerUpPressed(boolean rightPlayerUpPressed) {
+        this.rightPlayerUpPressed = rightPlayerUpPressed;
+    }
+
+    /**
+     * Sets the state of the right player's down movement.
+     * This method is intended to be used only in unit tests.
+     *
+     * @param rightPlayerDownPressed true if the right player's down movement is pressed, false otherwise.
+     */
+    public void setRightPlayerDownPressed(boolean rightPlayerDownPressed) {
+        this.rightPlayerDownPressed = rightPlayerDownPressed;
+    }
 }
@@ -0,0 +1,83 @@
+package loadtest;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The GcTracker class measures the garbage collections during a load test: how many ran, their total time
+ * and the longest one, from the collection notifications of the JVM.
+ */
+class GcTracker {
+    private final AtomicLong collections = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+    private final AtomicLong longestMillis = new AtomicLong();
+    private final NotificationListener listener = (notification, handback) -> {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            long duration = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData())
+                    .getGcInfo().getDuration();
+            collections.incrementAndGet();
+            totalMillis.addAndGet(duration);
+            longestMillis.accumulateAndGet(duration, Math::max);
+        }
+    };
+
+    /**
+     * Starts counting collections.
+     */
+    void start() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter) gc).addNotificationListener(listener, null, null);
+            }
+        }
+    }
+
+    /**
+     * Stops counting collections.
+     */
+    void stop() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) gc).removeNotificationListener(listener);
+                } catch (ListenerNotFoundException e) {
+                    // Not started
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of collections counted.
+     *
+     * @return the collection count
+     */
+    long getCollections() {
+        return collections.get();
+    }
+
+    /**
+     * Returns the total time of the collections counted.
+     *
+     * @return the time in milliseconds
+     */
+    long getTotalMillis() {
+        return totalMillis.get();
+    }
+
+    /**
+     * Returns the time of the longest collection counted.
+     *
+     * @return the time in milliseconds
+     */
+    long getLongestMillis() {
+        return longestMillis.get();
+    }
+}
@@ -0,0 +1,214 @@
+package loadtest;
+
+import entity.DeterministicRandom;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+
+/**
+ * The LoadClients class simulates a range of players from one thread. Every player has its own UDP socket,
+ * sends its paddle input at a fixed rate, now and then pressing another key, and reads the match states
+ * the server sends back. The players send at different points of the input period, and a selector wakes the thread
+ * for arriving states in between, so a few threads can drive thousands of players.
+ */
+public class LoadClients implements Runnable {
+    private static final int LATENCY_SAMPLES = 1 << 16;
+
+    private final int firstPlayer;
+    private final DatagramChannel[] channels;
+    private final Selector selector;
+    private final long inputNanos;
+    private final DeterministicRandom random;
+    private final int[] inputs;
+    private final long[] lastEcho;
+    private final long[] bytesSent;
+    private final long[] bytesReceived;
+    private final long[] statesReceived;
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private final ByteBuffer input = ByteBuffer.allocateDirect(MatchServer.INPUT_SIZE);
+    private final ByteBuffer state = ByteBuffer.allocateDirect(64);
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Opens a socket for every simulated player, connected to the server shard of its match.
+     *
+     * @param firstPlayer the number of the first player
+     * @param servers     the server address of every player of the range
+     * @param inputRate   the inputs sent per second by each player
+     */
+    public LoadClients(int firstPlayer, SocketAddress[] servers, int inputRate) {
+        this.firstPlayer = firstPlayer;
+        inputNanos = 1000000000L / inputRate;
+        random = new DeterministicRandom(firstPlayer);
+        channels = new DatagramChannel[servers.length];
+        inputs = new int[servers.length];
+        lastEcho = new long[servers.length];
+        bytesSent = new long[servers.length];
+        bytesReceived = new long[servers.length];
+        statesReceived = new long[servers.length];
+        try {
+            selector = Selector.open();
+            for (int i = 0; i < servers.length; i++) {
+                channels[i] = DatagramChannel.open();
+                channels[i].bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+                channels[i].connect(servers[i]);
+                channels[i].configureBlocking(false);
+                channels[i].register(selector, SelectionKey.OP_READ, i);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Starts the client thread.
+     */
+    public void start() {
+        running = true;
+        thread = new Thread(this, "Load clients " + firstPlayer);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the client thread, waits for it to finish and closes the sockets.
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join();
+            selector.close();
+            for (DatagramChannel channel : channels) {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Client loop sends the inputs of the players spread over the input period, like players who are not in step,
+     * and reads states in between.
+     */
+    @Override
+    public void run() {
+        // Start at a random point of the period, so the threads do not all send at once
+        long periodStart = System.nanoTime() + random.nextInt((int) inputNanos);
+        int sent = 0;
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                if (now >= periodStart + inputNanos) {
+                    sendInputs(sent, channels.length);
+                    sent = 0;
+                    periodStart = Math.max(periodStart + inputNanos, now - inputNanos);
+                    continue;
+                }
+                int due = now < periodStart ? 0 : (int) ((now - periodStart) * channels.length / inputNanos);
+                if (due > sent) {
+                    sendInputs(sent, due);
+                    sent = due;
+                }
+                selector.select(1);
+                readStates();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Sends the input of a range of players, changing the pressed key of about one in twenty players.
+     */
+    private void sendInputs(int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            if (random.nextInt(20) == 0) {
+                inputs[i] = random.nextInt(3); // None, up or down
+            }
+            input.clear();
+            input.put(MatchServer.INPUT);
+            input.put((byte) inputs[i]);
+            input.putInt(firstPlayer + i);
+            input.putLong(System.nanoTime());
+            input.flip();
+            bytesSent[i] += channels[i].write(input);
+        }
+    }
+
+    /**
+     * Reads every state that arrived and records how long after an input its first state came back.
+     */
+    private void readStates() throws IOException {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            int i = (Integer) key.attachment();
+            int read;
+            state.clear();
+            while ((read = channels[i].read(state)) > 0) {
+                bytesReceived[i] += read;
+                statesReceived[i]++;
+                if (read == MatchServer.STATE_SIZE) {
+                    long echo = state.getLong(MatchServer.STATE_SIZE - 8);
+                    if (echo != lastEcho[i]) {
+                        lastEcho[i] = echo;
+                        latencies[latencyCount++ % LATENCY_SAMPLES] = System.nanoTime() - echo;
+                    }
+                }
+                state.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the bytes each player sent. Read after the clients stopped.
+     *
+     * @return the sent byte counts
+     */
+    public long[] getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * Returns the bytes each player received. Read after the clients stopped.
+     *
+     * @return the received byte counts
+     */
+    public long[] getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * Returns the states each player received. Read after the clients stopped.
+     *
+     * @return the received state counts
+     */
+    public long[] getStatesReceived() {
+        return statesReceived;
+    }
+
+    /**
+     * Returns the times from sending an input until the first state answering it arrived, for the latest inputs.
+     * Read after the clients stopped.
+     *
+     * @return the latencies in nanoseconds
+     */
+    public long[] getLatencies() {
+        long[] samples = new long[Math.min(latencyCount, LATENCY_SAMPLES)];
+        System.arraycopy(latencies, 0, samples, 0, samples.length);
+        return samples;
+    }
+}
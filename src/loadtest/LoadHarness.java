@@ -0,0 +1,124 @@
+package loadtest;
+
+import java.net.SocketAddress;
+import java.util.Arrays;
+
+/**
+ * The LoadHarness class runs a load test of the match server on one machine: server threads simulating headless
+ * matches, and client threads simulating their players, talking over UDP on the loopback interface.
+ * Run it with {@code java loadtest.LoadHarness [players] [seconds] [server threads] [client threads]};
+ * every match holds a full game, so large tests need a larger heap, about 1 MB per match.
+ */
+public class LoadHarness {
+    /**
+     * The ticks simulated per second, which is also the rate players send their inputs at.
+     */
+    public static final int TICK_RATE = 60;
+
+    /**
+     * Runs a load test and reports the results.
+     *
+     * @param players the number of simulated players, two per match
+     * @param seconds the length of the test
+     * @param shards  the number of server threads, which split the matches between them
+     * @param drivers the number of client threads, which split the players between them
+     * @return the report of the test
+     */
+    public static LoadReport run(int players, int seconds, int shards, int drivers) {
+        int matches = (players + 1) / 2;
+        shards = Math.max(1, Math.min(shards, matches));
+        drivers = Math.max(1, Math.min(drivers, players));
+        MatchServer[] servers = new MatchServer[shards];
+        SocketAddress[] serverOfPlayer = new SocketAddress[players];
+        for (int s = 0, firstMatch = 0; s < shards; s++) {
+            int count = matches / shards + (s < matches % shards ? 1 : 0);
+            servers[s] = new MatchServer(firstMatch, count, TICK_RATE);
+            for (int player = 2 * firstMatch; player < Math.min(players, 2 * (firstMatch + count)); player++) {
+                serverOfPlayer[player] = servers[s].getAddress();
+            }
+            firstMatch += count;
+        }
+        LoadClients[] clients = new LoadClients[drivers];
+        for (int d = 0, firstPlayer = 0; d < drivers; d++) {
+            int count = players / drivers + (d < players % drivers ? 1 : 0);
+            clients[d] = new LoadClients(firstPlayer, Arrays.copyOfRange(serverOfPlayer, firstPlayer, firstPlayer + count), TICK_RATE);
+            firstPlayer += count;
+        }
+        GcTracker gc = new GcTracker();
+        gc.start();
+        for (MatchServer server : servers) {
+            server.start();
+        }
+        for (LoadClients client : clients) {
+            client.start();
+        }
+        try {
+            Thread.sleep(seconds * 1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (LoadClients client : clients) {
+            client.stop();
+        }
+        for (MatchServer server : servers) {
+            server.stop();
+        }
+        gc.stop();
+        return report(players, matches, seconds, servers, clients, gc);
+    }
+
+    /**
+     * Collects the measurements of the stopped servers and clients into a report.
+     */
+    private static LoadReport report(int players, int matches, int seconds, MatchServer[] servers, LoadClients[] clients,
+                                     GcTracker gc) {
+        long[] tickTimes = new long[0];
+        long ticks = 0;
+        long matchTicks = 0;
+        long overruns = 0;
+        long droppedTicks = 0;
+        long cpuNanos = 0;
+        for (MatchServer server : servers) {
+            tickTimes = concat(tickTimes, server.getTickTimes());
+            ticks += server.getTickCount();
+            matchTicks += (long) server.getTickCount() * server.getMatchCount();
+            overruns += server.getOverruns();
+            droppedTicks += server.getDroppedTicks();
+            cpuNanos += server.getCpuNanos();
+        }
+        long[] bytesSent = new long[0];
+        long[] bytesReceived = new long[0];
+        long[] statesReceived = new long[0];
+        long[] latencies = new long[0];
+        for (LoadClients client : clients) {
+            bytesSent = concat(bytesSent, client.getBytesSent());
+            bytesReceived = concat(bytesReceived, client.getBytesReceived());
+            statesReceived = concat(statesReceived, client.getStatesReceived());
+            latencies = concat(latencies, client.getLatencies());
+        }
+        return new LoadReport(players, matches, servers.length, seconds, TICK_RATE, tickTimes, ticks, matchTicks, overruns,
+                droppedTicks, cpuNanos, bytesSent, bytesReceived, statesReceived, latencies, gc.getCollections(),
+                gc.getTotalMillis(), gc.getLongestMillis());
+    }
+
+    private static long[] concat(long[] a, long[] b) {
+        long[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    /**
+     * Runs a load test from the command line and prints the report.
+     *
+     * @param args the number of players, the length in seconds, the server threads and the client threads
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int cores = Runtime.getRuntime().availableProcessors();
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int shards = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(1, cores / 2);
+        int drivers = args.length > 3 ? Integer.parseInt(args[3]) : Math.max(1, cores / 2);
+        System.out.print(run(players, seconds, shards, drivers).format());
+    }
+}
@@ -0,0 +1,187 @@
+package loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The LoadReport class sums up a load test: the server tick times, the CPU cost of a match and the number of
+ * matches one core could keep at the tick rate, the traffic of each player, the input latency and the garbage
+ * collections.
+ */
+public class LoadReport {
+    private final int players;
+    private final int matches;
+    private final int shards;
+    private final int seconds;
+    private final int tickRate;
+    private final long[] tickTimes;
+    private final long ticks;
+    private final long matchTicks;
+    private final long overruns;
+    private final long droppedTicks;
+    private final long cpuNanos;
+    private final long[] bytesSent;
+    private final long[] bytesReceived;
+    private final long[] statesReceived;
+    private final long[] latencies;
+    private final long gcCollections;
+    private final long gcMillis;
+    private final long gcLongestMillis;
+
+    /**
+     * Constructs a LoadReport from the measurements of a load test.
+     *
+     * @param players         the number of simulated players
+     * @param matches         the number of matches
+     * @param shards          the number of server threads
+     * @param seconds         the length of the test
+     * @param tickRate        the ticks simulated per second
+     * @param tickTimes       the times of the sampled server ticks in nanoseconds
+     * @param ticks           the number of ticks simulated by all server threads
+     * @param matchTicks      the number of match updates, the ticks of every server thread times its matches
+     * @param overruns        the times a server thread fell more than a tick behind
+     * @param droppedTicks    the ticks skipped by the server threads
+     * @param cpuNanos        the CPU time of the server threads
+     * @param bytesSent       the bytes sent by each player
+     * @param bytesReceived   the bytes received by each player
+     * @param statesReceived  the states received by each player
+     * @param latencies       the sampled times from an input until its first state in nanoseconds
+     * @param gcCollections   the number of garbage collections
+     * @param gcMillis        the total garbage collection time
+     * @param gcLongestMillis the longest garbage collection
+     */
+    public LoadReport(int players, int matches, int shards, int seconds, int tickRate, long[] tickTimes, long ticks,
+                      long matchTicks, long overruns, long droppedTicks, long cpuNanos, long[] bytesSent, long[] bytesReceived,
+                      long[] statesReceived, long[] latencies, long gcCollections, long gcMillis, long gcLongestMillis) {
+        this.players = players;
+        this.matches = matches;
+        this.shards = shards;
+        this.seconds = seconds;
+        this.tickRate = tickRate;
+        this.tickTimes = tickTimes.clone();
+        Arrays.sort(this.tickTimes);
+        this.ticks = ticks;
+        this.matchTicks = matchTicks;
+        this.overruns = overruns;
+        this.droppedTicks = droppedTicks;
+        this.cpuNanos = cpuNanos;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.statesReceived = statesReceived;
+        this.latencies = latencies.clone();
+        Arrays.sort(this.latencies);
+        this.gcCollections = gcCollections;
+        this.gcMillis = gcMillis;
+        this.gcLongestMillis = gcLongestMillis;
+    }
+
+    /**
+     * Returns a percentile of the server tick times.
+     *
+     * @param p the percentile, from 0 to 1
+     * @return the tick time in nanoseconds, 0 if no tick ran
+     */
+    public long getTickTime(double p) {
+        return percentile(tickTimes, p);
+    }
+
+    /**
+     * Returns a percentile of the times from an input until its first state.
+     *
+     * @param p the percentile, from 0 to 1
+     * @return the latency in nanoseconds, 0 if no state answered an input
+     */
+    public long getLatency(double p) {
+        return percentile(latencies, p);
+    }
+
+    /**
+     * Returns the CPU time the server spends on one match in one tick.
+     *
+     * @return the CPU time in nanoseconds, 0 if it could not be measured
+     */
+    public long getCpuPerMatchTick() {
+        return matchTicks == 0 ? 0 : cpuNanos / matchTicks;
+    }
+
+    /**
+     * Returns how many matches one core could simulate at the tick rate, from the CPU time of a match tick.
+     * Network and garbage collection costs outside the server threads are not included.
+     *
+     * @return the sustainable match count per core, 0 if it could not be measured
+     */
+    public long getMatchesPerCore() {
+        long cost = getCpuPerMatchTick();
+        return cost == 0 ? 0 : 1000000000L / tickRate / cost;
+    }
+
+    /**
+     * Returns the number of ticks simulated by all server threads.
+     *
+     * @return the tick count
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the times a server thread fell more than a tick behind.
+     *
+     * @return the overrun count
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Returns the fewest states a player received.
+     *
+     * @return the state count
+     */
+    public long getMinStatesReceived() {
+        return Arrays.stream(statesReceived).min().orElse(0);
+    }
+
+    /**
+     * Returns the most bytes per second a player received.
+     *
+     * @return the download rate in bytes per second
+     */
+    public long getMaxDownloadRate() {
+        return Arrays.stream(bytesReceived).max().orElse(0) / seconds;
+    }
+
+    /**
+     * Formats the report for the console.
+     *
+     * @return the report text
+     */
+    public String format() {
+        long budget = 1000000000L / tickRate;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Load test: %d players in %d matches on %d server threads for %d s at %d ticks per second%n",
+                players, matches, shards, seconds, tickRate));
+        out.append(String.format("Server tick time: p50 %d us, p95 %d us, p99 %d us, max %d us of a %d us budget%n",
+                getTickTime(0.50) / 1000, getTickTime(0.95) / 1000, getTickTime(0.99) / 1000, getTickTime(1) / 1000,
+                budget / 1000));
+        out.append(String.format("Server ticks: %d, fell behind %d times, dropped %d ticks%n", ticks, overruns, droppedTicks));
+        out.append(String.format("Server CPU per match tick: %d ns, about %d matches per core%n",
+                getCpuPerMatchTick(), getMatchesPerCore()));
+        out.append(String.format("Per player upload: average %d B/s, max %d B/s%n",
+                Arrays.stream(bytesSent).sum() / Math.max(1, players) / seconds, Arrays.stream(bytesSent).max().orElse(0) / seconds));
+        out.append(String.format("Per player download: average %d B/s, max %d B/s, fewest states %d of %d ticks%n",
+                Arrays.stream(bytesReceived).sum() / Math.max(1, players) / seconds, getMaxDownloadRate(),
+                getMinStatesReceived(), (long) seconds * tickRate));
+        out.append(String.format("Input to state latency: p50 %d us, p99 %d us, max %d us%n",
+                getLatency(0.50) / 1000, getLatency(0.99) / 1000, getLatency(1) / 1000));
+        out.append(String.format("Garbage collection: %d collections, %d ms in total, longest %d ms%n",
+                gcCollections, gcMillis, gcLongestMillis));
+        return out.toString();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))];
+    }
+}
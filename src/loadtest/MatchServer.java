@@ -0,0 +1,301 @@
+package loadtest;
+
+import entity.Ball;
+import gameGraphics.GamePanel;
+import gameGraphics.GameState;
+import gameGraphics.TickScheduler;
+import keyInputs.KeyHandler;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The MatchServer class is one shard of the load test match server: a thread that simulates a range of headless
+ * player vs player matches and talks to their players over UDP on the loopback interface. Every tick it applies the
+ * inputs received since the previous tick to the key handlers of the matches, simulates each match once and sends
+ * every player the state of its match. Player 2m plays the left paddle of match m and player 2m + 1 the right one.
+ * <p>
+ * An input datagram is the byte {@link #INPUT}, the byte input bits (1 up, 2 down), the int player and the long time
+ * it was sent. A state datagram is the byte {@link #STATE}, the long tick, the int ball X and Y, the int left and
+ * right paddle Y, the int left and right score and the long send time of the latest input of the player.
+ * All values are big-endian.
+ */
+public class MatchServer implements Runnable {
+    /**
+     * The type byte of an input datagram.
+     */
+    public static final byte INPUT = 1;
+    /**
+     * The type byte of a state datagram.
+     */
+    public static final byte STATE = 2;
+    /**
+     * The size of an input datagram.
+     */
+    public static final int INPUT_SIZE = 14;
+    /**
+     * The size of a state datagram.
+     */
+    public static final int STATE_SIZE = 41;
+
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    private static final int TICK_SAMPLES = 1 << 16;
+    private static final int RECEIVE_BUFFER = 4 << 20;
+
+    private final int firstMatch;
+    private final GamePanel[] matches;
+    private final SocketAddress[] players;
+    private final long[] lastInputTime;
+    private final DatagramChannel channel;
+    private final ByteBuffer received = ByteBuffer.allocateDirect(64);
+    private final ByteBuffer state = ByteBuffer.allocateDirect(STATE_SIZE);
+    private final TickScheduler clock;
+    private final long[] tickTimes = new long[TICK_SAMPLES];
+    private int tickCount;
+    private long overruns;
+    private long droppedTicks;
+    private long cpuNanos;
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Creates the matches of the shard and binds its socket to a free port on the loopback interface.
+     *
+     * @param firstMatch the number of the first match of the shard
+     * @param matchCount the number of matches of the shard
+     * @param tickRate   the ticks simulated per second
+     */
+    public MatchServer(int firstMatch, int matchCount, int tickRate) {
+        this.firstMatch = firstMatch;
+        matches = new GamePanel[matchCount];
+        players = new SocketAddress[2 * matchCount];
+        lastInputTime = new long[2 * matchCount];
+        for (int i = 0; i < matchCount; i++) {
+            matches[i] = new GamePanel();
+            matches[i].setSoundEnabled(false);
+            matches[i].setEffectsEnabled(false);
+            matches[i].startMatch(GameState.PVP_PLAY_STATE, firstMatch + i);
+        }
+        clock = new TickScheduler(1000000000L / tickRate, MAX_CATCH_UP_TICKS);
+        try {
+            channel = DatagramChannel.open();
+            // Room for the inputs of every player arriving between two ticks; the system may grant less
+            channel.setOption(StandardSocketOptions.SO_RCVBUF, RECEIVE_BUFFER);
+            channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Starts the server thread.
+     */
+    public void start() {
+        running = true;
+        thread = new Thread(this, "Match server " + firstMatch);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the server thread, waits for it to finish and closes the socket.
+     */
+    public void stop() {
+        running = false;
+        try {
+            thread.join();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Server loop runs the due ticks and sleeps until the next one.
+     */
+    @Override
+    public void run() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        boolean cpuTime = threads.isCurrentThreadCpuTimeSupported();
+        long cpuStart = cpuTime ? threads.getCurrentThreadCpuTime() : 0;
+        clock.start(System.nanoTime());
+        while (running) {
+            int ticks = clock.advance(System.nanoTime());
+            if (ticks == 0) {
+                LockSupport.parkNanos(clock.getTickNanos() - clock.getLag());
+                continue;
+            }
+            if (ticks > 1) {
+                overruns++;
+                droppedTicks += clock.getLastDropped();
+            }
+            for (int i = 0; i < ticks; i++) {
+                long start = System.nanoTime();
+                tick();
+                tickTimes[tickCount++ % TICK_SAMPLES] = System.nanoTime() - start;
+            }
+        }
+        cpuNanos = cpuTime ? threads.getCurrentThreadCpuTime() - cpuStart : 0;
+    }
+
+    /**
+     * Applies the received inputs, simulates every match once and sends the states.
+     */
+    private void tick() {
+        receiveInputs();
+        for (GamePanel match : matches) {
+            match.simulateTick();
+        }
+        for (int player = 0; player < players.length; player++) {
+            if (players[player] != null) {
+                sendState(player);
+            }
+        }
+    }
+
+    /**
+     * Reads every waiting input datagram and presses the keys of its player.
+     */
+    private void receiveInputs() {
+        try {
+            SocketAddress sender;
+            while ((sender = channel.receive(received)) != null) {
+                received.flip();
+                if (received.remaining() == INPUT_SIZE && received.get() == INPUT) {
+                    int inputs = received.get();
+                    int player = received.getInt() - 2 * firstMatch;
+                    long sent = received.getLong();
+                    if (player >= 0 && player < players.length) {
+                        players[player] = sender;
+                        lastInputTime[player] = sent;
+                        KeyHandler keys = matches[player / 2].getKeyHandler();
+                        if (player % 2 == 0) {
+                            keys.setLeftPlayerUpPressed((inputs & 1) != 0);
+                            keys.setLeftPlayerDownPressed((inputs & 2) != 0);
+                        } else {
+                            keys.setRightPlayerUpPressed((inputs & 1) != 0);
+                            keys.setRightPlayerDownPressed((inputs & 2) != 0);
+                        }
+                    }
+                }
+                received.clear();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Sends a player the state of its match.
+     */
+    private void sendState(int player) {
+        GamePanel match = matches[player / 2];
+        Ball ball = match.getBall();
+        state.clear();
+        state.put(STATE);
+        state.putLong(match.getTick());
+        state.putInt(ball.getX());
+        state.putInt(ball.getY());
+        state.putInt(match.getPaddle1().getY());
+        state.putInt(match.getPaddle2().getY());
+        state.putInt(ball.getLeftScore());
+        state.putInt(ball.getRightScore());
+        state.putLong(lastInputTime[player]);
+        state.flip();
+        try {
+            channel.send(state, players[player]); // A full socket buffer drops the datagram, as the network would
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the address the shard listens on.
+     *
+     * @return the socket address
+     */
+    public SocketAddress getAddress() {
+        try {
+            return channel.getLocalAddress();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the number of matches of the shard.
+     *
+     * @return the match count
+     */
+    public int getMatchCount() {
+        return matches.length;
+    }
+
+    /**
+     * Returns a match of the shard.
+     *
+     * @param i the index of the match within the shard
+     * @return the match
+     */
+    public GamePanel getMatch(int i) {
+        return matches[i];
+    }
+
+    /**
+     * Returns the times of the latest ticks, at most {@value #TICK_SAMPLES}. Read after the server stopped.
+     *
+     * @return the tick times in nanoseconds
+     */
+    public long[] getTickTimes() {
+        long[] times = new long[Math.min(tickCount, TICK_SAMPLES)];
+        System.arraycopy(tickTimes, 0, times, 0, times.length);
+        return times;
+    }
+
+    /**
+     * Returns the number of ticks simulated.
+     *
+     * @return the tick count
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Returns the number of times the server fell more than a tick behind.
+     *
+     * @return the overrun count
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Returns the number of ticks skipped because the server fell too far behind.
+     *
+     * @return the dropped tick count
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    /**
+     * Returns the CPU time the server thread used. Read after the server stopped.
+     *
+     * @return the CPU time in nanoseconds, 0 where it cannot be measured
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+}
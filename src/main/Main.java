@@ -1,8 +1,11 @@
 package main;
 
+import assetLoader.AssetLoader;
 import gameGraphics.GamePanel;
+import metrics.MetricsServer;
 
 import javax.swing.*;
+import java.nio.file.Path;
 
 /**
  * The Main class is the entry point of the Pong game application.
@@ -18,11 +21,17 @@ public class Main {
     /**
      * The main method of the application.
      * Initializes the game window, sets up the game panel,
-     * and starts the game thread.
+     * and starts the game thread. With {@code -Dpong.warmup=true} the game code is warmed up before the first frame,
+     * with {@code -Dpong.metricsPort=<port>} the metrics are served at http://localhost:&lt;port&gt;/metrics,
+     * with {@code -Dpong.bot=<file>} an agent sharing that file plays the computer paddle,
+     * and with {@code -Dpong.exitAfterFirstFrame=true} the game exits once the first frame is shown.
      *
      * @param args Command-line arguments (not used).
+     * @throws InterruptedException if interrupted while waiting for the first frame
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
+        // Start loading the assets while the window is being created
+        AssetLoader.start();
         // Create the main window frame
         window = new JFrame();
         window.setResizable(false);
@@ -34,6 +43,13 @@ public class Main {
         window.add(gamePanel);
         // Load the configuration settings
         gamePanel.loadConfig();
+        gamePanel.loadTuning();
+        gamePanel.loadStats();
+        gamePanel.loadHistory();
+        String botFile = System.getProperty("pong.bot");
+        if (botFile != null) {
+            gamePanel.openBotChannel(Path.of(botFile));
+        }
         // Set window to full screen if configured
         if (gamePanel.isFullScreenOn()) {
             window.setUndecorated(true);
@@ -44,6 +60,18 @@ public class Main {
         window.setVisible(true);
         // Set up the game and start the game thread
         gamePanel.setupGame();
+        if (Boolean.getBoolean("pong.warmup")) {
+            gamePanel.warmUp(600);
+        }
+        Integer metricsPort = Integer.getInteger("pong.metricsPort");
+        if (metricsPort != null) {
+            new MetricsServer(metricsPort, gamePanel.getMetrics(), gamePanel::getGameState).start();
+        }
         gamePanel.startGameThread();
+        if (Boolean.getBoolean("pong.exitAfterFirstFrame")) {
+            // Training and measuring runs of the fast start launcher
+            gamePanel.awaitFirstFrame();
+            System.exit(0);
+        }
     }
 }
@@ -0,0 +1,178 @@
+package metrics;
+
+import gameGraphics.GameState;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The GameMetrics class collects the counters and histograms of a running game.
+ * The game threads only update atomic counters; the text export is built on the scraping thread.
+ */
+public class GameMetrics {
+    private static final long MILLISECOND = 1000000L;
+    private static final long[] FRAME_BOUNDS = {MILLISECOND, 2 * MILLISECOND, 4 * MILLISECOND, 8 * MILLISECOND,
+            12 * MILLISECOND, 16 * MILLISECOND, 25 * MILLISECOND, 33 * MILLISECOND, 50 * MILLISECOND, 100 * MILLISECOND};
+    private static final long[] SOUND_BOUNDS = {100000L, 250000L, 500000L, MILLISECOND, 2 * MILLISECOND,
+            5 * MILLISECOND, 10 * MILLISECOND, 25 * MILLISECOND, 50 * MILLISECOND};
+    private static final long[] RALLY_BOUNDS = {0, 1, 2, 3, 5, 8, 13, 21, 34};
+
+    private final Histogram frameTime = new Histogram("pong_frame_time_seconds",
+            "Time to draw and present one frame.", FRAME_BOUNDS, 1e-9);
+    private final Histogram tickLag = new Histogram("pong_tick_lag_seconds",
+            "Time the simulation was behind schedule when a tick started.", FRAME_BOUNDS, 1e-9);
+    private final Histogram soundLatency = new Histogram("pong_sound_trigger_seconds",
+            "Time from a sound effect request until its clip was started.", SOUND_BOUNDS, 1e-9);
+    private final Histogram rallyLength = new Histogram("pong_rally_paddle_hits",
+            "Number of paddle hits in a rally before a goal.", RALLY_BOUNDS, 1);
+    private final AtomicLong leftGoals = new AtomicLong();
+    private final AtomicLong rightGoals = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong droppedScreenshots = new AtomicLong();
+    private final AtomicLong recordedFrames = new AtomicLong();
+    private final Histogram aiSearchTime = new Histogram("pong_ai_search_seconds",
+            "Time the hard computer took to search for a plan.", SOUND_BOUNDS, 1e-9);
+    private final AtomicLong aiSearchCpu = new AtomicLong();
+    private final AtomicLong aiRollouts = new AtomicLong();
+    private final AtomicLong aiSearchesCut = new AtomicLong();
+    private final Overruns overruns = new Overruns(FRAME_BOUNDS);
+
+    /**
+     * Records the time taken to draw and present one frame.
+     *
+     * @param nanos the frame time in nanoseconds
+     */
+    public void observeFrameTime(long nanos) {
+        frameTime.observe(nanos);
+    }
+
+    /**
+     * Records how far the simulation was behind schedule when a tick started.
+     *
+     * @param nanos the lag in nanoseconds
+     */
+    public void observeTickLag(long nanos) {
+        tickLag.observe(nanos);
+    }
+
+    /**
+     * Records the time from a sound effect request until its clip was started.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void observeSoundLatency(long nanos) {
+        soundLatency.observe(nanos);
+    }
+
+    /**
+     * Records a goal and the length of the rally that led to it.
+     *
+     * @param leftScored true if the left player scored, false if the right player scored
+     * @param paddleHits the number of paddle hits in the rally
+     */
+    public void recordGoal(boolean leftScored, int paddleHits) {
+        if (leftScored) {
+            leftGoals.incrementAndGet();
+        } else {
+            rightGoals.incrementAndGet();
+        }
+        rallyLength.observe(paddleHits);
+    }
+
+    /**
+     * Records a recorded frame or screenshot that was dropped because the encoders were busy.
+     *
+     * @param screenshot true for a screenshot, false for a frame of a recording
+     */
+    public void recordDroppedCapture(boolean screenshot) {
+        (screenshot ? droppedScreenshots : droppedFrames).incrementAndGet();
+    }
+
+    /**
+     * Records a finished recording.
+     *
+     * @param frames the number of frames queued for encoding
+     */
+    public void recordRecording(long frames) {
+        recordedFrames.addAndGet(frames);
+    }
+
+    /**
+     * Records a search of the hard computer.
+     *
+     * @param nanos    the time the search took on the simulation thread
+     * @param cpuNanos the CPU time the search used on the pool threads
+     * @param rollouts the number of plans played out
+     * @param cut      true if the budget ran out before every plan was played out
+     */
+    public void recordAiSearch(long nanos, long cpuNanos, long rollouts, boolean cut) {
+        aiSearchTime.observe(nanos);
+        aiSearchCpu.addAndGet(cpuNanos);
+        aiRollouts.addAndGet(rollouts);
+        if (cut) {
+            aiSearchesCut.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the counters of the times the simulation fell behind.
+     *
+     * @return the overruns
+     */
+    public Overruns getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Builds the Prometheus text export of every metric.
+     *
+     * @param gameState the current game state
+     * @return the metrics in the Prometheus text format
+     */
+    public String export(GameState gameState) {
+        StringBuilder out = new StringBuilder(4096);
+        frameTime.write(out);
+        tickLag.write(out);
+        soundLatency.write(out);
+        rallyLength.write(out);
+        overruns.write(out);
+        aiSearchTime.write(out);
+        out.append("# HELP pong_ai_search_cpu_seconds_total CPU time used by the searches of the hard computer.\n");
+        out.append("# TYPE pong_ai_search_cpu_seconds_total counter\n");
+        out.append("pong_ai_search_cpu_seconds_total ").append(aiSearchCpu.get() / 1e9).append('\n');
+        out.append("# HELP pong_ai_rollouts_total Plans played out by the hard computer.\n");
+        out.append("# TYPE pong_ai_rollouts_total counter\n");
+        out.append("pong_ai_rollouts_total ").append(aiRollouts.get()).append('\n');
+        out.append("# HELP pong_ai_searches_cut_total Searches of the hard computer stopped by the time budget.\n");
+        out.append("# TYPE pong_ai_searches_cut_total counter\n");
+        out.append("pong_ai_searches_cut_total ").append(aiSearchesCut.get()).append('\n');
+        out.append("# HELP pong_goals_total Goals scored per side.\n");
+        out.append("# TYPE pong_goals_total counter\n");
+        out.append("pong_goals_total{side=\"left\"} ").append(leftGoals.get()).append('\n');
+        out.append("pong_goals_total{side=\"right\"} ").append(rightGoals.get()).append('\n');
+        out.append("# HELP pong_capture_recorded_frames_total Frames of finished recordings queued for encoding.\n");
+        out.append("# TYPE pong_capture_recorded_frames_total counter\n");
+        out.append("pong_capture_recorded_frames_total ").append(recordedFrames.get()).append('\n');
+        out.append("# HELP pong_capture_dropped_frames_total Recorded frames and screenshots dropped because the encoders were busy.\n");
+        out.append("# TYPE pong_capture_dropped_frames_total counter\n");
+        out.append("pong_capture_dropped_frames_total{kind=\"recording\"} ").append(droppedFrames.get()).append('\n');
+        out.append("pong_capture_dropped_frames_total{kind=\"screenshot\"} ").append(droppedScreenshots.get()).append('\n');
+        out.append("# HELP pong_game_state The current game state, 1 for the active state.\n");
+        out.append("# TYPE pong_game_state gauge\n");
+        for (GameState state : GameState.values()) {
+            out.append("pong_game_state{state=\"").append(state.name()).append("\"} ").append(state == gameState ? 1 : 0).append('\n');
+        }
+        out.append("# HELP pong_gc_collections_total Garbage collections per collector.\n");
+        out.append("# TYPE pong_gc_collections_total counter\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            out.append("pong_gc_collections_total{gc=\"").append(gc.getName()).append("\"} ").append(Math.max(0, gc.getCollectionCount())).append('\n');
+        }
+        out.append("# HELP pong_gc_pause_seconds_total Time spent in garbage collection per collector.\n");
+        out.append("# TYPE pong_gc_pause_seconds_total counter\n");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            out.append("pong_gc_pause_seconds_total{gc=\"").append(gc.getName()).append("\"} ").append(Math.max(0, gc.getCollectionTime()) / 1000.0).append('\n');
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The Histogram class counts observations in fixed buckets and exports them in the Prometheus text format.
+ * Observing only updates atomic counters, so it never blocks or allocates on the game threads.
+ */
+public class Histogram {
+    private final String name;
+    private final String help;
+    private final long[] bounds;
+    private final double scale;
+    private final AtomicLongArray buckets;
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Constructs a Histogram with the given bucket upper bounds.
+     *
+     * @param name   the metric name
+     * @param help   the help text of the metric
+     * @param bounds the inclusive upper bounds of the buckets in ascending order, in the unit of the observations
+     * @param scale  the factor converting observations to the exported unit, for example 1e-9 for nanoseconds to seconds
+     */
+    public Histogram(String name, String help, long[] bounds, double scale) {
+        this.name = name;
+        this.help = help;
+        this.bounds = bounds.clone();
+        this.scale = scale;
+        buckets = new AtomicLongArray(bounds.length + 1);
+    }
+
+    /**
+     * Records one observation.
+     *
+     * @param value the observed value
+     */
+    public void observe(long value) {
+        int i = 0;
+        while (i < bounds.length && value > bounds[i]) {
+            i++;
+        }
+        buckets.incrementAndGet(i);
+        sum.addAndGet(value);
+        count.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of observations.
+     *
+     * @return the observation count
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Appends the histogram with cumulative buckets in the Prometheus text format.
+     *
+     * @param out the builder to append to
+     */
+    void write(StringBuilder out) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" histogram\n");
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += buckets.get(i);
+            appendScaled(out.append(name).append("_bucket{le=\""), bounds[i]).append("\"} ").append(cumulative).append('\n');
+        }
+        cumulative += buckets.get(bounds.length);
+        out.append(name).append("_bucket{le=\"+Inf\"} ").append(cumulative).append('\n');
+        appendScaled(out.append(name).append("_sum "), sum.get()).append('\n');
+        out.append(name).append("_count ").append(cumulative).append('\n');
+    }
+
+    /**
+     * Appends a value in the exported unit; unscaled values are appended as integers.
+     */
+    private StringBuilder appendScaled(StringBuilder out, long value) {
+        return scale == 1 ? out.append(value) : out.append(value * scale);
+    }
+}
@@ -0,0 +1,324 @@
+package metrics;
+
+import gameGraphics.GameState;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * The HitchRecorder class is a black box of the last seconds of the game. The simulation thread records every tick
+ * and the render thread every frame into fixed-size rings of primitive arrays, so recording allocates nothing.
+ * When a frame or a stall exceeds the hitch budget, or on demand, a background thread writes the last
+ * {@value #WINDOW_SECONDS} seconds of both rings to a file in the hitch directory, keeping the newest
+ * {@value #MAX_FILES} files.
+ * <p>
+ * The file is big-endian: the int magic "HTCH", the short version 1, the byte trigger reason, the long trigger time
+ * from System.nanoTime, the long wall clock time in milliseconds, the int tick and frame record counts, the tick records
+ * and then the frame records. A tick record is the long start time, the int update and lag times in nanoseconds,
+ * the byte game state, the byte input bits (left up, left down, right up, right down), the short ball X and Y,
+ * the byte ball X and Y speeds and the int garbage collection count. A frame record is the long start time,
+ * the int draw and present times in nanoseconds, the byte render level and the short number of repainted regions,
+ * -1 for a full frame.
+ */
+public class HitchRecorder {
+    /**
+     * Why the recorder was dumped.
+     */
+    public enum Reason {
+        FRAME_BUDGET,
+        TICK_OVERRUN,
+        MANUAL
+    }
+
+    /**
+     * The number of seconds written to a dump.
+     */
+    public static final int WINDOW_SECONDS = 10;
+
+    private static final int CAPACITY = 4096;
+    private static final int MAGIC = 0x48544348;
+    private static final long WINDOW = WINDOW_SECONDS * 1000000000L;
+    private static final long COOLDOWN = 10 * 1000000000L;
+    private static final int MAX_FILES = 20;
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path directory;
+    private final GarbageCollectorMXBean[] collectors;
+    private final long[] tickTime = new long[CAPACITY];
+    private final int[] tickUpdate = new int[CAPACITY];
+    private final int[] tickLag = new int[CAPACITY];
+    private final byte[] tickState = new byte[CAPACITY];
+    private final byte[] tickInputs = new byte[CAPACITY];
+    private final short[] ballX = new short[CAPACITY];
+    private final short[] ballY = new short[CAPACITY];
+    private final byte[] ballXSpeed = new byte[CAPACITY];
+    private final byte[] ballYSpeed = new byte[CAPACITY];
+    private final int[] tickGc = new int[CAPACITY];
+    private final AtomicLongArray tickSequence = new AtomicLongArray(CAPACITY);
+    private volatile long ticks;
+    private final long[] frameTime = new long[CAPACITY];
+    private final int[] frameDraw = new int[CAPACITY];
+    private final int[] framePresent = new int[CAPACITY];
+    private final byte[] frameLevel = new byte[CAPACITY];
+    private final short[] frameRegions = new short[CAPACITY];
+    private final AtomicLongArray frameSequence = new AtomicLongArray(CAPACITY);
+    private volatile long frames;
+    private volatile Reason pendingReason;
+    private volatile long pendingTime;
+    private volatile long lastDump;
+    private volatile Path lastFile;
+    private volatile Reason lastReason;
+    private Thread dumper;
+
+    /**
+     * Constructs a HitchRecorder. The dump thread is started on the first dump.
+     *
+     * @param directory the directory receiving the dump files
+     */
+    public HitchRecorder(Path directory) {
+        this.directory = directory;
+        lastDump = System.nanoTime() - COOLDOWN;
+        collectors = ManagementFactory.getGarbageCollectorMXBeans().toArray(new GarbageCollectorMXBean[0]);
+        for (int i = 0; i < CAPACITY; i++) {
+            tickSequence.set(i, -1);
+            frameSequence.set(i, -1);
+        }
+    }
+
+    /**
+     * Records a simulation tick. Only called by the simulation thread.
+     *
+     * @param start       the time the tick started, from System.nanoTime
+     * @param updateNanos the time the update took
+     * @param lagNanos    how far the tick was behind schedule
+     * @param state       the game state
+     * @param inputs      the pressed keys as bits: 1 left up, 2 left down, 4 right up, 8 right down
+     * @param x           the ball X-coordinate
+     * @param y           the ball Y-coordinate
+     * @param xSpeed      the ball X speed
+     * @param ySpeed      the ball Y speed
+     */
+    public void recordTick(long start, long updateNanos, long lagNanos, GameState state, int inputs, int x, int y, int xSpeed, int ySpeed) {
+        int slot = (int) (ticks % CAPACITY);
+        tickSequence.set(slot, -1);
+        tickTime[slot] = start;
+        tickUpdate[slot] = (int) Math.min(Integer.MAX_VALUE, updateNanos);
+        tickLag[slot] = (int) Math.min(Integer.MAX_VALUE, lagNanos);
+        tickState[slot] = (byte) state.ordinal();
+        tickInputs[slot] = (byte) inputs;
+        ballX[slot] = (short) x;
+        ballY[slot] = (short) y;
+        ballXSpeed[slot] = (byte) xSpeed;
+        ballYSpeed[slot] = (byte) ySpeed;
+        long gc = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            gc += Math.max(0, collector.getCollectionCount());
+        }
+        tickGc[slot] = (int) gc;
+        tickSequence.set(slot, ticks++);
+    }
+
+    /**
+     * Records a drawn frame. Only called by the render thread.
+     *
+     * @param start        the time the frame started, from System.nanoTime
+     * @param drawNanos    the time drawing the frame took
+     * @param presentNanos the time presenting the frame took
+     * @param level        the ordinal of the render level
+     * @param regions      the number of repainted regions, or -1 for a full frame
+     */
+    public void recordFrame(long start, long drawNanos, long presentNanos, int level, int regions) {
+        int slot = (int) (frames % CAPACITY);
+        frameSequence.set(slot, -1);
+        frameTime[slot] = start;
+        frameDraw[slot] = (int) Math.min(Integer.MAX_VALUE, drawNanos);
+        framePresent[slot] = (int) Math.min(Integer.MAX_VALUE, presentNanos);
+        frameLevel[slot] = (byte) level;
+        frameRegions[slot] = (short) regions;
+        frameSequence.set(slot, frames++);
+    }
+
+    /**
+     * Asks the dump thread to write the recorded window. Hitches within the cooldown of the previous dump are ignored,
+     * so a burst of slow frames gives one file. Never blocks the calling thread.
+     *
+     * @param reason why the recorder is dumped
+     */
+    public void dump(Reason reason) {
+        long now = System.nanoTime();
+        if (reason != Reason.MANUAL && now - lastDump < COOLDOWN) {
+            return;
+        }
+        lastDump = now;
+        lastReason = reason;
+        pendingTime = now;
+        pendingReason = reason;
+        synchronized (this) {
+            if (dumper == null) {
+                dumper = new Thread(this::dumpLoop, "Hitch dumper");
+                dumper.setDaemon(true);
+                dumper.start();
+            }
+        }
+        LockSupport.unpark(dumper);
+    }
+
+    /**
+     * Dump loop waits for dump requests and writes them.
+     */
+    private void dumpLoop() {
+        while (true) {
+            Reason reason = pendingReason;
+            if (reason == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            pendingReason = null;
+            try {
+                lastFile = write(reason, pendingTime);
+                prune();
+            } catch (IOException e) {
+                System.err.println("Could not write the hitch recording: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deletes the oldest dump files beyond the newest {@value #MAX_FILES}, so repeated hitches cannot fill the disk.
+     * The file names hold the dump time, so they sort from oldest to newest.
+     *
+     * @throws IOException if the directory cannot be listed or a file cannot be deleted
+     */
+    void prune() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> file.getFileName().toString().matches("hitch-.*\\.bin")).sorted().toList();
+        }
+        for (int i = 0; i < files.size() - MAX_FILES; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    /**
+     * Writes the records of the window before a trigger time to a new file.
+     */
+    private Path write(Reason reason, long trigger) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("hitch-" + LocalDateTime.now().format(NAME_FORMAT) + ".bin");
+        // The rings keep being written; a record overwritten while being read is left out
+        long tickEnd = ticks;
+        long frameEnd = frames;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(1);
+            out.writeByte(reason.ordinal());
+            out.writeLong(trigger);
+            out.writeLong(System.currentTimeMillis());
+            ByteArrayOutputStream tickBytes = new ByteArrayOutputStream();
+            int tickCount = writeTicks(new DataOutputStream(tickBytes), tickEnd, trigger);
+            ByteArrayOutputStream frameBytes = new ByteArrayOutputStream();
+            int frameCount = writeFrames(new DataOutputStream(frameBytes), frameEnd, trigger);
+            out.writeInt(tickCount);
+            out.writeInt(frameCount);
+            tickBytes.writeTo(out);
+            frameBytes.writeTo(out);
+        }
+        return file;
+    }
+
+    /**
+     * Writes the tick records of the window, oldest first, and returns how many were written.
+     */
+    private int writeTicks(DataOutputStream out, long end, long trigger) throws IOException {
+        int count = 0;
+        for (long n = Math.max(0, end - CAPACITY + 1); n < end; n++) {
+            int slot = (int) (n % CAPACITY);
+            if (tickSequence.get(slot) != n) {
+                continue;
+            }
+            long time = tickTime[slot];
+            int update = tickUpdate[slot];
+            int lag = tickLag[slot];
+            byte state = tickState[slot];
+            byte inputs = tickInputs[slot];
+            short x = ballX[slot];
+            short y = ballY[slot];
+            byte xSpeed = ballXSpeed[slot];
+            byte ySpeed = ballYSpeed[slot];
+            int gc = tickGc[slot];
+            if (tickSequence.get(slot) != n || time < trigger - WINDOW) {
+                continue;
+            }
+            out.writeLong(time);
+            out.writeInt(update);
+            out.writeInt(lag);
+            out.writeByte(state);
+            out.writeByte(inputs);
+            out.writeShort(x);
+            out.writeShort(y);
+            out.writeByte(xSpeed);
+            out.writeByte(ySpeed);
+            out.writeInt(gc);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the frame records of the window, oldest first, and returns how many were written.
+     */
+    private int writeFrames(DataOutputStream out, long end, long trigger) throws IOException {
+        int count = 0;
+        for (long n = Math.max(0, end - CAPACITY + 1); n < end; n++) {
+            int slot = (int) (n % CAPACITY);
+            if (frameSequence.get(slot) != n) {
+                continue;
+            }
+            long time = frameTime[slot];
+            int draw = frameDraw[slot];
+            int present = framePresent[slot];
+            byte level = frameLevel[slot];
+            short regions = frameRegions[slot];
+            if (frameSequence.get(slot) != n || time < trigger - WINDOW) {
+                continue;
+            }
+            out.writeLong(time);
+            out.writeInt(draw);
+            out.writeInt(present);
+            out.writeByte(level);
+            out.writeShort(regions);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the latest file written.
+     *
+     * @return the file, or null if nothing was dumped yet
+     */
+    public Path getLastFile() {
+        return lastFile;
+    }
+
+    /**
+     * Returns the reason of the latest dump, counted when it is requested rather than when its file is written.
+     *
+     * @return the reason, or null if nothing was dumped yet
+     */
+    public Reason getLastReason() {
+        return lastReason;
+    }
+}
@@ -0,0 +1,83 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import gameGraphics.GameState;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * The MetricsServer class serves the game metrics at /metrics on the loopback interface for Prometheus to scrape.
+ * Requests are handled on a single daemon thread, so scraping never touches the simulation or render thread.
+ */
+public class MetricsServer {
+    private final HttpServer server;
+    private final GameMetrics metrics;
+    private final Supplier<GameState> gameState;
+
+    /**
+     * Creates a MetricsServer bound to the given port on the loopback address.
+     *
+     * @param port      the port to listen on, or 0 for any free port
+     * @param metrics   the metrics to export
+     * @param gameState supplies the current game state
+     */
+    public MetricsServer(int port, GameMetrics metrics, Supplier<GameState> gameState) {
+        this.metrics = metrics;
+        this.gameState = gameState;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "metrics");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Starts serving requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Answers a scrape with the metrics in the Prometheus text format.
+     *
+     * @param exchange the HTTP exchange
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body = metrics.export(gameState.get()).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+}
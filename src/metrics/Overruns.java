@@ -0,0 +1,176 @@
+package metrics;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The Overruns class counts the times the simulation fell more than a tick behind and finds out why.
+ * Possible causes note when they happen: garbage collections through a notification listener, slow sound starts
+ * and fullscreen switches through the game. When an overrun is recorded, the cause that happened during the stall
+ * is blamed; otherwise a tick that took too long, and otherwise the thread simply was not scheduled in time.
+ */
+public class Overruns {
+    /**
+     * Why the simulation fell behind.
+     */
+    public enum Cause {
+        GC_PAUSE,
+        FULLSCREEN_SWITCH,
+        SOUND,
+        SLOW_TICK,
+        SCHEDULING
+    }
+
+    private static final long SLOW_SOUND = 1000000L;
+
+    private final AtomicLongArray counts = new AtomicLongArray(Cause.values().length);
+    private final AtomicLong droppedTicks = new AtomicLong();
+    private final Histogram stallTime;
+    private volatile long lastGc = Long.MIN_VALUE;
+    private volatile long lastFullscreenSwitch = Long.MIN_VALUE;
+    private volatile long lastSlowSound = Long.MIN_VALUE;
+    private volatile Cause lastCause;
+    private volatile long lastStall;
+    private boolean listening;
+
+    /**
+     * Constructs an Overruns counter.
+     *
+     * @param stallBounds the upper bounds of the stall time histogram buckets in nanoseconds
+     */
+    public Overruns(long[] stallBounds) {
+        stallTime = new Histogram("pong_tick_overrun_seconds",
+                "Time the simulation stalled when it fell more than a tick behind.", stallBounds, 1e-9);
+    }
+
+    /**
+     * Starts listening for garbage collections, so overruns during one are blamed on it.
+     */
+    public synchronized void listenForGc() {
+        if (listening) {
+            return;
+        }
+        listening = true;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+                    if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                        lastGc = System.nanoTime();
+                    }
+                }, null, null);
+            }
+        }
+    }
+
+    /**
+     * Notes the time from a sound effect request until its clip was started, remembered when it was slow enough
+     * to hint at a starved or blocked audio system.
+     *
+     * @param end   the time the clip was started, from System.nanoTime
+     * @param nanos the time from the request until the clip was started
+     */
+    public void noteSound(long end, long nanos) {
+        if (nanos > SLOW_SOUND) {
+            lastSlowSound = end;
+        }
+    }
+
+    /**
+     * Notes that the window switched to or from fullscreen.
+     *
+     * @param time the time of the switch, from System.nanoTime
+     */
+    public void noteFullscreenSwitch(long time) {
+        lastFullscreenSwitch = time;
+    }
+
+    /**
+     * Records an overrun, finding its cause from what happened during the stall.
+     *
+     * @param stallStart  the time the simulation fell behind its schedule, from System.nanoTime
+     * @param now         the time the overrun was noticed
+     * @param longestTick the longest time a tick took in the pass before the stall
+     * @param tickNanos   the time of one tick
+     * @param dropped     the number of ticks skipped instead of simulated
+     * @return the cause the overrun was blamed on
+     */
+    public Cause record(long stallStart, long now, long longestTick, long tickNanos, int dropped) {
+        Cause cause;
+        if (lastGc >= stallStart) {
+            cause = Cause.GC_PAUSE; // The notification arrives after the collection, possibly just after the stall
+        } else if (lastFullscreenSwitch >= stallStart - tickNanos) {
+            cause = Cause.FULLSCREEN_SWITCH;
+        } else if (lastSlowSound >= stallStart && lastSlowSound <= now) {
+            cause = Cause.SOUND;
+        } else if (longestTick > tickNanos) {
+            cause = Cause.SLOW_TICK;
+        } else {
+            cause = Cause.SCHEDULING;
+        }
+        counts.incrementAndGet(cause.ordinal());
+        droppedTicks.addAndGet(dropped);
+        stallTime.observe(now - stallStart);
+        lastStall = now - stallStart;
+        lastCause = cause;
+        return cause;
+    }
+
+    /**
+     * Returns the number of overruns blamed on a cause.
+     *
+     * @param cause the cause
+     * @return the overrun count
+     */
+    public long getCount(Cause cause) {
+        return counts.get(cause.ordinal());
+    }
+
+    /**
+     * Returns the number of ticks skipped instead of simulated.
+     *
+     * @return the dropped tick count
+     */
+    public long getDroppedTicks() {
+        return droppedTicks.get();
+    }
+
+    /**
+     * Returns the cause of the latest overrun.
+     *
+     * @return the cause, or null if there was no overrun yet
+     */
+    public Cause getLastCause() {
+        return lastCause;
+    }
+
+    /**
+     * Returns how long the simulation stalled in the latest overrun.
+     *
+     * @return the stall time in nanoseconds, 0 if there was no overrun yet
+     */
+    public long getLastStall() {
+        return lastStall;
+    }
+
+    /**
+     * Writes the overrun counters and the stall time histogram in the Prometheus text format.
+     *
+     * @param out the builder to append to
+     */
+    void write(StringBuilder out) {
+        out.append("# HELP pong_tick_overruns_total Times the simulation fell more than a tick behind, per cause.\n");
+        out.append("# TYPE pong_tick_overruns_total counter\n");
+        for (Cause cause : Cause.values()) {
+            out.append("pong_tick_overruns_total{cause=\"").append(cause.name()).append("\"} ").append(counts.get(cause.ordinal())).append('\n');
+        }
+        out.append("# HELP pong_dropped_ticks_total Ticks skipped after a stall instead of being simulated.\n");
+        out.append("# TYPE pong_dropped_ticks_total counter\n");
+        out.append("pong_dropped_ticks_total ").append(droppedTicks.get()).append('\n');
+        stallTime.write(out);
+    }
+}
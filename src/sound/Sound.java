@@ -1,79 +1,162 @@
 package sound;
 
+import assetLoader.AssetLoader;
+
 import javax.sound.sampled.*;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.net.URL;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * The Sound class represents sound effects to be used in the game.
+ * The game threads only put the index of an effect and the time of the request in a fixed-size queue of primitives,
+ * which never locks or allocates. A daemon thread decodes every effect into its own clip when it starts, then takes
+ * the requests and restarts their clips, so no game thread waits for the sound card and the clips are only touched
+ * by one thread. A new play of an effect cuts off the previous play of the same effect.
  */
 public class Sound {
-    private Clip clip;
-    private final URL[] soundURL = new URL[5];
-    private FloatControl floatControl;
-    private int volumeScale = 3;
-    private float volume;
+    private static final int QUEUE_SIZE = 16;
 
     /**
-     * Constructor for the Sound class. Initializes sound URLs for various sound effects.
+     * Receives the time every sound effect took from its request until its clip was started.
      */
-    public Sound() {
-        soundURL[0] = getClass().getResource("Choice.wav");
-        soundURL[1] = getClass().getResource("EnterChoice.wav");
-        soundURL[2] = getClass().getResource("Quit.wav");
-        soundURL[3] = getClass().getResource("Bounce.wav");
-        soundURL[4] = getClass().getResource("Goal.wav");
+    public interface StartListener {
+        /**
+         * Called on the sound thread after a clip was started.
+         *
+         * @param end   the time the clip was started, from System.nanoTime
+         * @param nanos the time from the request until the clip was started
+         */
+        void started(long end, long nanos);
     }
 
+    private final Clip[] clips = new Clip[AssetLoader.SOUNDS.length];
+    private final FloatControl[] floatControls = new FloatControl[AssetLoader.SOUNDS.length];
+    // The queue of requested sounds, written by the game threads and read by the sound thread
+    private final int[] requestSound = new int[QUEUE_SIZE];
+    private final long[] requestTime = new long[QUEUE_SIZE];
+    private final AtomicLongArray requestSequence = new AtomicLongArray(QUEUE_SIZE);
+    private final AtomicLong requestHead = new AtomicLong();
+    private long requestTail;
+    private final StartListener listener;
+    private volatile int volumeScale = 3;
+    private volatile boolean unavailable;
+    private volatile Thread player;
+
     /**
-     * Sets the sound file to be played.
+     * Constructs a Sound. No clip is opened until it is started.
      *
-     * @param i The index of the sound URL in the array.
+     * @param listener told how long every sound effect took to start
      */
-    public void setFile(int i) {
-        try {
-            AudioInputStream ais = AudioSystem.getAudioInputStream(soundURL[i]);
-            clip = AudioSystem.getClip();
-            clip.open(ais);
-            floatControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-            checkVolume();
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
-            throw new RuntimeException(e);
+    public Sound(StartListener listener) {
+        this.listener = listener;
+        for (int i = 0; i < QUEUE_SIZE; i++) {
+            requestSequence.set(i, i);
+        }
+    }
+
+    /**
+     * Starts the sound thread, which opens a clip for every sound effect. Called when the game is set up,
+     * or by the first play.
+     */
+    public synchronized void start() {
+        if (player != null) {
+            return;
+        }
+        player = new Thread(this::playLoop, "Sound effects");
+        player.setDaemon(true);
+        player.start();
+    }
+
+    /**
+     * Requests a sound effect, played from the start. Does nothing when the queue is full or no clip could be opened.
+     *
+     * @param i The index of the sound in {@link AssetLoader#SOUNDS}.
+     * @return false if the sound was dropped
+     */
+    public boolean play(int i) {
+        if (unavailable) {
+            return false;
+        }
+        if (player == null) {
+            start();
+        }
+        long time = System.nanoTime();
+        while (true) {
+            long head = requestHead.get();
+            int slot = (int) (head & (QUEUE_SIZE - 1));
+            long sequence = requestSequence.get(slot);
+            if (sequence < head) {
+                return false; // The sound thread is a whole queue behind
+            }
+            if (sequence == head && requestHead.compareAndSet(head, head + 1)) {
+                requestSound[slot] = i;
+                requestTime[slot] = time;
+                requestSequence.set(slot, head + 1);
+                LockSupport.unpark(player);
+                return true;
+            }
         }
     }
 
     /**
-     * Plays the sound.
+     * Sound loop opens the clips, then restarts the clip of every requested sound at the current volume.
      */
-    public void play() {
-        clip.start();
+    private void playLoop() {
+        try {
+            for (int i = 0; i < clips.length; i++) {
+                AudioInputStream ais = AudioSystem.getAudioInputStream(new ByteArrayInputStream(AssetLoader.getBytes(AssetLoader.SOUNDS[i])));
+                clips[i] = AudioSystem.getClip();
+                clips[i].open(ais);
+                floatControls[i] = (FloatControl) clips[i].getControl(FloatControl.Type.MASTER_GAIN);
+            }
+        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException | IllegalArgumentException e) {
+            unavailable = true;
+            System.err.println("Could not open the sound effects, playing without sound: " + e.getMessage());
+            return;
+        }
+        while (!Thread.currentThread().isInterrupted()) {
+            int slot = (int) (requestTail & (QUEUE_SIZE - 1));
+            if (requestSequence.get(slot) != requestTail + 1) {
+                LockSupport.park(this); // Woken by the next request
+                continue;
+            }
+            int i = requestSound[slot];
+            long time = requestTime[slot];
+            requestSequence.set(slot, requestTail + QUEUE_SIZE);
+            requestTail++;
+            floatControls[i].setValue(toDecibels(volumeScale));
+            clips[i].stop();
+            clips[i].setFramePosition(0);
+            clips[i].start();
+            long end = System.nanoTime();
+            listener.started(end, end - time);
+        }
     }
 
     /**
-     * Adjusts the volume based on the volume scale.
+     * Converts a volume scale to the gain of a clip.
+     *
+     * @param volumeScale The volume scale, 0 to 5.
+     * @return The gain in decibels.
      */
-    public void checkVolume() {
+    static float toDecibels(int volumeScale) {
         switch (volumeScale) {
             case 0:
-                volume = -80f;
-                break;
+                return -80f;
             case 1:
-                volume = -20f;
-                break;
+                return -20f;
             case 2:
-                volume = -12f;
-                break;
+                return -12f;
             case 3:
-                volume = -5f;
-                break;
+                return -5f;
             case 4:
-                volume = 1f;
-                break;
-            case 5:
-                volume = 6f;
-                break;
+                return 1f;
+            default:
+                return 6f;
         }
-        floatControl.setValue(volume);
     }
 
     /**
@@ -0,0 +1,312 @@
+package sound;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The Synthesizer class generates the bounce and goal sounds instead of playing them from their files.
+ * A bounce is a short decaying tone pitched by the speed of the ball, a semitone higher for every unit of X speed;
+ * a goal is a rising jingle. The game threads only put the requested sounds in a fixed-size queue of primitives,
+ * which never blocks or allocates. The audio thread takes them, mixes the playing voices from a fixed pool into a
+ * buffer of {@code audioBufferMillis} and writes it to the sound card, so many bounces can overlap.
+ * When every voice is taken, the voice closest to its end makes room for the new sound.
+ */
+public class Synthesizer {
+    /**
+     * The sample rate of the generated sound.
+     */
+    public static final int SAMPLE_RATE = 44100;
+
+    private static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+    private static final int VOICES = 64;
+    private static final int EVENTS = 1024;
+    private static final int TABLE_SIZE = 1024;
+    private static final int MAX_BUFFER_MILLIS = 500;
+    private static final int BOUNCE = 0;
+    private static final int GOAL = 1;
+    private static final int MAX_SPEED = 24;
+    private static final int ATTACK = 64;
+    private static final int BOUNCE_SAMPLES = SAMPLE_RATE * 70 / 1000;
+    private static final int NOTE_SAMPLES = SAMPLE_RATE * 90 / 1000;
+    private static final double BOUNCE_BASE = 220;
+    private static final double[] GOAL_NOTES = {523.25, 659.26, 783.99, 1046.50};
+    private static final float[] SINE = new float[TABLE_SIZE];
+    private static final double[] BOUNCE_STEPS = new double[MAX_SPEED + 1];
+    private static final double[] GOAL_STEPS = new double[GOAL_NOTES.length];
+    private static final float[] GAINS = new float[6];
+
+    static {
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            SINE[i] = (float) Math.sin(2 * Math.PI * i / TABLE_SIZE);
+        }
+        for (int speed = 0; speed <= MAX_SPEED; speed++) {
+            BOUNCE_STEPS[speed] = TABLE_SIZE * BOUNCE_BASE * Math.pow(2, speed / 12.0) / SAMPLE_RATE;
+        }
+        for (int i = 0; i < GOAL_NOTES.length; i++) {
+            GOAL_STEPS[i] = TABLE_SIZE * GOAL_NOTES[i] / SAMPLE_RATE;
+        }
+        for (int scale = 0; scale < GAINS.length; scale++) {
+            GAINS[scale] = scale == 0 ? 0 : (float) Math.pow(10, Sound.toDecibels(scale) / 20);
+        }
+    }
+
+    // The queue of requested sounds, written by the game threads and read by the audio thread
+    private final int[] eventKind = new int[EVENTS];
+    private final int[] eventSpeed = new int[EVENTS];
+    private final AtomicLongArray eventSequence = new AtomicLongArray(EVENTS);
+    private final AtomicLong eventHead = new AtomicLong();
+    private long eventTail;
+    private final AtomicLong droppedSounds = new AtomicLong();
+    // The voices, only used by the audio thread
+    private final int[] voiceKind = new int[VOICES];
+    private final int[] voiceNote = new int[VOICES];
+    private final int[] voicePosition = new int[VOICES];
+    private final int[] voiceLength = new int[VOICES];
+    private final double[] voicePhase = new double[VOICES];
+    private final double[] voiceStep = new double[VOICES];
+    private final boolean[] voiceActive = new boolean[VOICES];
+    private final float[] mix = new float[SAMPLE_RATE * MAX_BUFFER_MILLIS / 1000];
+    private volatile float gain = GAINS[3];
+    private volatile boolean running;
+    private Thread audioThread;
+
+    /**
+     * Constructs a Synthesizer. Nothing is played until it is started.
+     */
+    public Synthesizer() {
+        for (int i = 0; i < EVENTS; i++) {
+            eventSequence.set(i, i);
+        }
+    }
+
+    /**
+     * Opens the sound card and starts the audio thread.
+     *
+     * @param bufferMillis the length of sound generated at once, which is also the latency of a new sound
+     * @throws RuntimeException if no audio line is available
+     */
+    public synchronized void start(int bufferMillis) {
+        if (running) {
+            return;
+        }
+        int frames = SAMPLE_RATE * Math.min(bufferMillis, MAX_BUFFER_MILLIS) / 1000;
+        SourceDataLine line;
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            // Room for two buffers: one playing while the next is generated
+            line.open(FORMAT, frames * FORMAT.getFrameSize() * 2);
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            throw new RuntimeException(e);
+        }
+        line.start();
+        running = true;
+        audioThread = new Thread(() -> play(line, frames), "Sound synthesizer");
+        audioThread.setDaemon(true);
+        audioThread.setPriority(Thread.MAX_PRIORITY);
+        audioThread.start();
+    }
+
+    /**
+     * Stops the audio thread and closes the sound card, waiting for the thread to finish.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            audioThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        audioThread = null;
+    }
+
+    /**
+     * Checks if the audio thread is running.
+     *
+     * @return true if sounds are synthesized
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Audio loop generates one buffer at a time; writing it blocks until the sound card has room, which paces the loop.
+     */
+    private void play(SourceDataLine line, int frames) {
+        byte[] buffer = new byte[frames * FORMAT.getFrameSize()];
+        while (running) {
+            render(buffer, frames);
+            line.write(buffer, 0, buffer.length);
+        }
+        line.stop();
+        line.close();
+    }
+
+    /**
+     * Requests a bounce sound.
+     *
+     * @param xSpeed the X speed of the ball, which sets the pitch
+     */
+    public void bounce(int xSpeed) {
+        request(BOUNCE, Math.min(Math.abs(xSpeed), MAX_SPEED));
+    }
+
+    /**
+     * Requests the goal jingle.
+     */
+    public void goal() {
+        request(GOAL, 0);
+    }
+
+    /**
+     * Puts a sound in the queue, or drops it when the queue is full.
+     */
+    private void request(int kind, int speed) {
+        while (true) {
+            long head = eventHead.get();
+            int slot = (int) (head & (EVENTS - 1));
+            long sequence = eventSequence.get(slot);
+            if (sequence < head) {
+                droppedSounds.incrementAndGet(); // The audio thread is a whole queue behind
+                return;
+            }
+            if (sequence == head && eventHead.compareAndSet(head, head + 1)) {
+                eventKind[slot] = kind;
+                eventSpeed[slot] = speed;
+                eventSequence.set(slot, head + 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Starts the requested sounds and mixes the next frames of every playing voice into 16-bit little-endian samples.
+     * Only called by the audio thread, or by tests in its place.
+     *
+     * @param buffer the buffer receiving the samples
+     * @param frames the number of frames to generate
+     */
+    void render(byte[] buffer, int frames) {
+        startRequested();
+        for (int i = 0; i < frames; i++) {
+            mix[i] = 0;
+        }
+        for (int v = 0; v < VOICES; v++) {
+            if (voiceActive[v]) {
+                mixVoice(v, frames);
+            }
+        }
+        float g = gain * Short.MAX_VALUE / 4; // Leaves headroom for a few overlapping voices before clipping
+        for (int i = 0; i < frames; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, (int) (mix[i] * g)));
+            buffer[2 * i] = (byte) sample;
+            buffer[2 * i + 1] = (byte) (sample >> 8);
+        }
+    }
+
+    /**
+     * Takes every requested sound from the queue and gives it a voice.
+     */
+    private void startRequested() {
+        while (true) {
+            int slot = (int) (eventTail & (EVENTS - 1));
+            if (eventSequence.get(slot) != eventTail + 1) {
+                return;
+            }
+            int kind = eventKind[slot];
+            int speed = eventSpeed[slot];
+            eventSequence.set(slot, eventTail + EVENTS);
+            eventTail++;
+            int v = freeVoice();
+            voiceActive[v] = true;
+            voiceKind[v] = kind;
+            voiceNote[v] = 0;
+            voicePosition[v] = 0;
+            voicePhase[v] = 0;
+            if (kind == BOUNCE) {
+                voiceLength[v] = BOUNCE_SAMPLES;
+                voiceStep[v] = BOUNCE_STEPS[speed];
+            } else {
+                voiceLength[v] = NOTE_SAMPLES;
+                voiceStep[v] = GOAL_STEPS[0];
+            }
+        }
+    }
+
+    /**
+     * Returns a free voice, or the voice closest to its end when every voice is playing.
+     */
+    private int freeVoice() {
+        int closest = 0;
+        int closestLeft = Integer.MAX_VALUE;
+        for (int v = 0; v < VOICES; v++) {
+            if (!voiceActive[v]) {
+                return v;
+            }
+            int left = voiceLength[v] - voicePosition[v]
+                    + (voiceKind[v] == GOAL ? (GOAL_NOTES.length - 1 - voiceNote[v]) * NOTE_SAMPLES : 0);
+            if (left < closestLeft) {
+                closest = v;
+                closestLeft = left;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Adds the next frames of a voice to the mix: a sine tone fading in quickly and out linearly,
+     * moving on to the next note of the jingle when a goal note ends.
+     */
+    private void mixVoice(int v, int frames) {
+        double phase = voicePhase[v];
+        double step = voiceStep[v];
+        int position = voicePosition[v];
+        int length = voiceLength[v];
+        for (int i = 0; i < frames; i++) {
+            if (position == length) {
+                if (voiceKind[v] == GOAL && voiceNote[v] < GOAL_NOTES.length - 1) {
+                    voiceNote[v]++;
+                    step = GOAL_STEPS[voiceNote[v]];
+                    position = 0;
+                } else {
+                    voiceActive[v] = false;
+                    return;
+                }
+            }
+            float envelope = Math.min(1f, (float) position / ATTACK) * (length - position) / length;
+            mix[i] += SINE[(int) phase & (TABLE_SIZE - 1)] * envelope;
+            phase += step;
+            if (phase >= TABLE_SIZE) {
+                phase -= TABLE_SIZE;
+            }
+            position++;
+        }
+        voicePhase[v] = phase;
+        voiceStep[v] = step;
+        voicePosition[v] = position;
+    }
+
+    /**
+     * Sets the volume from a volume scale of the settings.
+     *
+     * @param volumeScale the volume scale, 0 to 5
+     */
+    public void setVolumeScale(int volumeScale) {
+        gain = GAINS[volumeScale];
+    }
+
+    /**
+     * Returns the number of sounds dropped because the queue was full.
+     *
+     * @return the dropped sound count
+     */
+    public long getDroppedSounds() {
+        return droppedSounds.get();
+    }
+}
@@ -0,0 +1,195 @@
+package stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The MatchStats class aggregates the paddle hits, goals, rally lengths and ball speeds of one or more matches.
+ * Every aggregate is updated incrementally from game events and uses constant memory.
+ */
+public class MatchStats {
+    private long matches;
+    private long leftGoals, rightGoals;
+    private long leftHits, rightHits;
+    private long topSpeedHits;
+    private final StreamingStat rallies = new StreamingStat();
+    private final StreamingStat hitSpeeds = new StreamingStat();
+
+    /**
+     * Records a paddle hit.
+     *
+     * @param left     true if the left paddle hit the ball
+     * @param speed    the horizontal speed of the ball after the hit
+     * @param topSpeed true if the ball was already at its maximum speed and could not speed up
+     */
+    public void onPaddleHit(boolean left, int speed, boolean topSpeed) {
+        if (left) {
+            leftHits++;
+        } else {
+            rightHits++;
+        }
+        if (topSpeed) {
+            topSpeedHits++;
+        }
+        hitSpeeds.add(speed);
+    }
+
+    /**
+     * Records a goal and the length of the rally that led to it.
+     *
+     * @param leftScored true if the left player scored
+     * @param paddleHits the number of paddle hits in the rally
+     */
+    public void onGoal(boolean leftScored, int paddleHits) {
+        if (leftScored) {
+            leftGoals++;
+        } else {
+            rightGoals++;
+        }
+        rallies.add(paddleHits);
+    }
+
+    /**
+     * Checks if anything happened in the match.
+     *
+     * @return true if no paddle hit or goal was recorded
+     */
+    public boolean isEmpty() {
+        return leftHits + rightHits + leftGoals + rightGoals == 0;
+    }
+
+    /**
+     * Marks these statistics as one finished match.
+     */
+    public void finishMatch() {
+        matches = 1;
+    }
+
+    /**
+     * Adds the statistics of other matches to these.
+     *
+     * @param other the statistics to merge
+     */
+    public void merge(MatchStats other) {
+        matches += other.matches;
+        leftGoals += other.leftGoals;
+        rightGoals += other.rightGoals;
+        leftHits += other.leftHits;
+        rightHits += other.rightHits;
+        topSpeedHits += other.topSpeedHits;
+        rallies.merge(other.rallies);
+        hitSpeeds.merge(other.hitSpeeds);
+    }
+
+    /**
+     * Returns a copy of these statistics.
+     *
+     * @return the copy
+     */
+    public MatchStats copy() {
+        MatchStats copy = new MatchStats();
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * Returns the number of finished matches.
+     *
+     * @return the match count
+     */
+    public long getMatches() {
+        return matches;
+    }
+
+    /**
+     * Returns the goals scored by the left player.
+     *
+     * @return the left goals
+     */
+    public long getLeftGoals() {
+        return leftGoals;
+    }
+
+    /**
+     * Returns the goals scored by the right player.
+     *
+     * @return the right goals
+     */
+    public long getRightGoals() {
+        return rightGoals;
+    }
+
+    /**
+     * Returns the number of paddle hits of both players.
+     *
+     * @return the paddle hits
+     */
+    public long getPaddleHits() {
+        return leftHits + rightHits;
+    }
+
+    /**
+     * Returns the number of paddle hits while the ball was at its maximum speed.
+     *
+     * @return the top speed hits
+     */
+    public long getTopSpeedHits() {
+        return topSpeedHits;
+    }
+
+    /**
+     * Returns the statistic of the rally lengths in paddle hits.
+     *
+     * @return the rally statistic
+     */
+    public StreamingStat getRallies() {
+        return rallies;
+    }
+
+    /**
+     * Returns the statistic of the ball speeds after paddle hits.
+     *
+     * @return the hit speed statistic
+     */
+    public StreamingStat getHitSpeeds() {
+        return hitSpeeds;
+    }
+
+    /**
+     * Writes the statistics.
+     *
+     * @param out the output to write to
+     * @throws IOException if writing fails
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeLong(matches);
+        out.writeLong(leftGoals);
+        out.writeLong(rightGoals);
+        out.writeLong(leftHits);
+        out.writeLong(rightHits);
+        out.writeLong(topSpeedHits);
+        rallies.write(out);
+        hitSpeeds.write(out);
+    }
+
+    /**
+     * Reads statistics written by {@link #write(DataOutput)}.
+     *
+     * @param in the input to read from
+     * @return the statistics
+     * @throws IOException if reading fails
+     */
+    static MatchStats read(DataInput in) throws IOException {
+        MatchStats stats = new MatchStats();
+        stats.matches = in.readLong();
+        stats.leftGoals = in.readLong();
+        stats.rightGoals = in.readLong();
+        stats.leftHits = in.readLong();
+        stats.rightHits = in.readLong();
+        stats.topSpeedHits = in.readLong();
+        stats.rallies.read(in);
+        stats.hitSpeeds.read(in);
+        return stats;
+    }
+}
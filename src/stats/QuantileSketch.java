@@ -0,0 +1,124 @@
+package stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The QuantileSketch class estimates quantiles of a stream of non-negative values in constant memory.
+ * Values are counted in logarithmic buckets, so every estimate is within two percent of a value in the stream.
+ * Sketches can be merged, which is how match statistics are added to the lifetime statistics.
+ */
+public class QuantileSketch {
+    private static final double ACCURACY = 0.02;
+    private static final double GAMMA = (1 + ACCURACY) / (1 - ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int BUCKETS = 256;
+
+    private final long[] counts = new long[BUCKETS];
+    private long zeroCount;
+    private long count;
+
+    /**
+     * Adds a value to the sketch. Values at or below zero are counted as zero.
+     *
+     * @param value the value to add
+     */
+    public void add(double value) {
+        if (value <= 0) {
+            zeroCount++;
+        } else {
+            int index = (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+            counts[Math.max(0, Math.min(BUCKETS - 1, index))]++;
+        }
+        count++;
+    }
+
+    /**
+     * Estimates the value at the given quantile.
+     *
+     * @param q the quantile between 0 and 1
+     * @return the estimated value, or 0 if the sketch is empty
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) (q * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                return 2 * Math.pow(GAMMA, i) / (GAMMA + 1);
+            }
+        }
+        return 2 * Math.pow(GAMMA, BUCKETS - 1) / (GAMMA + 1);
+    }
+
+    /**
+     * Returns the number of values added.
+     *
+     * @return the value count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Adds the counts of another sketch to this one.
+     *
+     * @param other the sketch to merge
+     */
+    public void merge(QuantileSketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+     * Writes the sketch, storing only the buckets that are in use.
+     *
+     * @param out the output to write to
+     * @throws IOException if writing fails
+     */
+    void write(DataOutput out) throws IOException {
+        int used = 0;
+        for (long c : counts) {
+            if (c != 0) {
+                used++;
+            }
+        }
+        out.writeLong(zeroCount);
+        out.writeShort(used);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                out.writeByte(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a sketch written by {@link #write(DataOutput)}, replacing the counts of this sketch.
+     *
+     * @param in the input to read from
+     * @throws IOException if reading fails
+     */
+    void read(DataInput in) throws IOException {
+        Arrays.fill(counts, 0);
+        zeroCount = in.readLong();
+        count = zeroCount;
+        int used = in.readUnsignedShort();
+        for (int i = 0; i < used; i++) {
+            int index = in.readUnsignedByte();
+            counts[index] = in.readLong();
+            count += counts[index];
+        }
+    }
+}
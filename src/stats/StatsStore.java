@@ -0,0 +1,158 @@
+package stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The StatsStore class keeps the lifetime statistics in an append-only file.
+ * Every finished match appends one record holding the updated lifetime totals, framed as
+ * {@code magic, length, payload, length, magic}. Loading reads only the last record, so it takes the same time
+ * however many matches were played. If the last record is torn, the file is scanned for the last complete one.
+ * Until {@link #load(Path)} is called, or after the file could not be read or written, the statistics are only
+ * kept in memory.
+ */
+public class StatsStore {
+    private static final int MAGIC = 0x53544154; // "STAT"
+    private static final int FRAME = 8;
+
+    private Path file;
+    private long validLength;
+    private volatile MatchStats lifetime = new MatchStats();
+
+    /**
+     * Loads the lifetime statistics from a file and appends to it from now on. A missing file means no matches yet;
+     * an unreadable file is reported and the statistics start empty without being saved.
+     *
+     * @param file the statistics file
+     */
+    public void load(Path file) {
+        this.file = file;
+        lifetime = new MatchStats();
+        validLength = 0;
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (!readLast(channel, size)) {
+                scan(channel, size);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not load the statistics, keeping them in memory only: " + e.getMessage());
+            this.file = null;
+            lifetime = new MatchStats();
+        }
+    }
+
+    /**
+     * Reads the record ending at the end of the file.
+     *
+     * @return true if the last record is complete
+     */
+    private boolean readLast(FileChannel channel, long size) throws IOException {
+        if (size < 2 * FRAME) {
+            return size == 0;
+        }
+        ByteBuffer trailer = read(channel, size - FRAME, FRAME);
+        int length = trailer.getInt();
+        if (trailer.getInt() != MAGIC || length < 0 || length > size - 2 * FRAME) {
+            return false;
+        }
+        long start = size - FRAME - length - FRAME;
+        ByteBuffer header = read(channel, start, FRAME);
+        if (header.getInt() != MAGIC || header.getInt() != length) {
+            return false;
+        }
+        lifetime = parse(read(channel, start + FRAME, length));
+        validLength = size;
+        return true;
+    }
+
+    /**
+     * Scans the records from the start of the file and keeps the last complete one.
+     */
+    private void scan(FileChannel channel, long size) throws IOException {
+        long position = 0;
+        while (position + 2 * FRAME <= size) {
+            ByteBuffer header = read(channel, position, FRAME);
+            int length = header.getInt() == MAGIC ? header.getInt() : -1;
+            if (length < 0 || position + 2 * FRAME + length > size) {
+                break;
+            }
+            ByteBuffer trailer = read(channel, position + FRAME + length, FRAME);
+            if (trailer.getInt() != length || trailer.getInt() != MAGIC) {
+                break;
+            }
+            lifetime = parse(read(channel, position + FRAME, length));
+            position += 2 * FRAME + length;
+        }
+        validLength = position;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + position);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static MatchStats parse(ByteBuffer payload) throws IOException {
+        return MatchStats.read(new DataInputStream(new ByteArrayInputStream(payload.array(), 0, payload.limit())));
+    }
+
+    /**
+     * Adds a finished match to the lifetime statistics and appends the new totals to the file.
+     *
+     * @param match the statistics of the finished match
+     */
+    public void append(MatchStats match) {
+        MatchStats updated = lifetime.copy();
+        updated.merge(match);
+        if (file != null) {
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(MAGIC);
+                out.writeInt(0);
+                updated.write(out);
+                int length = bytes.size() - FRAME;
+                out.writeInt(length);
+                out.writeInt(MAGIC);
+                ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+                record.putInt(4, length);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    channel.truncate(validLength); // Drop a torn record left by a crash
+                    channel.position(validLength);
+                    while (record.hasRemaining()) {
+                        channel.write(record);
+                    }
+                }
+                validLength += record.capacity();
+            } catch (IOException e) {
+                System.err.println("Could not save the statistics, keeping them in memory only: " + e.getMessage());
+                file = null;
+            }
+        }
+        lifetime = updated;
+    }
+
+    /**
+     * Returns the lifetime statistics. The returned object is never modified afterwards.
+     *
+     * @return the lifetime statistics
+     */
+    public MatchStats getLifetime() {
+        return lifetime;
+    }
+}
@@ -0,0 +1,106 @@
+package stats;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The StreamingStat class keeps the count, mean, maximum and a quantile sketch of a stream of values in constant memory.
+ */
+public class StreamingStat {
+    private long count;
+    private double mean;
+    private double max;
+    private final QuantileSketch sketch = new QuantileSketch();
+
+    /**
+     * Adds a value to the statistic.
+     *
+     * @param value the value to add
+     */
+    public void add(double value) {
+        count++;
+        mean += (value - mean) / count;
+        max = Math.max(max, value);
+        sketch.add(value);
+    }
+
+    /**
+     * Adds the values of another statistic to this one.
+     *
+     * @param other the statistic to merge
+     */
+    public void merge(StreamingStat other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        mean += (other.mean - mean) * other.count / total;
+        count = total;
+        max = Math.max(max, other.max);
+        sketch.merge(other.sketch);
+    }
+
+    /**
+     * Returns the number of values added.
+     *
+     * @return the value count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the values.
+     *
+     * @return the mean, or 0 if no values were added
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Returns the largest value.
+     *
+     * @return the maximum, or 0 if no values were added
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Estimates the value at the given quantile.
+     *
+     * @param q the quantile between 0 and 1
+     * @return the estimated value
+     */
+    public double quantile(double q) {
+        return Math.min(max, sketch.quantile(q));
+    }
+
+    /**
+     * Writes the statistic.
+     *
+     * @param out the output to write to
+     * @throws IOException if writing fails
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeDouble(mean);
+        out.writeDouble(max);
+        sketch.write(out);
+    }
+
+    /**
+     * Reads a statistic written by {@link #write(DataOutput)}, replacing the values of this statistic.
+     *
+     * @param in the input to read from
+     * @throws IOException if reading fails
+     */
+    void read(DataInput in) throws IOException {
+        count = in.readLong();
+        mean = in.readDouble();
+        max = in.readDouble();
+        sketch.read(in);
+    }
+}
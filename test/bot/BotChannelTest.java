@@ -0,0 +1,72 @@
+package bot;
+
+import entity.Directions;
+import gameGraphics.GamePanel;
+import gameGraphics.GameState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class BotChannelTest {
+
+    @Test
+    void doesNotWaitWithoutAgent() throws IOException {
+        BotChannel channel = new BotChannel(Files.createTempFile("bot", ".channel"), 800, 450);
+        long start = System.nanoTime();
+        Assertions.assertEquals(Directions.NONE, channel.exchange(1, 2, 3, 4, 5, 6, 7, 8, false));
+        Assertions.assertTrue(System.nanoTime() - start < 100000000L);
+        Assertions.assertFalse(channel.isAttached());
+    }
+
+    @Test
+    void exchangesInLockstep() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("bot", ".channel");
+        BotChannel channel = new BotChannel(file, 800, 450);
+        BotClient client = new BotClient(file);
+        client.attach();
+        Thread agent = new Thread(() -> {
+            // Answers UP for odd ball X-coordinates, DOWN for even ones
+            while (client.awaitObservation(1000000000L)) {
+                client.sendAction(client.getBallX() % 2 == 1 ? Directions.UP : Directions.DOWN);
+            }
+        });
+        agent.start();
+        for (int i = 1; i <= 5000; i++) {
+            Assertions.assertEquals(i % 2 == 1 ? Directions.UP : Directions.DOWN, channel.exchange(i, 0, 0, 0, 0, 0, 0, 0, false));
+        }
+        client.detach();
+        agent.join();
+        Assertions.assertEquals(0, channel.getMissedActions());
+        Assertions.assertEquals(5000, client.getSequence());
+        Assertions.assertEquals(800, client.getScreenWidth());
+    }
+
+    @Test
+    void agentPlaysComputerPaddle() throws IOException, InterruptedException {
+        Path file = Files.createTempFile("bot", ".channel");
+        GamePanel gp = new GamePanel();
+        gp.setSoundEnabled(false);
+        gp.setEffectsEnabled(false);
+        gp.openBotChannel(file);
+        BotClient client = new BotClient(file);
+        client.attach();
+        Thread agent = new Thread(() -> {
+            // Always moves down, so the bot paddle ends at the bottom
+            while (client.awaitObservation(1000000000L)) {
+                client.sendAction(Directions.DOWN);
+            }
+        });
+        agent.start();
+        gp.startMatch(GameState.PVC_PLAY_STATE, 1);
+        for (int i = 0; i < 100; i++) {
+            gp.simulateTick();
+        }
+        client.detach();
+        agent.join();
+        Assertions.assertFalse(client.isOnLeft());
+        Assertions.assertTrue(client.getRightPaddleY() > gp.getScreenHeight() / 2);
+    }
+}
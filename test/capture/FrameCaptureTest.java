@@ -0,0 +1,71 @@
+package capture;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+class FrameCaptureTest {
+
+    @Test
+    void recordsNumberedFrames() throws IOException {
+        Path directory = Files.createTempDirectory("captures");
+        FrameCapture capture = new FrameCapture(80, 45, 4, directory, directory.resolve("screenshots"));
+        BufferedImage frame = new BufferedImage(160, 90, BufferedImage.TYPE_INT_RGB);
+        capture.startRecording();
+        int queued = 0;
+        for (int i = 0; i < 20; i++) {
+            frame.setRGB(i, i, 0xFFFFFF);
+            if (capture.record(frame)) {
+                queued++;
+            }
+            capture.flush(2000);
+        }
+        Assertions.assertEquals(20, capture.stopRecording());
+        Assertions.assertTrue(capture.flush(2000));
+        Assertions.assertEquals(20, queued);
+        Assertions.assertEquals(20, capture.getWritten());
+        capture.record(frame);
+        Assertions.assertEquals(20, capture.getCaptured(), "Frames after stopping are not recorded");
+        try (Stream<Path> sessions = Files.list(directory)) {
+            Path session = sessions.findFirst().orElseThrow();
+            Assertions.assertTrue(Files.exists(session.resolve("frame-000020.png")));
+        }
+    }
+
+    @Test
+    void dropsFramesWhenPoolIsBusy() throws IOException {
+        Path directory = Files.createTempDirectory("captures");
+        FrameCapture capture = new FrameCapture(800, 450, 1, directory, directory.resolve("screenshots"));
+        BufferedImage frame = new BufferedImage(800, 450, BufferedImage.TYPE_INT_RGB);
+        capture.startRecording();
+        for (int i = 0; i < 200; i++) {
+            capture.record(frame);
+        }
+        Assertions.assertEquals(capture.getCaptured(), capture.stopRecording());
+        Assertions.assertTrue(capture.getDropped() > 0);
+        Assertions.assertEquals(capture.getDropped(), capture.getDroppedFrames());
+        Assertions.assertEquals(200, capture.getCaptured() + capture.getDropped());
+        Assertions.assertTrue(capture.flush(5000));
+        Assertions.assertEquals(capture.getCaptured(), capture.getWritten());
+    }
+
+    @Test
+    void screenshot() throws IOException {
+        Path directory = Files.createTempDirectory("captures");
+        FrameCapture capture = new FrameCapture(80, 45, 3, directory, directory.resolve("screenshots"));
+        BufferedImage frame = new BufferedImage(80, 45, BufferedImage.TYPE_INT_RGB);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(capture.screenshot(frame));
+        }
+        Assertions.assertTrue(capture.flush(2000));
+        try (Stream<Path> screenshots = Files.list(directory.resolve("screenshots"))) {
+            Assertions.assertEquals(3, screenshots.count(), "Screenshots of the same millisecond kept");
+        }
+        Assertions.assertEquals(0, capture.getDroppedFrames());
+    }
+}
@@ -0,0 +1,69 @@
+package configLoader;
+
+import gameGraphics.RenderGovernor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+class TuningTest {
+
+    @Test
+    void parse() {
+        Properties properties = new Properties();
+        properties.setProperty("tickRate", "120");
+        properties.setProperty("renderScale", "low");
+        properties.setProperty("aiDifficulty", "HARD");
+        Tuning tuning = Tuning.parse(properties);
+        Assertions.assertEquals(120, tuning.getTickRate());
+        Assertions.assertEquals(RenderGovernor.Level.LOW, tuning.getRenderLevel());
+        Assertions.assertEquals(Tuning.Difficulty.HARD, tuning.getAiDifficulty());
+        Assertions.assertEquals(Tuning.DEFAULTS.getFpsCap(), tuning.getFpsCap());
+    }
+
+    @Test
+    void rejectsInvalidValues() {
+        Properties properties = new Properties();
+        properties.setProperty("tickRate", "1000");
+        properties.setProperty("profiler.metrics", "yes");
+        IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class, () -> Tuning.parse(properties));
+        Assertions.assertTrue(e.getMessage().contains("tickRate"));
+        Assertions.assertTrue(e.getMessage().contains("profiler.metrics"));
+    }
+
+    @Test
+    void reloadsChangedFile() throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("tuning");
+        Path file = directory.resolve("tuning.properties");
+        Files.writeString(file, "tickRate=60\n");
+        TuningWatcher watcher = new TuningWatcher(file);
+        Assertions.assertEquals(60, watcher.load().getTickRate());
+        watcher.start();
+        Files.writeString(file, "tickRate=90\n");
+        Tuning reloaded = null;
+        for (int i = 0; i < 500 && reloaded == null; i++) {
+            Thread.sleep(10);
+            reloaded = watcher.poll();
+        }
+        watcher.stop();
+        Assertions.assertNotNull(reloaded);
+        Assertions.assertEquals(90, reloaded.getTickRate());
+        Assertions.assertNull(watcher.poll());
+    }
+
+    @Test
+    void runsWithoutConfigDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("tuning");
+        TuningWatcher missing = new TuningWatcher(directory.resolve("missing/tuning.properties"));
+        Assertions.assertEquals(Tuning.DEFAULTS.getTickRate(), missing.load().getTickRate());
+        missing.start();
+        missing.stop();
+        Path unreadable = Files.createDirectory(directory.resolve("tuning.properties"));
+        Assertions.assertEquals(Tuning.DEFAULTS.getTickRate(), new TuningWatcher(unreadable).load().getTickRate());
+        Files.delete(unreadable);
+        Files.delete(directory);
+    }
+}
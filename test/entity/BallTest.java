@@ -16,26 +16,49 @@ class BallTest {
 
     @Test
     void getLeftScore() {
-        ball.x = 10;
-        ball.y = 10;
-        ball.ySpeed = 0;
-        ball.xSpeed = -10;
-        player1.x = 10;
-        player1.y = 100;
+        ball.setX(10);
+        ball.setY(10);
+        ball.setYSpeed(0);
+        ball.setXSpeed(-10);
+        player1.setX(10);
+        player1.setY(100);
         ball.update();
         assertEquals(1, ball.getRightScore());
     }
 
     @Test
     void update() {
-        ball.x = 21;
-        ball.y = 10;
-        ball.ySpeed = 0;
-        ball.xSpeed = -10;
-        player1.x = 10;
-        player1.y = 10;
+        ball.setX(21);
+        ball.setY(10);
+        ball.setYSpeed(0);
+        ball.setXSpeed(-10);
+        player1.setX(10);
+        player1.setY(10);
         player1.directions = Directions.UP;
         ball.update();
-        assertEquals(11, ball.xSpeed);
+        assertEquals(11, ball.getXSpeed());
     }
-}
\ No newline at end of file
+
+    @Test
+    void topSpeedHitOnlyWhenNotSpedUp() {
+        boolean[] topSpeed = new boolean[1];
+        GamePanel recording = new GamePanel() {
+            @Override
+            public void recordPaddleHit(boolean left, int speed, boolean top) {
+                topSpeed[0] = top;
+            }
+        };
+        for (int speed : new int[]{Ball.MAX_X_SPEED, Ball.MAX_X_SPEED + 1}) {
+            Player left = new Player(recording, keyH, true);
+            Ball hit = new Ball(recording, left, new Player(recording, keyH, false));
+            hit.setX(21);
+            hit.setY(10);
+            hit.setYSpeed(0);
+            hit.setXSpeed(-speed);
+            left.setX(10);
+            left.setY(10);
+            hit.update();
+            assertEquals(speed > Ball.MAX_X_SPEED, topSpeed[0], "hit at speed " + speed);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package entity;
 
+import configLoader.Tuning;
 import gameGraphics.GamePanel;
+import gameGraphics.GameState;
 import keyInputs.KeyHandler;
 import org.junit.jupiter.api.Test;
 
+import java.util.Properties;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ComputerTest {
@@ -16,21 +20,38 @@ class ComputerTest {
         Player player1 = new Player(gp,keyH,true);
         Ball ball = new Ball(gp, player1, computer);
         gp.setBall(ball);
-        computer.y = 20;
-        computer.x = gp.getWidth() - 20;
-        ball.x = gp.getWidth() -30;
-        ball.y = 50;
-        ball.ySpeed = 0;
-        ball.xSpeed = 5;
+        computer.setY(20);
+        computer.setX(gp.getWidth() - 20);
+        ball.setX(gp.getWidth() -30);
+        ball.setY(50);
+        ball.setYSpeed(0);
+        ball.setXSpeed(5);
         computer.update();
-        assertEquals(19, computer.y);
-        computer.y = 70;
-        computer.x = gp.getWidth() - 20;
-        ball.x = gp.getWidth() -30;
-        ball.y = 50;
-        ball.ySpeed = 0;
-        ball.xSpeed = 5;
+        assertEquals(19, computer.getY());
+        computer.setY(70);
+        computer.setX(gp.getWidth() - 20);
+        ball.setX(gp.getWidth() -30);
+        ball.setY(50);
+        ball.setYSpeed(0);
+        ball.setXSpeed(5);
         computer.update();
-        assertEquals(65, computer.y);
+        assertEquals(65, computer.getY());
+    }
+
+    @Test
+    void hardComputerBeatsIdlePlayer() {
+        GamePanel gp = new GamePanel();
+        gp.setSoundEnabled(false);
+        gp.setEffectsEnabled(false);
+        Properties properties = new Properties();
+        properties.setProperty("aiDifficulty", "HARD");
+        gp.applyTuning(Tuning.parse(properties));
+        gp.startMatch(GameState.PVC_PLAY_STATE, 5);
+        ((Computer) gp.getPaddle2()).setSearchBudget(LookaheadPlanner.UNBUDGETED);
+        for (int i = 0; i < 6000; i++) {
+            gp.simulateTick();
+        }
+        assertEquals(0, gp.getBall().getLeftScore());
+        assertTrue(gp.getBall().getRightScore() > 0);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package entity;
+
+import gameGraphics.GamePanel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeterministicRandomTest {
+
+    @Test
+    void nextLong() {
+        // Reference output of SplitMix64 for seed 42
+        assertEquals(0xBDD732262FEB6E95L, new DeterministicRandom(42).nextLong());
+    }
+
+    @Test
+    void sameSeedSameMatch() {
+        GamePanel gp1 = new GamePanel();
+        GamePanel gp2 = new GamePanel();
+        gp1.setSoundEnabled(false);
+        gp2.setSoundEnabled(false);
+        Ball ball1 = new Ball(gp1, new Computer(gp1, true), new Computer(gp1, false), new Arena(gp1), 7);
+        Ball ball2 = new Ball(gp2, new Computer(gp2, true), new Computer(gp2, false), new Arena(gp2), 7);
+        gp1.setBall(ball1);
+        gp2.setBall(ball2);
+        assertEquals(gp1.getEntityStore().hash(), gp2.getEntityStore().hash());
+        for (int i = 0; i < 100; i++) {
+            ball1.update();
+            ball2.update();
+        }
+        assertEquals(gp1.getEntityStore().hash(), gp2.getEntityStore().hash());
+    }
+}
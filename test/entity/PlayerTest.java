@@ -13,13 +13,13 @@ class PlayerTest {
     @Test
     void update() {
         player.setDefaultValues();
-        player.y = 20;
+        player.setY(20);
         keyH.setLeftPlayerDownPressed(true);
         player.update();
-        Assertions.assertEquals(30, player.y);
+        Assertions.assertEquals(30, player.getY());
         keyH.setLeftPlayerDownPressed(false);
         keyH.setLeftPlayerUpPressed(true);
         player.update();
-        Assertions.assertEquals(20, player.y);
+        Assertions.assertEquals(20, player.getY());
     }
 }
\ No newline at end of file
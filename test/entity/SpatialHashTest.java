@@ -0,0 +1,33 @@
+package entity;
+
+import gameGraphics.GamePanel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialHashTest {
+    GamePanel gp = new GamePanel();
+    SpatialHash spatialHash = new SpatialHash(gp.getEntityStore(), 800, 450, 32);
+
+    @Test
+    void query() {
+        Obstacle near = new Obstacle(gp, 100, 100, 40, 40);
+        Obstacle far = new Obstacle(gp, 600, 300, 16, 32);
+        spatialHash.insert(near);
+        spatialHash.insert(far);
+        assertEquals(1, spatialHash.query(120, 120, 24, 24));
+        assertSame(near, spatialHash.getResult(0));
+        assertEquals(0, spatialHash.query(300, 300, 24, 24));
+    }
+
+    @Test
+    void remove() {
+        MovingObstacle obstacle = new MovingObstacle(gp, 100, 100, 16, 32, 0, 400, 50);
+        spatialHash.insert(obstacle);
+        spatialHash.remove(obstacle);
+        obstacle.update();
+        spatialHash.insert(obstacle);
+        assertEquals(0, spatialHash.query(100, 100, 16, 16));
+        assertEquals(1, spatialHash.query(100, 150, 16, 16));
+    }
+}
@@ -0,0 +1,164 @@
+package gameGraphics;
+
+import assetLoader.AssetLoader;
+import configLoader.Tuning;
+import entity.DeterministicRandom;
+import keyInputs.KeyHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import javax.sound.sampled.AudioSystem;
+import java.awt.image.BufferedImage;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineUnavailableException;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+
+/**
+ * Checks that simulating and drawing a frame of a player vs player or player vs computer match allocates no heap memory
+ * once the game code is warmed up, so the garbage collector never runs in the middle of a rally.
+ * Playing the sound effects is checked too where an audio mixer is available.
+ */
+class AllocationTest {
+    private static final int WARM_UP_FRAMES = 20000;
+    private static final int MEASURED_FRAMES = 3000;
+    private static final int INPUT_INTERVAL = 15;
+    private static final int WARM_UP_SOUNDS = 200;
+    private static final int MEASURED_SOUNDS = 100;
+
+    @Test
+    void playerVsPlayer() {
+        Assertions.assertEquals(0, allocatedBytes(GameState.PVP_PLAY_STATE), "Bytes allocated by PVP frames");
+    }
+
+    @Test
+    void playerVsComputer() {
+        Assertions.assertEquals(0, allocatedBytes(GameState.PVC_PLAY_STATE), "Bytes allocated by PVC frames");
+    }
+
+    @Test
+    void gameLoop() {
+        System.setProperty("java.awt.headless", "true");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        GamePanel gp = new GamePanel();
+        gp.setSoundEnabled(false);
+        Properties properties = new Properties();
+        properties.setProperty("profiler.metrics", "true");
+        properties.setProperty("profiler.hitchBudgetMillis", "0");
+        gp.applyTuning(Tuning.parse(properties));
+        gp.setupOffscreen();
+        gp.setPresentTarget(new BufferedImage(gp.getScreenWidth(), gp.getScreenHeight(), BufferedImage.TYPE_INT_RGB));
+        gp.startMatch(GameState.PVC_PLAY_STATE, 3);
+        gp.setGameState(GameState.PAUSE_STATE);
+        gp.setGameState(GameState.PVC_PLAY_STATE);
+        gp.startClock(0);
+        DeterministicRandom script = new DeterministicRandom(3);
+        runLoop(gp, script, 0, WARM_UP_FRAMES);
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+        long before = threads.getThreadAllocatedBytes(thread);
+        runLoop(gp, script, WARM_UP_FRAMES, MEASURED_FRAMES);
+        Assertions.assertEquals(0, threads.getThreadAllocatedBytes(thread) - before - overhead,
+                "Bytes allocated by the game loop, rendering and presenting");
+    }
+
+    @Test
+    void soundEffects() {
+        Assumptions.assumeTrue(hasMixer(), "No audio mixer to play the sound effects on");
+        System.setProperty("java.awt.headless", "true");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        GamePanel gp = new GamePanel();
+        gp.setSoundEnabled(true);
+        playSounds(gp, WARM_UP_SOUNDS);
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+        long before = threads.getThreadAllocatedBytes(thread);
+        playSounds(gp, MEASURED_SOUNDS);
+        Assertions.assertEquals(0, threads.getThreadAllocatedBytes(thread) - before - overhead,
+                "Bytes allocated by playing sound effects");
+    }
+
+    /**
+     * Runs the game loop with a fake clock and renders and presents a frame after every pass, as the simulation
+     * and render threads do. Every 100th pass falls a tick behind, so the overrun bookkeeping runs too.
+     */
+    private void runLoop(GamePanel gp, DeterministicRandom script, int first, int frames) {
+        KeyHandler keyH = gp.getKeyHandler();
+        long tick = 1000000000L / gp.getFPS();
+        for (int i = first; i < first + frames; i++) {
+            if (i % INPUT_INTERVAL == 0) {
+                int left = script.nextInt(3);
+                keyH.setLeftPlayerUpPressed(left == 1);
+                keyH.setLeftPlayerDownPressed(left == 2);
+            }
+            gp.runDueTicks((i + i / 100 + 1) * tick);
+            gp.renderFrame(System.nanoTime());
+        }
+    }
+
+    /**
+     * Checks if a clip can be opened, which needs an audio mixer.
+     */
+    private static boolean hasMixer() {
+        try {
+            Clip clip = AudioSystem.getClip();
+            clip.close();
+            return true;
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Requests every sound effect in turn through the game, which queues it for the sound thread.
+     */
+    private void playSounds(GamePanel gp, int count) {
+        for (int i = 0; i < count; i++) {
+            gp.playSE(i % AssetLoader.SOUNDS.length, 5);
+        }
+    }
+
+    /**
+     * Plays a scripted match and returns the bytes the current thread allocated during the measured frames.
+     */
+    private long allocatedBytes(GameState mode) {
+        System.setProperty("java.awt.headless", "true");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        GamePanel gp = new GamePanel();
+        gp.setSoundEnabled(false);
+        gp.setupOffscreen();
+        gp.startMatch(mode, 3);
+        gp.setGameState(GameState.PAUSE_STATE);
+        gp.setGameState(mode);
+        DeterministicRandom script = new DeterministicRandom(3);
+        playFrames(gp, script, WARM_UP_FRAMES);
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+        long before = threads.getThreadAllocatedBytes(thread);
+        playFrames(gp, script, MEASURED_FRAMES);
+        return threads.getThreadAllocatedBytes(thread) - before - overhead;
+    }
+
+    /**
+     * Simulates and draws frames while changing the scripted inputs of both players.
+     */
+    private void playFrames(GamePanel gp, DeterministicRandom script, int frames) {
+        KeyHandler keyH = gp.getKeyHandler();
+        for (int i = 0; i < frames; i++) {
+            if (i % INPUT_INTERVAL == 0) {
+                int left = script.nextInt(3);
+                int right = script.nextInt(3);
+                keyH.setLeftPlayerUpPressed(left == 1);
+                keyH.setLeftPlayerDownPressed(left == 2);
+                keyH.setRightPlayerUpPressed(right == 1);
+                keyH.setRightPlayerDownPressed(right == 2);
+            }
+            gp.simulateTick();
+            gp.renderOffscreen();
+        }
+    }
+}
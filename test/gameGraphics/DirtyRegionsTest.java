@@ -0,0 +1,63 @@
+package gameGraphics;
+
+import entity.Obstacle;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class DirtyRegionsTest {
+    GamePanel gp = new GamePanel();
+    ParticleSystem particles = new ParticleSystem(16, 2000000);
+    DirtyRegions dirtyRegions = new DirtyRegions(4, 800, 450);
+    FrameSnapshot snapshot = new FrameSnapshot(4);
+
+    @Test
+    void firstFrameIsFull() {
+        Obstacle obstacle = new Obstacle(gp, 100, 100, 20, 20);
+        collect(obstacle, 0);
+        Assertions.assertTrue(dirtyRegions.isFull());
+        collect(obstacle, 0);
+        Assertions.assertFalse(dirtyRegions.isFull());
+        Assertions.assertEquals(0, dirtyRegions.getCount());
+    }
+
+    @Test
+    void movedEntityCoversBothPositions() {
+        MovingObstacle obstacle = new MovingObstacle(gp);
+        collect(obstacle, 0);
+        obstacle.moveTo(110, 105);
+        collect(obstacle, 0);
+        Assertions.assertFalse(dirtyRegions.isFull());
+        Assertions.assertEquals(1, dirtyRegions.getCount());
+        int[] regions = dirtyRegions.getRegions();
+        Assertions.assertTrue(regions[0] <= 100 && regions[1] <= 100);
+        Assertions.assertTrue(regions[0] + regions[2] >= 130 && regions[1] + regions[3] >= 125);
+    }
+
+    @Test
+    void scoreChangeRepaintsScore() {
+        Obstacle obstacle = new Obstacle(gp, 100, 100, 20, 20);
+        collect(obstacle, 0);
+        collect(obstacle, 1);
+        Assertions.assertFalse(dirtyRegions.isFull());
+        Assertions.assertEquals(1, dirtyRegions.getCount());
+        int[] regions = dirtyRegions.getRegions();
+        Assertions.assertEquals(0, regions[1]);
+    }
+
+    private void collect(Obstacle obstacle, int leftScore) {
+        snapshot.reset(GameState.PVP_PLAY_STATE, leftScore, 0);
+        snapshot.add(obstacle);
+        dirtyRegions.collect(snapshot, particles, false);
+    }
+
+    private static class MovingObstacle extends Obstacle {
+        MovingObstacle(GamePanel gp) {
+            super(gp, 100, 100, 20, 20);
+        }
+
+        void moveTo(int x, int y) {
+            setX(x);
+            setY(y);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package gameGraphics;
+
+import configLoader.Tuning;
+import metrics.HitchRecorder;
+import metrics.Overruns;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+/**
+ * Drives the game loop of a GamePanel with a fake clock and checks how it records falling behind.
+ */
+class GamePanelTest {
+    private static final long TICK = 1000000000L / 60;
+
+    static {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    @Test
+    void recordsOnlyTheStallAfterLongOnScheduleRun() {
+        GamePanel gp = new GamePanel();
+        gp.startClock(0);
+        for (int i = 1; i <= 600; i++) {
+            gp.runDueTicks(i * TICK + 100);
+        }
+        Overruns overruns = gp.getMetrics().getOverruns();
+        Assertions.assertNull(overruns.getLastCause(), "Overrun on schedule");
+        gp.runDueTicks(602 * TICK + 100);
+        Assertions.assertEquals(Overruns.Cause.SCHEDULING, overruns.getLastCause());
+        Assertions.assertEquals(TICK + 100, overruns.getLastStall(), "Stall of one late tick");
+    }
+
+    @Test
+    void countsDroppedTicksInStall() {
+        GamePanel gp = new GamePanel();
+        gp.startClock(0);
+        gp.runDueTicks(TICK);
+        gp.runDueTicks(21 * TICK);
+        Overruns overruns = gp.getMetrics().getOverruns();
+        Assertions.assertEquals(19 * TICK, overruns.getLastStall(), "Stall including dropped ticks");
+        Assertions.assertEquals(15, overruns.getDroppedTicks());
+    }
+
+    @Test
+    void singleLateTickDoesNotDumpHitch() {
+        GamePanel gp = new GamePanel();
+        Properties properties = new Properties();
+        properties.setProperty("profiler.hitchBudgetMillis", "50");
+        gp.applyTuning(Tuning.parse(properties));
+        gp.startClock(0);
+        for (int i = 1; i <= 600; i++) {
+            gp.runDueTicks(i * TICK + 100);
+        }
+        gp.runDueTicks(602 * TICK + TICK / 2);
+        HitchRecorder.Reason reason = gp.getHitchRecorder().getLastReason();
+        Assertions.assertNull(reason, "Hitch dumped for one late tick");
+    }
+
+    @Test
+    void scalesByWholeFactorOnlyWithoutLargeBars() {
+        Assertions.assertEquals(3, GamePanel.wholeScaleFactor(800, 450, 2560, 1440));
+        Assertions.assertEquals(3, GamePanel.wholeScaleFactor(600, 338, 1920, 1080));
+        Assertions.assertEquals(0, GamePanel.wholeScaleFactor(800, 450, 1366, 768), "HIGH on 1366x768");
+        Assertions.assertEquals(0, GamePanel.wholeScaleFactor(600, 338, 800, 450), "LOW in a window");
+        Assertions.assertEquals(0, GamePanel.wholeScaleFactor(800, 450, 640, 360));
+    }
+}
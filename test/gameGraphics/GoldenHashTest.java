@@ -0,0 +1,83 @@
+package gameGraphics;
+
+import entity.DeterministicRandom;
+import keyInputs.KeyHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs seeded, scripted matches headless and compares their state hashes every {@value #HASH_INTERVAL} ticks
+ * against the checked-in golden file, reporting the first tick that differs.
+ * After an intended behavior change, regenerate the file with -Dpong.updateGolden=true.
+ */
+class GoldenHashTest {
+    private static final Path GOLDEN = TestFiles.locate("test/gameGraphics/golden-hashes.txt");
+    private static final GameState[] MODES = {GameState.PVP_PLAY_STATE, GameState.PVC_PLAY_STATE, GameState.ARENA_PLAY_STATE};
+    private static final int MATCHES = 1500;
+    private static final int TICKS = 1200;
+    private static final int HASH_INTERVAL = 60;
+    private static final int INPUT_INTERVAL = 15;
+
+    static {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    @Test
+    void goldenHashes() throws IOException {
+        GamePanel gp = new GamePanel();
+        gp.setSoundEnabled(false);
+        List<String> traces = new ArrayList<>();
+        for (int match = 0; match < MATCHES; match++) {
+            GameState mode = MODES[match % MODES.length];
+            traces.add(match + " " + mode + runMatch(gp, mode, match));
+        }
+        if (Boolean.getBoolean("pong.updateGolden")) {
+            Files.write(GOLDEN, traces);
+            return;
+        }
+        Assertions.assertTrue(Files.exists(GOLDEN), GOLDEN + " is missing, generate it with -Dpong.updateGolden=true");
+        List<String> golden = Files.readAllLines(GOLDEN);
+        Assertions.assertEquals(golden.size(), traces.size(), "Number of golden matches");
+        for (int i = 0; i < traces.size(); i++) {
+            String[] expected = golden.get(i).split(" ");
+            String[] actual = traces.get(i).split(" ");
+            Assertions.assertEquals(expected.length, actual.length, "Number of golden hashes of match " + i);
+            for (int j = 2; j < actual.length; j++) {
+                Assertions.assertEquals(expected[j], actual[j], "Match " + i + " " + actual[1]
+                        + " diverged from the golden trace by tick " + (j - 1) * HASH_INTERVAL);
+            }
+        }
+    }
+
+    /**
+     * Plays one match with scripted inputs derived from the seed and returns its state hashes in hexadecimal,
+     * each preceded by a space.
+     */
+    private String runMatch(GamePanel gp, GameState mode, long seed) {
+        gp.startMatch(mode, seed);
+        KeyHandler keyH = gp.getKeyHandler();
+        DeterministicRandom script = new DeterministicRandom(~seed);
+        StringBuilder trace = new StringBuilder();
+        for (int tick = 0; tick < TICKS; tick++) {
+            if (tick % INPUT_INTERVAL == 0) {
+                int left = script.nextInt(3);
+                int right = script.nextInt(3);
+                keyH.setLeftPlayerUpPressed(left == 1);
+                keyH.setLeftPlayerDownPressed(left == 2);
+                keyH.setRightPlayerUpPressed(right == 1);
+                keyH.setRightPlayerDownPressed(right == 2);
+            }
+            gp.simulateTick();
+            if ((tick + 1) % HASH_INTERVAL == 0) {
+                trace.append(' ').append(Long.toHexString(gp.getStateHash()));
+            }
+        }
+        return trace.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package gameGraphics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ParticleSystemTest {
+    private static final long TICK = 1000000000L / 60;
+    ParticleSystem particles = new ParticleSystem(16, 2000000);
+
+    @Test
+    void spawnBurst() {
+        particles.spawnBurst(100, 100);
+        particles.update(TICK);
+        Assertions.assertEquals(16, particles.getCount());
+        Assertions.assertEquals(24, particles.getDropped());
+    }
+
+    @Test
+    void update() {
+        particles.spawnTrail(100, 100);
+        for (int i = 0; i < 13; i++) {
+            particles.update(TICK);
+        }
+        Assertions.assertEquals(0, particles.getCount());
+    }
+
+    @Test
+    void lifetimeInGameTime() {
+        for (int tickRate : new int[]{30, 60, 240}) {
+            ParticleSystem trail = new ParticleSystem(16, 2000000);
+            trail.spawnTrail(100, 100);
+            long tick = 1000000000L / tickRate;
+            long elapsed = 0;
+            while (elapsed + tick < 190000000L) {
+                trail.update(tick);
+                elapsed += tick;
+            }
+            Assertions.assertEquals(1, trail.getCount(), "trail gone early at " + tickRate + " ticks per second");
+            while (elapsed < 200000000L + tick) {
+                trail.update(tick);
+                elapsed += tick;
+            }
+            Assertions.assertEquals(0, trail.getCount(), "trail left late at " + tickRate + " ticks per second");
+        }
+    }
+}
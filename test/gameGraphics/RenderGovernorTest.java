@@ -0,0 +1,50 @@
+package gameGraphics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RenderGovernorTest {
+    private static final long BUDGET = 16000000;
+
+    @Test
+    void lowersQualityWhenFramesAreSlow() {
+        RenderGovernor governor = new RenderGovernor(BUDGET);
+        governor.setEnabled(true);
+        for (int i = 0; i < 29; i++) {
+            governor.record(BUDGET * 2);
+        }
+        Assertions.assertEquals(RenderGovernor.Level.ULTRA, governor.getLevel());
+        governor.record(BUDGET * 2);
+        Assertions.assertEquals(RenderGovernor.Level.HIGH, governor.getLevel());
+        for (int i = 0; i < 1000; i++) {
+            governor.record(BUDGET * 2);
+        }
+        Assertions.assertEquals(RenderGovernor.Level.MINIMAL, governor.getLevel());
+    }
+
+    @Test
+    void raisesQualityOnlyAfterFramesStayFast() {
+        RenderGovernor governor = new RenderGovernor(BUDGET);
+        governor.setLevel(RenderGovernor.Level.LOW);
+        governor.setEnabled(true);
+        for (int i = 0; i < 299; i++) {
+            governor.record(BUDGET / 4);
+        }
+        Assertions.assertEquals(RenderGovernor.Level.LOW, governor.getLevel());
+        governor.record(BUDGET / 4);
+        Assertions.assertEquals(RenderGovernor.Level.MEDIUM, governor.getLevel());
+        for (int i = 0; i < 300; i++) {
+            governor.record(BUDGET * 3 / 4);
+        }
+        Assertions.assertEquals(RenderGovernor.Level.MEDIUM, governor.getLevel());
+    }
+
+    @Test
+    void disabledKeepsLevel() {
+        RenderGovernor governor = new RenderGovernor(BUDGET);
+        for (int i = 0; i < 1000; i++) {
+            governor.record(BUDGET * 2);
+        }
+        Assertions.assertEquals(RenderGovernor.Level.ULTRA, governor.getLevel());
+    }
+}
@@ -0,0 +1,131 @@
+package gameGraphics;
+
+import entity.DeterministicRandom;
+import keyInputs.KeyHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Draws every menu screen and scripted gameplay frames headless, reports the render time percentiles
+ * and compares each frame against the checked-in reference images.
+ * After an intended visual change, regenerate the images with -Dpong.updateReference=true.
+ */
+class RenderRegressionTest {
+    private static final Path REFERENCE = TestFiles.locate("test/gameGraphics/reference");
+    private static final GameState[] SCREENS = {GameState.TITLE_STATE, GameState.SETTINGS_STATE,
+            GameState.CONTROLS_STATE, GameState.CONFIRM_EXIT_STATE, GameState.CREDITS_STATE, GameState.STATS_STATE,
+            GameState.LEADERBOARD_STATE, GameState.RECENT_MATCHES_STATE};
+    private static final GameState[] MODES = {GameState.PVP_PLAY_STATE, GameState.PVC_PLAY_STATE, GameState.ARENA_PLAY_STATE};
+    private static final int[] CAPTURE_TICKS = {1, 240, 600};
+    private static final long SEED = 7;
+    private static final int INPUT_INTERVAL = 15;
+    private static final int RUNS = 50;
+    private static final int CHANNEL_TOLERANCE = 24;
+    private static final double MAX_DIFFERENT_PIXELS = 0.005;
+
+    private final long[] renderTimes = new long[(SCREENS.length + MODES.length * CAPTURE_TICKS.length + 2) * RUNS];
+    private int renderCount;
+
+    static {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    @Test
+    void framesMatchReferenceImages() throws IOException {
+        GamePanel gp = new GamePanel();
+        gp.setSoundEnabled(false);
+        gp.setEffectsEnabled(false);
+        gp.setupOffscreen();
+        for (GameState screen : SCREENS) {
+            gp.setGameState(GameState.TITLE_STATE);
+            gp.setGameState(screen);
+            check(gp, screen.name().toLowerCase());
+        }
+        for (GameState mode : MODES) {
+            gp.setGameState(GameState.TITLE_STATE);
+            gp.startMatch(mode, SEED);
+            gp.setGameState(GameState.PAUSE_STATE);
+            gp.setGameState(mode);
+            DeterministicRandom script = new DeterministicRandom(SEED);
+            KeyHandler keyH = gp.getKeyHandler();
+            for (int capture : CAPTURE_TICKS) {
+                while (gp.getTick() < capture) {
+                    if (gp.getTick() % INPUT_INTERVAL == 0) {
+                        int left = script.nextInt(3);
+                        int right = script.nextInt(3);
+                        keyH.setLeftPlayerUpPressed(left == 1);
+                        keyH.setLeftPlayerDownPressed(left == 2);
+                        keyH.setRightPlayerUpPressed(right == 1);
+                        keyH.setRightPlayerDownPressed(right == 2);
+                    }
+                    gp.simulateTick();
+                }
+                check(gp, mode.name().toLowerCase() + "-" + capture);
+            }
+        }
+        gp.setGameState(GameState.PAUSE_STATE);
+        check(gp, "pause_state");
+        gp.setGameState(GameState.MENU_STATE);
+        check(gp, "menu_state");
+        long[] times = Arrays.copyOf(renderTimes, renderCount);
+        Arrays.sort(times);
+        System.out.printf("Render time over %d frames: p50 %d us, p95 %d us, p99 %d us, max %d us%n", times.length,
+                percentile(times, 0.50) / 1000, percentile(times, 0.95) / 1000, percentile(times, 0.99) / 1000,
+                times[times.length - 1] / 1000);
+    }
+
+    /**
+     * Renders the current state repeatedly, records the render times and compares the frame to its reference image.
+     */
+    private void check(GamePanel gp, String name) throws IOException {
+        BufferedImage frame = null;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            frame = gp.renderOffscreen();
+            renderTimes[renderCount++] = System.nanoTime() - start;
+        }
+        Path reference = REFERENCE.resolve(name + ".png");
+        if (Boolean.getBoolean("pong.updateReference")) {
+            Files.createDirectories(REFERENCE);
+            ImageIO.write(frame, "png", reference.toFile());
+            return;
+        }
+        Assertions.assertTrue(Files.exists(reference), reference + " is missing, generate it with -Dpong.updateReference=true");
+        BufferedImage expected = ImageIO.read(reference.toFile());
+        Assertions.assertEquals(expected.getWidth(), frame.getWidth(), name + " width");
+        Assertions.assertEquals(expected.getHeight(), frame.getHeight(), name + " height");
+        int different = 0;
+        for (int y = 0; y < frame.getHeight(); y++) {
+            for (int x = 0; x < frame.getWidth(); x++) {
+                if (channelDifference(expected.getRGB(x, y), frame.getRGB(x, y)) > CHANNEL_TOLERANCE) {
+                    different++;
+                }
+            }
+        }
+        double fraction = (double) different / (frame.getWidth() * frame.getHeight());
+        Assertions.assertTrue(fraction <= MAX_DIFFERENT_PIXELS,
+                name + " differs from the reference image in " + different + " pixels");
+    }
+
+    /**
+     * Returns the largest difference of the red, green and blue channels of two pixels.
+     */
+    private static int channelDifference(int a, int b) {
+        int max = 0;
+        for (int shift = 0; shift <= 16; shift += 8) {
+            max = Math.max(max, Math.abs(((a >> shift) & 0xFF) - ((b >> shift) & 0xFF)));
+        }
+        return max;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))];
+    }
+}
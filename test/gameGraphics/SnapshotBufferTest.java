@@ -0,0 +1,21 @@
+package gameGraphics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SnapshotBufferTest {
+    SnapshotBuffer snapshots = new SnapshotBuffer(4);
+
+    @Test
+    void poll() {
+        Assertions.assertNull(snapshots.poll());
+        snapshots.getBack().reset(GameState.TITLE_STATE, 0, 0);
+        snapshots.publish();
+        snapshots.getBack().reset(GameState.PVP_PLAY_STATE, 1, 2);
+        snapshots.publish();
+        FrameSnapshot snapshot = snapshots.poll();
+        Assertions.assertEquals(GameState.PVP_PLAY_STATE, snapshot.getGameState());
+        Assertions.assertEquals(2, snapshot.getRightScore());
+        Assertions.assertNull(snapshots.poll());
+    }
+}
@@ -0,0 +1,38 @@
+package gameGraphics;
+
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Finds the checked-in files of the tests, whatever the working directory of the test run.
+ */
+final class TestFiles {
+    private TestFiles() {
+    }
+
+    /**
+     * Resolves a path under the project directory. The project directory is the nearest directory holding the test
+     * sources, searched upwards from the compiled test classes and then from the working directory.
+     *
+     * @param relative the path relative to the project directory, such as test/gameGraphics/golden-hashes.txt
+     * @return the path
+     * @throws IllegalStateException if the test sources are not found
+     */
+    static Path locate(String relative) {
+        Path start;
+        try {
+            start = Path.of(TestFiles.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException | NullPointerException e) {
+            start = null;
+        }
+        for (Path dir : new Path[]{start, Path.of("").toAbsolutePath()}) {
+            for (; dir != null; dir = dir.getParent()) {
+                if (Files.isDirectory(dir.resolve("test/gameGraphics"))) {
+                    return dir.resolve(relative);
+                }
+            }
+        }
+        throw new IllegalStateException("Test sources not found for " + relative);
+    }
+}
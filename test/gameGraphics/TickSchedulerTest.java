@@ -0,0 +1,36 @@
+package gameGraphics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TickSchedulerTest {
+    private static final long TICK = 1000;
+    TickScheduler clock = new TickScheduler(TICK, 5);
+
+    @Test
+    void runsOneTickPerInterval() {
+        clock.start(0);
+        Assertions.assertEquals(0, clock.advance(500));
+        Assertions.assertEquals(1, clock.advance(1200));
+        Assertions.assertEquals(200, clock.getLag());
+        Assertions.assertEquals(1, clock.advance(2000));
+        Assertions.assertEquals(0, clock.getLastDropped());
+    }
+
+    @Test
+    void catchesUpAfterShortStall() {
+        clock.start(0);
+        Assertions.assertEquals(3, clock.advance(3500));
+        Assertions.assertEquals(0, clock.getLastDropped());
+        Assertions.assertEquals(500, clock.getLag());
+    }
+
+    @Test
+    void dropsTimeAfterLongStall() {
+        clock.start(0);
+        Assertions.assertEquals(5, clock.advance(250300));
+        Assertions.assertEquals(245, clock.getLastDropped());
+        Assertions.assertEquals(300, clock.getLag());
+        Assertions.assertEquals(0, clock.advance(250400), "The dropped time is not caught up later");
+    }
+}
@@ -0,0 +1,172 @@
+package history;
+
+import gameGraphics.GameState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+class MatchHistoryTest {
+
+    @Test
+    void reopenFromIndex() throws IOException {
+        Path directory = Files.createTempDirectory("history");
+        MatchHistory history = new MatchHistory();
+        history.open(directory);
+        for (int i = 0; i < 50; i++) {
+            history.append(match(i));
+        }
+        MatchHistory reopened = new MatchHistory();
+        reopened.open(directory);
+        Assertions.assertEquals(50, reopened.getCount());
+        assertSameMatches(history.getLeaderboard(), reopened.getLeaderboard());
+        assertSameMatches(history.getRecent(), reopened.getRecent());
+        Assertions.assertEquals(49, reopened.getRecent().get(0).getSeed());
+        for (int i = 1; i < reopened.getLeaderboard().size(); i++) {
+            Assertions.assertTrue(MatchHistory.RANKING.compare(reopened.getLeaderboard().get(i - 1), reopened.getLeaderboard().get(i)) <= 0);
+        }
+        deleteAll(directory);
+    }
+
+    @Test
+    void rebuildMissingIndex() throws IOException {
+        Path directory = Files.createTempDirectory("history");
+        MatchHistory history = new MatchHistory();
+        history.open(directory);
+        for (int i = 0; i < 30; i++) {
+            history.append(match(i));
+        }
+        Files.delete(directory.resolve("matches.idx"));
+        MatchHistory rebuilt = new MatchHistory();
+        rebuilt.open(directory);
+        Assertions.assertEquals(30, rebuilt.getCount());
+        assertSameMatches(history.getLeaderboard(), rebuilt.getLeaderboard());
+        rebuilt.append(match(30));
+        MatchHistory reopened = new MatchHistory();
+        reopened.open(directory);
+        Assertions.assertEquals(31, reopened.getCount());
+        Assertions.assertEquals(30, reopened.getRecent().get(0).getSeed());
+        deleteAll(directory);
+    }
+
+    @Test
+    void rankShorterMatchFirstAcrossTickRates() {
+        MatchRecord fast = new MatchRecord(0, GameState.PVP_PLAY_STATE, false, false, 5, 2, 1200, 120, 1);
+        MatchRecord slow = new MatchRecord(0, GameState.PVP_PLAY_STATE, false, false, 5, 2, 900, 60, 2);
+        Assertions.assertEquals(10000, fast.getDurationMillis());
+        Assertions.assertTrue(MatchHistory.RANKING.compare(fast, slow) < 0, "10 s match ranked after 15 s match");
+        ByteBuffer buffer = ByteBuffer.allocate(MatchRecord.SIZE);
+        fast.write(buffer);
+        buffer.flip();
+        Assertions.assertEquals(120, MatchRecord.read(buffer).getTickRate());
+    }
+
+    @Test
+    void skipUnknownMode() throws IOException {
+        Path directory = Files.createTempDirectory("history");
+        MatchHistory history = new MatchHistory();
+        history.open(directory);
+        for (int i = 0; i < 3; i++) {
+            history.append(match(i));
+        }
+        // Mode byte of the second record, after the end time, seed, ticks and scores
+        try (FileChannel channel = FileChannel.open(directory.resolve("matches.log"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), MatchRecord.SIZE + 32);
+        }
+        Files.delete(directory.resolve("matches.idx"));
+        MatchHistory reopened = new MatchHistory();
+        reopened.open(directory);
+        Assertions.assertEquals(3, reopened.getCount());
+        Assertions.assertEquals(2, reopened.getRecent().size());
+        Assertions.assertEquals(2, reopened.getLeaderboard().size());
+        Assertions.assertEquals(GameState.PVP_PLAY_STATE, reopened.getRecent().get(0).getMode());
+        deleteAll(directory);
+    }
+
+    @Test
+    void rerankUnknownLeaderboardMode() throws IOException {
+        Path directory = Files.createTempDirectory("history");
+        MatchHistory history = new MatchHistory();
+        history.open(directory);
+        for (int i = 0; i < 30; i++) {
+            history.append(match(i));
+        }
+        MatchRecord best = history.getLeaderboard().get(0);
+        long bestPosition = best.getSeed(); // The seed of a match is its position in the log
+        try (FileChannel channel = FileChannel.open(directory.resolve("matches.log"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), bestPosition * MatchRecord.SIZE + 32);
+        }
+        MatchHistory reopened = new MatchHistory();
+        reopened.open(directory);
+        Assertions.assertEquals(30, reopened.getCount());
+        Assertions.assertEquals(MatchHistory.LEADERBOARD_SIZE, reopened.getLeaderboard().size());
+        assertSameMatches(history.getLeaderboard().subList(1, MatchHistory.LEADERBOARD_SIZE),
+                reopened.getLeaderboard().subList(0, MatchHistory.LEADERBOARD_SIZE - 1));
+        MatchHistory again = new MatchHistory();
+        again.open(directory);
+        assertSameMatches(reopened.getLeaderboard(), again.getLeaderboard());
+        deleteAll(directory);
+    }
+
+    @Test
+    void storeStableModeCodes() {
+        ByteBuffer buffer = ByteBuffer.allocate(MatchRecord.SIZE);
+        new MatchRecord(0, GameState.ARENA_PLAY_STATE, false, false, 5, 2, 600, 60, 1).write(buffer);
+        Assertions.assertEquals(7, buffer.get(32));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new MatchRecord(0, GameState.PAUSE_STATE, false, false, 5, 2, 600, 60, 1));
+    }
+
+    @Test
+    void keepInMemoryWhenUnwritable() throws IOException {
+        Path notDirectory = Files.createTempFile("history", ".log");
+        MatchHistory history = new MatchHistory();
+        history.open(notDirectory);
+        history.append(match(0));
+        history.append(match(1));
+        Assertions.assertEquals(2, history.getCount());
+        Assertions.assertEquals(1, history.getRecent().get(0).getSeed());
+        Assertions.assertEquals(0, Files.size(notDirectory));
+        Files.delete(notDirectory);
+    }
+
+    @Test
+    void keepInMemoryWhenUnreadable() throws IOException {
+        Path directory = Files.createTempDirectory("history");
+        Files.createDirectory(directory.resolve("matches.log"));
+        MatchHistory history = new MatchHistory();
+        history.open(directory);
+        Assertions.assertEquals(0, history.getCount());
+        history.append(match(0));
+        Assertions.assertEquals(1, history.getLeaderboard().size());
+        Assertions.assertFalse(Files.exists(directory.resolve("matches.idx")));
+        deleteAll(directory);
+    }
+
+    private static MatchRecord match(int seed) {
+        return new MatchRecord(1700000000000L + seed, seed % 2 == 0 ? GameState.PVP_PLAY_STATE : GameState.PVC_PLAY_STATE,
+                false, seed % 2 == 1, seed % 11, (seed * 7) % 5, 600 + seed, 60, seed);
+    }
+
+    private static void assertSameMatches(List<MatchRecord> expected, List<MatchRecord> actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i).getSeed(), actual.get(i).getSeed());
+        }
+    }
+
+    private static void deleteAll(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,18 @@
+package loadtest;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LoadHarnessTest {
+
+    @Test
+    void everyPlayerGetsStates() {
+        LoadReport report = LoadHarness.run(10, 2, 2, 2);
+        Assertions.assertTrue(report.getTicks() > LoadHarness.TICK_RATE);
+        Assertions.assertTrue(report.getMinStatesReceived() > LoadHarness.TICK_RATE / 2);
+        Assertions.assertTrue(report.getMaxDownloadRate() > 0);
+        Assertions.assertTrue(report.getTickTime(0.5) > 0);
+        Assertions.assertTrue(report.getLatency(0.5) > 0);
+        Assertions.assertTrue(report.format().contains("matches per core"));
+    }
+}
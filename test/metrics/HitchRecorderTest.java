@@ -0,0 +1,83 @@
+package metrics;
+
+import gameGraphics.GameState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+class HitchRecorderTest {
+
+    @Test
+    void recordingAllocatesNothing() throws IOException {
+        HitchRecorder recorder = new HitchRecorder(Files.createTempDirectory("hitches"));
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        record(recorder, 20000, 0);
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+        long before = threads.getThreadAllocatedBytes(thread);
+        record(recorder, 5000, 0);
+        Assertions.assertEquals(0, threads.getThreadAllocatedBytes(thread) - before - overhead);
+    }
+
+    @Test
+    void keepsNewestFiles() throws IOException {
+        Path directory = Files.createTempDirectory("hitches");
+        for (int i = 0; i < 25; i++) {
+            Files.createFile(directory.resolve(String.format("hitch-20260101-0000%02d-000.bin", i)));
+        }
+        Files.createFile(directory.resolve("notes.txt"));
+        new HitchRecorder(directory).prune();
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(21, files.count());
+        }
+        Assertions.assertFalse(Files.exists(directory.resolve("hitch-20260101-000004-000.bin")));
+        Assertions.assertTrue(Files.exists(directory.resolve("hitch-20260101-000005-000.bin")));
+    }
+
+    @Test
+    void dumpsLastSeconds() throws IOException, InterruptedException {
+        HitchRecorder recorder = new HitchRecorder(Files.createTempDirectory("hitches"));
+        long start = System.nanoTime() - 20 * 1000000000L;
+        record(recorder, 1200, start); // 20 seconds at 60 ticks and frames per second
+        recorder.dump(HitchRecorder.Reason.MANUAL);
+        Path file = null;
+        for (int i = 0; i < 500 && file == null; i++) {
+            Thread.sleep(10);
+            file = recorder.getLastFile();
+        }
+        Assertions.assertNotNull(file);
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            Assertions.assertEquals(0x48544348, in.readInt());
+            Assertions.assertEquals(1, in.readShort());
+            Assertions.assertEquals(HitchRecorder.Reason.MANUAL.ordinal(), in.readByte());
+            in.readLong();
+            in.readLong();
+            int ticks = in.readInt();
+            int frames = in.readInt();
+            Assertions.assertTrue(ticks >= 599 && ticks <= 601, "Ticks of the last 10 seconds: " + ticks);
+            Assertions.assertEquals(ticks, frames);
+            in.readLong();
+            in.readInt();
+            in.readInt();
+            Assertions.assertEquals(GameState.PVP_PLAY_STATE.ordinal(), in.readByte());
+        }
+    }
+
+    /**
+     * Records ticks and frames 1/60 second apart.
+     */
+    private void record(HitchRecorder recorder, int count, long start) {
+        for (int i = 0; i < count; i++) {
+            long time = start + i * 16666667L;
+            recorder.recordTick(time, 100000, 0, GameState.PVP_PLAY_STATE, i & 15, i % 800, i % 450, 5, -3);
+            recorder.recordFrame(time, 2000000, 500000, 0, i % 5);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package metrics;
+
+import gameGraphics.GameState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+class MetricsServerTest {
+
+    @Test
+    void scrape() throws IOException {
+        GameMetrics metrics = new GameMetrics();
+        metrics.observeFrameTime(3000000);
+        metrics.observeFrameTime(20000000);
+        metrics.recordGoal(true, 4);
+        MetricsServer server = new MetricsServer(0, metrics, () -> GameState.PVC_PLAY_STATE);
+        server.start();
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + "/metrics").openConnection();
+            Assertions.assertEquals(200, connection.getResponseCode());
+            String body;
+            try (InputStream in = connection.getInputStream()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            Assertions.assertTrue(body.contains("pong_frame_time_seconds_bucket{le=\"0.004\"} 1\n"), body);
+            Assertions.assertTrue(body.contains("pong_frame_time_seconds_bucket{le=\"+Inf\"} 2\n"), body);
+            Assertions.assertTrue(body.contains("pong_frame_time_seconds_count 2\n"), body);
+            Assertions.assertTrue(body.contains("pong_rally_paddle_hits_bucket{le=\"5\"} 1\n"), body);
+            Assertions.assertTrue(body.contains("pong_goals_total{side=\"left\"} 1\n"), body);
+            Assertions.assertTrue(body.contains("pong_game_state{state=\"PVC_PLAY_STATE\"} 1\n"), body);
+            Assertions.assertTrue(body.contains("pong_game_state{state=\"TITLE_STATE\"} 0\n"), body);
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package sound;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+class SynthesizerTest {
+    private static final int FRAMES = Synthesizer.SAMPLE_RATE / 20;
+
+    @Test
+    void silentWithoutSounds() {
+        Synthesizer synthesizer = new Synthesizer();
+        byte[] buffer = new byte[FRAMES * 2];
+        synthesizer.render(buffer, FRAMES);
+        for (byte b : buffer) {
+            Assertions.assertEquals(0, b);
+        }
+    }
+
+    @Test
+    void fasterBallBouncesHigher() {
+        int slow = zeroCrossings(3);
+        int fast = zeroCrossings(15);
+        Assertions.assertTrue(slow > 0);
+        // Twelve units of speed is an octave higher
+        Assertions.assertTrue(Math.abs(fast - 2 * slow) <= 2, slow + " and " + fast);
+    }
+
+    @Test
+    void synthesisAllocatesNothing() {
+        Synthesizer synthesizer = new Synthesizer();
+        byte[] buffer = new byte[FRAMES * 2];
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        bounceAndRender(synthesizer, buffer, 2000);
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+        long before = threads.getThreadAllocatedBytes(thread);
+        bounceAndRender(synthesizer, buffer, 500);
+        Assertions.assertEquals(0, threads.getThreadAllocatedBytes(thread) - before - overhead);
+    }
+
+    @Test
+    void dropsSoundsWhenQueueIsFull() {
+        Synthesizer synthesizer = new Synthesizer();
+        for (int i = 0; i < 2000; i++) {
+            synthesizer.bounce(i);
+        }
+        Assertions.assertTrue(synthesizer.getDroppedSounds() > 0);
+        synthesizer.render(new byte[FRAMES * 2], FRAMES);
+        long dropped = synthesizer.getDroppedSounds();
+        synthesizer.bounce(5);
+        Assertions.assertEquals(dropped, synthesizer.getDroppedSounds());
+    }
+
+    /**
+     * Counts the sign changes of the samples of one bounce.
+     */
+    private static int zeroCrossings(int xSpeed) {
+        Synthesizer synthesizer = new Synthesizer();
+        byte[] buffer = new byte[FRAMES * 2];
+        synthesizer.bounce(xSpeed);
+        synthesizer.render(buffer, FRAMES);
+        int crossings = 0;
+        int previous = 0;
+        for (int i = 0; i < FRAMES; i++) {
+            int sample = (buffer[2 * i] & 0xff) | (buffer[2 * i + 1] << 8);
+            if (sample != 0 && previous != 0 && (sample > 0) != (previous > 0)) {
+                crossings++;
+            }
+            if (sample != 0) {
+                previous = sample;
+            }
+        }
+        return crossings;
+    }
+
+    private static void bounceAndRender(Synthesizer synthesizer, byte[] buffer, int buffers) {
+        for (int i = 0; i < buffers; i++) {
+            for (int j = 0; j < 10; j++) {
+                synthesizer.bounce(i + j);
+            }
+            synthesizer.goal();
+            synthesizer.render(buffer, FRAMES);
+        }
+    }
+}
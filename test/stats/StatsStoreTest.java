@@ -0,0 +1,97 @@
+package stats;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+class StatsStoreTest {
+
+    @Test
+    void reloadsLifetimeTotals() throws IOException {
+        Path file = Files.createTempFile("stats", ".dat");
+        Files.delete(file);
+        StatsStore store = new StatsStore();
+        store.load(file);
+        for (int match = 0; match < 20; match++) {
+            store.append(match(match));
+        }
+        StatsStore reloaded = new StatsStore();
+        reloaded.load(file);
+        MatchStats lifetime = reloaded.getLifetime();
+        Assertions.assertEquals(20, lifetime.getMatches());
+        Assertions.assertEquals(store.getLifetime().getPaddleHits(), lifetime.getPaddleHits());
+        Assertions.assertEquals(store.getLifetime().getRallies().getMean(), lifetime.getRallies().getMean(), 1e-9);
+        Assertions.assertEquals(store.getLifetime().getRallies().quantile(0.9), lifetime.getRallies().quantile(0.9), 1e-9);
+        Files.delete(file);
+    }
+
+    @Test
+    void recoversFromTornRecord() throws IOException {
+        Path file = Files.createTempFile("stats", ".dat");
+        Files.delete(file);
+        StatsStore store = new StatsStore();
+        store.load(file);
+        store.append(match(1));
+        store.append(match(2));
+        Files.write(file, new byte[]{0x53, 0x54, 0x41, 0x54, 0, 0}, StandardOpenOption.APPEND);
+        StatsStore reloaded = new StatsStore();
+        reloaded.load(file);
+        Assertions.assertEquals(2, reloaded.getLifetime().getMatches());
+        reloaded.append(match(3));
+        StatsStore again = new StatsStore();
+        again.load(file);
+        Assertions.assertEquals(3, again.getLifetime().getMatches());
+        Files.delete(file);
+    }
+
+    @Test
+    void keepInMemoryWhenUnreadable() throws IOException {
+        Path directory = Files.createTempDirectory("stats");
+        StatsStore store = new StatsStore();
+        store.load(directory);
+        Assertions.assertEquals(0, store.getLifetime().getMatches());
+        store.append(match(1));
+        store.append(match(2));
+        Assertions.assertEquals(2, store.getLifetime().getMatches());
+        Files.delete(directory);
+    }
+
+    @Test
+    void keepInMemoryWhenUnwritable() throws IOException {
+        Path notDirectory = Files.createTempFile("stats", ".dat");
+        StatsStore store = new StatsStore();
+        store.load(notDirectory.resolve("stats.dat"));
+        store.append(match(1));
+        Assertions.assertEquals(1, store.getLifetime().getMatches());
+        Assertions.assertEquals(0, Files.size(notDirectory));
+        Files.delete(notDirectory);
+    }
+
+    @Test
+    void quantilesWithinAccuracy() {
+        StreamingStat stat = new StreamingStat();
+        for (int i = 1; i <= 1000; i++) {
+            stat.add(i);
+        }
+        Assertions.assertEquals(500.5, stat.getMean(), 1e-9);
+        Assertions.assertEquals(500, stat.quantile(0.5), 500 * 0.02);
+        Assertions.assertEquals(900, stat.quantile(0.9), 900 * 0.02);
+        Assertions.assertEquals(1000.0, stat.getMax());
+    }
+
+    private static MatchStats match(int seed) {
+        MatchStats stats = new MatchStats();
+        for (int rally = 0; rally < 5 + seed; rally++) {
+            for (int hit = 0; hit < rally % 7; hit++) {
+                stats.onPaddleHit(hit % 2 == 0, 5 + hit, false);
+            }
+            stats.onGoal(rally % 2 == 0, rally % 7);
+        }
+        stats.finishMatch();
+        return stats;
+    }
+}